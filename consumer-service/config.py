@@ -4,7 +4,15 @@ KAFKA_BOOTSTRAP = os.getenv("KAFKA_BOOTSTRAP", "localhost:9092")
 CUSTOMER_TOPIC = "customer_data"
 INVENTORY_TOPIC = "inventory_data"
 
+# Source system and event type prefix of the events on each topic, used to
+# shape deletes that arrive as tombstones like the producer's *_DELETE events
+TOPIC_EVENTS = {
+    CUSTOMER_TOPIC: ("CRM", "CUSTOMER"),
+    INVENTORY_TOPIC: ("INVENTORY", "INVENTORY"),
+}
+
 CONSUMER_GROUP = "analytics-consumer-group"
+ISOLATION_LEVEL = os.getenv("KAFKA_ISOLATION_LEVEL", "read_committed")
 
 REDIS_HOST = os.getenv("REDIS_HOST", "localhost")
 REDIS_PORT = 6379
@@ -13,3 +13,22 @@ def is_duplicate(event_id: str) -> bool:
 
     redis_client.set(event_id, "1", ex=IDEMPOTENCY_TTL_SECONDS)
     return False
+
+
+def mark_deleted(topic: str, key: str) -> None:
+    """
+    Remembers that the delete event of an entity was applied, so that the
+    tombstone following it on topics publishing both is skipped.
+    """
+
+    if key is not None:
+        redis_client.set(f"deleted:{topic}:{key}", "1", ex=IDEMPOTENCY_TTL_SECONDS)
+
+
+def take_deleted(topic: str, key: str) -> bool:
+    """
+    Returns True if a delete event of the entity was applied and its
+    tombstone has not been seen yet, and forgets that delete.
+    """
+
+    return key is not None and redis_client.delete(f"deleted:{topic}:{key}") > 0
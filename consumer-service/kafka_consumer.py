@@ -1,10 +1,10 @@
-import json
 import logging
 from aiokafka import AIOKafkaConsumer
 from config import *
-from idempotency import is_duplicate
-from merger import merge_event
+from idempotency import is_duplicate, mark_deleted, take_deleted
+from merger import merge_event, tombstone_event
 from analytics_client import send_to_analytics
+from wire_format import UnsupportedEventFormat, decode_event
 
 logger = logging.getLogger("kafka_consumer")
 
@@ -17,7 +17,10 @@ class AnalyticsConsumer:
             bootstrap_servers=KAFKA_BOOTSTRAP,
             group_id=CONSUMER_GROUP,
             enable_auto_commit=False,
-            value_deserializer=lambda v: json.loads(v.decode("utf-8"))
+            # Skip records of aborted producer transactions
+            isolation_level=ISOLATION_LEVEL,
+            key_deserializer=lambda k: k.decode("utf-8") if k is not None else None
+            # Values stay raw bytes: their encoding is named by the content-type header
         )
 
     async def start(self):
@@ -33,7 +36,21 @@ class AnalyticsConsumer:
 
     async def process_message(self, msg):
 
-        event = msg.value
+        try:
+            event = decode_event(msg.headers, msg.value)
+        except UnsupportedEventFormat:
+            # Skipping would silently lose the event; stop until a consumer that can read it is deployed
+            logger.exception("Cannot decode record %s-%s@%s", msg.topic, msg.partition, msg.offset)
+            raise
+
+        # Deletes on compacted topics arrive as tombstones with a null value
+        if event is None:
+            # With delete mode BOTH the delete event came first; apply it once
+            if take_deleted(msg.topic, msg.key):
+                logger.info("Skipping tombstone of %s, its delete event was applied", msg.key)
+                await self.consumer.commit()
+                return
+            event = tombstone_event(msg)
         event_id = event.get("eventId")
 
         logger.info("Consumed event %s from topic %s", event_id, msg.topic)
@@ -49,6 +66,9 @@ class AnalyticsConsumer:
 
             await send_to_analytics(merged)
 
+            if msg.value is not None and str(event.get("eventType", "")).endswith("_DELETE"):
+                mark_deleted(msg.topic, msg.key)
+
             await self.consumer.commit()
 
             logger.info("Successfully processed event %s", event_id)
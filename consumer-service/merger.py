@@ -1,5 +1,8 @@
+from datetime import datetime, timezone
 from typing import Dict, Any
 
+from config import TOPIC_EVENTS
+
 def merge_event(event: Dict[str, Any]) -> Dict[str, Any]:
     """
     In this simplified implementation,
@@ -17,3 +20,27 @@ def merge_event(event: Dict[str, Any]) -> Dict[str, Any]:
         "timestamp": event["timestamp"],
         "payload": event["payload"]
     }
+
+
+def tombstone_event(msg) -> Dict[str, Any]:
+    """
+    Builds a delete event for a tombstone, i.e. a record with a null value.
+
+    Producers keying records by entity id send a tombstone when an entity is
+    deleted so compacted topics can drop it. The event has the shape of the
+    producer's <ENTITY>_DELETE events: the entity id is the record key, the
+    timestamp is the record's, as an ISO-8601 string, and the topic,
+    partition and offset make the event id unique and stable across
+    redeliveries.
+    """
+
+    source_system, prefix = TOPIC_EVENTS.get(msg.topic, (None, msg.topic.upper()))
+    timestamp = datetime.fromtimestamp(msg.timestamp / 1000, tz=timezone.utc)
+
+    return {
+        "eventId": f"{msg.topic}-{msg.partition}-{msg.offset}",
+        "eventType": f"{prefix}_DELETE",
+        "sourceSystem": source_system,
+        "timestamp": timestamp.isoformat(timespec="milliseconds").replace("+00:00", "Z"),
+        "payload": {"id": msg.key}
+    }
@@ -0,0 +1,142 @@
+import json
+import struct
+from datetime import datetime, timezone
+from typing import Any, Dict, List, Optional, Tuple
+
+# Mirrors EventWireFormat of producer-service
+CONTENT_TYPE_HEADER = "content-type"
+SCHEMA_FINGERPRINT_HEADER = "schema-fingerprint"
+AVRO_CONTENT_TYPE = "application/vnd.producer.event+avro"
+JSON_CONTENT_TYPE = "application/json"
+
+# Avro parsing fingerprint of producer-service's avro/base-event.avsc
+BASE_EVENT_FINGERPRINT = 0x30e48da03f1da0ee
+
+# Union branches of the Value record, in schema order
+NULL, BOOLEAN, LONG, DOUBLE, STRING, ARRAY, MAP = range(7)
+
+
+class UnsupportedEventFormat(Exception):
+    """
+    Raised for a record this consumer cannot decode: an unknown content type
+    or an Avro schema it was not written for.
+    """
+
+
+def decode_event(headers: List[Tuple[str, bytes]], value: Optional[bytes]) -> Optional[Dict[str, Any]]:
+    """
+    Decodes a record value according to its content-type header.
+
+    Records without the header come from producers that predate it and are
+    JSON. Tombstones decode to None.
+    """
+
+    if value is None:
+        return None
+    content_type = _header(headers, CONTENT_TYPE_HEADER)
+    if content_type is None or content_type.decode("utf-8") == JSON_CONTENT_TYPE:
+        return json.loads(value.decode("utf-8"))
+    if content_type.decode("utf-8") == AVRO_CONTENT_TYPE:
+        fingerprint = _header(headers, SCHEMA_FINGERPRINT_HEADER)
+        if fingerprint is None or len(fingerprint) != 8:
+            raise UnsupportedEventFormat("Avro record without a schema fingerprint")
+        if struct.unpack(">Q", fingerprint)[0] != BASE_EVENT_FINGERPRINT:
+            raise UnsupportedEventFormat(f"Unknown Avro schema fingerprint {fingerprint.hex()}")
+        return _AvroReader(value).base_event()
+    raise UnsupportedEventFormat(f"Unknown content type {content_type!r}")
+
+
+def _header(headers, name: str) -> Optional[bytes]:
+    # The last header wins, as with Headers.lastHeader on the producer side
+    found = None
+    for key, header_value in headers or ():
+        if key == name:
+            found = header_value
+    return found
+
+
+class _AvroReader:
+    """
+    Reads the Avro binary encoding of the BaseEvent schema, the only one
+    the producer writes.
+    """
+
+    def __init__(self, data: bytes):
+        self.data = data
+        self.pos = 0
+
+    def base_event(self) -> Dict[str, Any]:
+        event = {
+            "eventId": self.string(),
+            "eventType": self.string(),
+            "sourceSystem": self.string(),
+            "timestamp": self.timestamp(),
+            "payload": self.value(),
+        }
+        if self.pos != len(self.data):
+            raise UnsupportedEventFormat("Trailing bytes after the Avro event")
+        return event
+
+    def long(self) -> int:
+        shift = 0
+        result = 0
+        while True:
+            if self.pos >= len(self.data):
+                raise UnsupportedEventFormat("Truncated Avro event")
+            b = self.data[self.pos]
+            self.pos += 1
+            result |= (b & 0x7F) << shift
+            if not b & 0x80:
+                return (result >> 1) ^ -(result & 1)
+            shift += 7
+
+    def bytes(self, n: int) -> bytes:
+        if n < 0 or self.pos + n > len(self.data):
+            raise UnsupportedEventFormat("Truncated Avro event")
+        chunk = self.data[self.pos:self.pos + n]
+        self.pos += n
+        return chunk
+
+    def string(self) -> str:
+        return self.bytes(self.long()).decode("utf-8")
+
+    def timestamp(self) -> str:
+        micros = self.long()
+        instant = datetime.fromtimestamp(micros // 1_000_000, tz=timezone.utc)
+        instant = instant.replace(microsecond=micros % 1_000_000)
+        return instant.isoformat(timespec="microseconds").replace("+00:00", "Z")
+
+    def value(self) -> Any:
+        branch = self.long()
+        if branch == NULL:
+            return None
+        if branch == BOOLEAN:
+            return self.bytes(1) != b"\x00"
+        if branch == LONG:
+            return self.long()
+        if branch == DOUBLE:
+            return struct.unpack("<d", self.bytes(8))[0]
+        if branch == STRING:
+            return self.string()
+        if branch == ARRAY:
+            return [self.value() for _ in self.blocks()]
+        if branch == MAP:
+            result = {}
+            for _ in self.blocks():
+                key = self.string()
+                result[key] = self.value()
+            return result
+        raise UnsupportedEventFormat(f"Unknown Avro union branch {branch}")
+
+    def blocks(self):
+        # Arrays and maps are written as counted blocks ending with 0; a
+        # negative count is followed by the block's size in bytes
+        while True:
+            count = self.long()
+            if count == 0:
+                return
+            if count < 0:
+                count = -count
+                self.long()
+            for _ in range(count):
+                yield
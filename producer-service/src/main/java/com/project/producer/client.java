@@ -1,15 +1,25 @@
 package com.project.producer;
 
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.http.PageSink;
+import com.project.producer.http.PagedJsonReader;
+import com.project.producer.http.SourceResilience;
+import com.project.producer.model.Customer;
+import com.project.producer.model.Product;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceFetch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class client {
     /**
@@ -49,11 +59,28 @@ public class client {
     @Slf4j
     public static class CrmClient {
 
+        /**
+         * Name the circuit breaker, retry budget and latencies of the CRM are
+         * kept under; the name of its connector.
+         */
+        private static final String SOURCE = "crm";
+
         /**
          * RestTemplate used for making HTTP requests to the CRM API.
          */
         private final RestTemplate restTemplate;
 
+        /**
+         * Streaming reader used to page through the CRM collection without
+         * materializing it in memory.
+         */
+        private final PagedJsonReader pagedJsonReader;
+
+        /**
+         * Circuit breaker and retry budget of the source; see {@code producer.http.resilience}.
+         */
+        private final SourceResilience resilience;
+
         /**
          * Base URL for the CRM system.
          * Configurable via {@code crm.base-url} in application properties.
@@ -61,19 +88,128 @@ public class client {
         @Value("${crm.base-url:http://localhost:8081}")
         private String crmUrl;
 
+        /**
+         * Number of records requested per page when streaming.
+         * Configurable via {@code crm.page-size} in application properties.
+         */
+        @Value("${crm.page-size:1000}")
+        private int pageSize;
+
+        /**
+         * Maximum number of page requests sent to the CRM at the same time.
+         * Configurable via {@code crm.max-concurrent-requests} in application properties.
+         */
+        @Value("${crm.max-concurrent-requests:4}")
+        private int maxConcurrentRequests;
+
+        /**
+         * Name of the query parameter asking the CRM for records updated
+         * after a timestamp, or empty if it cannot filter by update time.
+         * Configurable via {@code crm.delta-param} in application properties.
+         */
+        @Value("${crm.delta-param:}")
+        private String deltaParam;
+
+        /**
+         * Name of the query parameter restricting a read to some shards of the
+         * id space, or empty if the CRM cannot filter by shard. Its value is
+         * {@link ShardAssignment#queryValue()}, e.g. {@code 0,5/12}.
+         * Configurable via {@code crm.shard-param} in application properties.
+         */
+        @Value("${crm.shard-param:}")
+        private String shardParam;
+
+        /**
+         * Maximum time between two full reads when delta requests are used;
+         * a delta cannot report deletions.
+         * Configurable via {@code producer.sync.full-sync-interval} in application properties.
+         */
+        @Value("${producer.sync.full-sync-interval:PT1H}")
+        private Duration fullSyncInterval;
+
         /**
          * Fetches the list of customers from the CRM REST API.
          * <p>
-         * This method is retried up to 3 times in case of failure, with an exponential
-         * backoff starting at 2 seconds.
+         * A failed request is retried with exponential backoff, up to
+         * {@code producer.http.resilience.retry.max-attempts} attempts and within
+         * the retry budget of the CRM; while its circuit breaker is open the
+         * call fails fast with a {@code CircuitOpenException}.
          * </p>
          *
          * @return a {@link List} of {@link Map} objects representing customers
          */
-        @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 2000, multiplier = 2))
         public List<Map<String, Object>> fetchCustomers() {
             log.info("Fetching customers from CRM at {}", crmUrl);
-            return restTemplate.getForObject(crmUrl + "/customers", List.class);
+            return resilience.call(SOURCE, () -> restTemplate.getForObject(crmUrl + "/customers", List.class));
+        }
+
+        /**
+         * Streams customers from the CRM REST API page by page.
+         * <p>
+         * Records are parsed incrementally into {@link Customer} objects and
+         * passed to {@code sink} as they arrive, so heap use stays bounded
+         * regardless of the number of customers and publishing can start while
+         * the download is still running. When the CRM reports the collection
+         * size, up to {@code crm.max-concurrent-requests} pages are fetched in
+         * parallel.
+         * </p>
+         *
+         * <p>
+         * A failed page request is retried by the reader, one page at a time.
+         * The stream as a whole is never retried: that would start over at the
+         * first page and hand the records already passed to {@code sink} to it
+         * again.
+         * </p>
+         *
+         * @param sink callback invoked once per customer record
+         * @return the number of customers read
+         */
+        public long streamCustomers(Consumer<Customer> sink) {
+            log.info("Streaming customers from CRM at {}", crmUrl);
+            return pagedJsonReader.forSource(SOURCE).read(crmUrl + "/customers?limit=" + pageSize, Customer.class,
+                    maxConcurrentRequests, sink);
+        }
+
+        /**
+         * Streams only what changed since the run that produced {@code cursor}.
+         * <p>
+         * The request is conditional on the stored {@code ETag} and
+         * {@code Last-Modified} values, so an unchanged CRM answers
+         * {@code 304 Not Modified} and nothing is read. If
+         * {@code crm.delta-param} is configured, only records updated since
+         * the stored watermark are requested, except once per
+         * {@code producer.sync.full-sync-interval}, when the whole collection
+         * is read again so that deletions are noticed.
+         * </p>
+         *
+         * <p>
+         * With a {@link RunCheckpoint}, an interrupted read is resumed at the
+         * first page that was not fully published instead.
+         * </p>
+         *
+         * <p>
+         * When this instance owns only some shards and {@code crm.shard-param}
+         * is configured, only the customers of those shards are requested.
+         * Otherwise the whole collection is read and the caller drops the
+         * records of other shards.
+         * </p>
+         *
+         * @param cursor the cursor stored after the last successful run with these shards
+         * @param resume the checkpoint of an interrupted run, or {@code null}
+         * @param shards the shards owned by this instance
+         * @param sink   callback invoked once per customer record and page
+         * @return what was read, and the cursor to store once it is published
+         */
+        public SourceFetch streamCustomerChanges(SourceCursor cursor, RunCheckpoint resume, ShardAssignment shards,
+                PageSink<Customer> sink) {
+            boolean delta = !deltaParam.isBlank() && cursor.allowsDelta(fullSyncInterval, Instant.now());
+            String url = crmUrl + "/customers?limit=" + pageSize;
+            if (!shards.isAll() && !shardParam.isBlank()) {
+                url += "&" + shardParam + "=" + shards.queryValue();
+            }
+            log.info("Streaming changed customers from CRM at {} (delta={}, {})", crmUrl, delta, shards.label());
+            return pagedJsonReader.forSource(SOURCE).readChanges(url, Customer.class,
+                    maxConcurrentRequests, cursor, delta ? deltaParam : null, resume, sink);
         }
     }
 
@@ -113,11 +249,28 @@ public class client {
     @Slf4j
     public static class InventoryClient {
 
+        /**
+         * Name the circuit breaker, retry budget and latencies of the Inventory are
+         * kept under; the name of its connector.
+         */
+        private static final String SOURCE = "inventory";
+
         /**
          * RestTemplate used for making HTTP requests to the Inventory API.
          */
         private final RestTemplate restTemplate;
 
+        /**
+         * Streaming reader used to page through the product catalog without
+         * materializing it in memory.
+         */
+        private final PagedJsonReader pagedJsonReader;
+
+        /**
+         * Circuit breaker and retry budget of the source; see {@code producer.http.resilience}.
+         */
+        private final SourceResilience resilience;
+
         /**
          * Base URL for the Inventory system.
          * Configurable via {@code inventory.base-url} in application properties.
@@ -125,19 +278,128 @@ public class client {
         @Value("${inventory.base-url:http://localhost:8082}")
         private String inventoryUrl;
 
+        /**
+         * Number of records requested per page when streaming.
+         * Configurable via {@code inventory.page-size} in application properties.
+         */
+        @Value("${inventory.page-size:1000}")
+        private int pageSize;
+
+        /**
+         * Maximum number of page requests sent to the Inventory at the same time.
+         * Configurable via {@code inventory.max-concurrent-requests} in application properties.
+         */
+        @Value("${inventory.max-concurrent-requests:4}")
+        private int maxConcurrentRequests;
+
+        /**
+         * Name of the query parameter asking the Inventory for records updated
+         * after a timestamp, or empty if it cannot filter by update time.
+         * Configurable via {@code inventory.delta-param} in application properties.
+         */
+        @Value("${inventory.delta-param:}")
+        private String deltaParam;
+
+        /**
+         * Name of the query parameter restricting a read to some shards of the
+         * id space, or empty if the Inventory cannot filter by shard. Its value is
+         * {@link ShardAssignment#queryValue()}, e.g. {@code 0,5/12}.
+         * Configurable via {@code inventory.shard-param} in application properties.
+         */
+        @Value("${inventory.shard-param:}")
+        private String shardParam;
+
+        /**
+         * Maximum time between two full reads when delta requests are used;
+         * a delta cannot report deletions.
+         * Configurable via {@code producer.sync.full-sync-interval} in application properties.
+         */
+        @Value("${producer.sync.full-sync-interval:PT1H}")
+        private Duration fullSyncInterval;
+
         /**
          * Fetches the list of products from the Inventory REST API.
          * <p>
-         * This method is retried up to 3 times in case of failure, with an exponential
-         * backoff starting at 2 seconds between retries.
+         * A failed request is retried with exponential backoff, up to
+         * {@code producer.http.resilience.retry.max-attempts} attempts and within
+         * the retry budget of the Inventory; while its circuit breaker is open
+         * the call fails fast with a {@code CircuitOpenException}.
          * </p>
          *
          * @return a {@link List} of {@link Map} objects representing products
          */
-        @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 2000, multiplier = 2))
         public List<Map<String, Object>> fetchProducts() {
             log.info("Fetching products from Inventory at {}", inventoryUrl);
-            return restTemplate.getForObject(inventoryUrl + "/products", List.class);
+            return resilience.call(SOURCE, () -> restTemplate.getForObject(inventoryUrl + "/products", List.class));
+        }
+
+        /**
+         * Streams products from the Inventory REST API page by page.
+         * <p>
+         * Records are parsed incrementally into {@link Product} objects and
+         * passed to {@code sink} as they arrive, so heap use stays bounded
+         * regardless of the catalog size. When the Inventory reports the
+         * catalog size, up to {@code inventory.max-concurrent-requests} pages are
+         * fetched in parallel.
+         * </p>
+         *
+         * <p>
+         * A failed page request is retried by the reader, one page at a time.
+         * The stream as a whole is never retried: that would start over at the
+         * first page and hand the records already passed to {@code sink} to it
+         * again.
+         * </p>
+         *
+         * @param sink callback invoked once per product record
+         * @return the number of products read
+         */
+        public long streamProducts(Consumer<Product> sink) {
+            log.info("Streaming products from Inventory at {}", inventoryUrl);
+            return pagedJsonReader.forSource(SOURCE).read(inventoryUrl + "/products?limit=" + pageSize, Product.class,
+                    maxConcurrentRequests, sink);
+        }
+
+        /**
+         * Streams only what changed since the run that produced {@code cursor}.
+         * <p>
+         * The request is conditional on the stored {@code ETag} and
+         * {@code Last-Modified} values, so an unchanged Inventory answers
+         * {@code 304 Not Modified} and nothing is read. If
+         * {@code inventory.delta-param} is configured, only records updated since
+         * the stored watermark are requested, except once per
+         * {@code producer.sync.full-sync-interval}, when the whole collection
+         * is read again so that deletions are noticed.
+         * </p>
+         *
+         * <p>
+         * With a {@link RunCheckpoint}, an interrupted read is resumed at the
+         * first page that was not fully published instead.
+         * </p>
+         *
+         * <p>
+         * When this instance owns only some shards and {@code inventory.shard-param}
+         * is configured, only the products of those shards are requested.
+         * Otherwise the whole collection is read and the caller drops the
+         * records of other shards.
+         * </p>
+         *
+         * @param cursor the cursor stored after the last successful run with these shards
+         * @param resume the checkpoint of an interrupted run, or {@code null}
+         * @param shards the shards owned by this instance
+         * @param sink   callback invoked once per product record and page
+         * @return what was read, and the cursor to store once it is published
+         */
+        public SourceFetch streamProductChanges(SourceCursor cursor, RunCheckpoint resume, ShardAssignment shards,
+                PageSink<Product> sink) {
+            boolean delta = !deltaParam.isBlank() && cursor.allowsDelta(fullSyncInterval, Instant.now());
+            String url = inventoryUrl + "/products?limit=" + pageSize;
+            if (!shards.isAll() && !shardParam.isBlank()) {
+                url += "&" + shardParam + "=" + shards.queryValue();
+            }
+            log.info("Streaming changed products from Inventory at {} (delta={}, {})", inventoryUrl, delta,
+                    shards.label());
+            return pagedJsonReader.forSource(SOURCE).readChanges(url, Product.class,
+                    maxConcurrentRequests, cursor, delta ? deltaParam : null, resume, sink);
         }
     }
 }
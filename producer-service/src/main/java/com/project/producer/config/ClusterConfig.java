@@ -0,0 +1,57 @@
+package com.project.producer.config;
+
+import com.project.producer.coordination.FileLockShardLeases;
+import com.project.producer.coordination.KafkaShardLeases;
+import com.project.producer.coordination.ShardLeases;
+import com.project.producer.coordination.SingleInstanceLeases;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.nio.file.Path;
+
+/**
+ * Chooses how producer instances split the work of every source, see
+ * {@link ClusterProperties} and {@link ShardLeases}.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig {
+
+    private final ClusterProperties properties;
+
+    private final KafkaProperties kafkaProperties;
+
+    private final ObjectProvider<SslBundles> sslBundles;
+
+    @Bean
+    public ShardLeases shardLeases() {
+        return switch (properties.getMode()) {
+            case "none" -> new SingleInstanceLeases();
+            case "file" -> new FileLockShardLeases(Path.of(properties.getLockDir()), properties.getShards(),
+                    properties.getRebalanceInterval());
+            case "kafka" -> new KafkaShardLeases(kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable()),
+                    properties.getControlTopic(), properties.getGroupId(), properties.getShards(),
+                    properties.getRebalanceInterval());
+            default -> throw new IllegalArgumentException("Unknown cluster mode: " + properties.getMode());
+        };
+    }
+
+    /**
+     * Created by Spring's {@code KafkaAdmin} on startup, or grown to
+     * {@code producer.cluster.shards} partitions if it has fewer.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "producer.cluster.mode", havingValue = "kafka")
+    public NewTopic shardControlTopic() {
+        return TopicBuilder.name(properties.getControlTopic()).partitions(properties.getShards()).build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.producer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for running several producer instances side by side, bound from
+ * {@code producer.cluster.*}.
+ *
+ * <pre>{@code
+ * producer:
+ *   cluster:
+ *     mode: kafka
+ *     shards: 12
+ *     control-topic: producer-shards
+ *     group-id: producer-service-shards
+ * }</pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "producer.cluster")
+public class ClusterProperties {
+
+    /**
+     * {@code none} for a single instance, {@code file} for file-lock leases
+     * in {@link #lockDir}, or {@code kafka} for consumer-group leases on
+     * {@link #controlTopic}.
+     */
+    private String mode = "none";
+
+    /**
+     * Number of shards every source's key space is split into; the upper
+     * bound on useful instances.
+     */
+    private int shards = 12;
+
+    /**
+     * Directory shared by the instances in {@code file} mode.
+     */
+    private String lockDir = "state/leases";
+
+    /**
+     * Time between two rebalances in {@code file} mode, and between two
+     * polls of the control topic in {@code kafka} mode.
+     */
+    private Duration rebalanceInterval = Duration.ofSeconds(5);
+
+    /**
+     * Topic whose partitions are the shards in {@code kafka} mode; created
+     * with {@link #shards} partitions if missing.
+     */
+    private String controlTopic = "producer-shards";
+
+    /**
+     * Consumer group of the instances in {@code kafka} mode.
+     */
+    private String groupId = "producer-service-shards";
+}
@@ -0,0 +1,32 @@
+package com.project.producer.config;
+
+import com.project.producer.model.ContentDerivedEventIdGenerator;
+import com.project.producer.model.EventIdGenerator;
+import com.project.producer.model.TimeOrderedEventIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the event ID strategy used by the producer services.
+ * <p>
+ * Configurable via {@code producer.event-id.strategy}:
+ * <ul>
+ *     <li>{@code time-ordered} (default): monotonic UUIDv7 identifiers;</li>
+ *     <li>{@code content}: deterministic identifiers derived from the record,
+ *     so retried runs produce the same IDs.</li>
+ * </ul>
+ * </p>
+ */
+@Configuration
+public class EventIdConfig {
+
+    @Bean
+    public EventIdGenerator eventIdGenerator(@Value("${producer.event-id.strategy:time-ordered}") String strategy) {
+        return switch (strategy) {
+            case "time-ordered" -> TimeOrderedEventIdGenerator.INSTANCE;
+            case "content" -> new ContentDerivedEventIdGenerator();
+            default -> throw new IllegalArgumentException("Unknown event id strategy: " + strategy);
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.project.producer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the HTTP client used to call the source systems, bound from
+ * {@code producer.http.*}.
+ *
+ * <pre>{@code
+ * producer:
+ *   http:
+ *     connect-timeout: 5s
+ *     read-timeout: 30s
+ *     http2: false
+ *     gzip: true
+ *     resilience:
+ *       retry:
+ *         max-attempts: 3
+ *         backoff: 2s
+ *         multiplier: 2.0
+ *         budget-ratio: 0.1
+ *         budget-capacity: 10
+ *       breaker:
+ *         window: 50
+ *         min-calls: 20
+ *         failure-rate: 0.5
+ *         open-for: 30s
+ *       hedge:
+ *         enabled: true
+ *         percentile: 0.95
+ *         min-samples: 20
+ *         min-delay: 50ms
+ * }</pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "producer.http")
+public class HttpClientProperties {
+
+    /**
+     * Maximum time to establish a TCP connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time to wait for a response once the request has been sent.
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Whether to negotiate HTTP/2, falling back to HTTP/1.1 when the server
+     * does not support it.
+     */
+    private boolean http2 = false;
+
+    /**
+     * Whether to request gzip compressed responses.
+     */
+    private boolean gzip = true;
+
+    /**
+     * Retries, circuit breakers and hedged requests towards the source systems.
+     */
+    private Resilience resilience = new Resilience();
+
+    @Data
+    public static class Resilience {
+
+        private Retry retry = new Retry();
+
+        private Breaker breaker = new Breaker();
+
+        private Hedge hedge = new Hedge();
+    }
+
+    @Data
+    public static class Retry {
+
+        /**
+         * Attempts per request, including the first; {@code 1} disables retries.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Wait before the first retry.
+         */
+        private Duration backoff = Duration.ofSeconds(2);
+
+        /**
+         * Factor the wait grows by per retry.
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Retries earned per new request to a source (retries earn nothing),
+         * capping retries and hedges at this share of the traffic.
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Most retries a source can save up, the cap of its retry budget. The
+         * budget starts full, so this many retries are available right after
+         * startup.
+         */
+        private int budgetCapacity = 10;
+    }
+
+    @Data
+    public static class Breaker {
+
+        /**
+         * Number of recent requests the failure rate is computed over.
+         */
+        private int window = 50;
+
+        /**
+         * Requests recorded before the breaker may open.
+         */
+        private int minCalls = 20;
+
+        /**
+         * Share of failed requests that opens the breaker.
+         */
+        private double failureRate = 0.5;
+
+        /**
+         * How long requests fail fast before a trial request is let through.
+         */
+        private Duration openFor = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Hedge {
+
+        /**
+         * Whether a page request without a response is duplicated.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Latency percentile of the source after which the duplicate is sent.
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Requests to a source before its requests are hedged.
+         */
+        private int minSamples = 20;
+
+        /**
+         * Shortest wait before hedging.
+         */
+        private Duration minDelay = Duration.ofMillis(50);
+    }
+}
@@ -1,38 +1,189 @@
 package com.project.producer.config;
 
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.publisher.DeleteMode;
+import com.project.producer.publisher.RecordKeyStrategy;
+import com.project.producer.publisher.TransactionMode;
+import com.project.producer.serialization.BaseEventAvroSerializer;
+import com.project.producer.serialization.JsonEventSerializer;
+import com.project.producer.serialization.TimedSerializer;
+import io.micrometer.core.instrument.Tag;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
- * Kafka producer configuration with idempotency and retries.
+ * Kafka producer configuration with idempotency, retries and named
+ * throughput profiles.
+ * <p>
+ * The shared settings (bootstrap servers, acks, retries, extra properties)
+ * come from the {@code spring.kafka.producer.*} block. Each profile under
+ * {@code producer.kafka.profiles} then layers its own batching and
+ * compression settings on top and gets a dedicated producer.
+ * </p>
+ *
+ * <p>
+ * Values are written as JSON unless {@code producer.kafka.value-formats}
+ * selects the compact {@code avro} encoding for a topic.
+ * </p>
+ *
+ * <p>
+ * Each producer registers its client metrics (record send rate, batch size,
+ * request latency, outgoing bytes, ...) with Micrometer, tagged with the
+ * profile name, and value serialization is timed per topic.
+ * </p>
+ *
+ * <p>
+ * Records are keyed by entity id unless {@code producer.kafka.key-strategy}
+ * says otherwise, and {@code producer.kafka.delete-modes} enables tombstones
+ * for compacted topics.
+ * </p>
+ *
+ * <p>
+ * With {@code producer.kafka.transactions.mode} set to {@code run} or
+ * {@code chunk}, every profile's factory gets a transactional id prefix so
+ * publish batches can commit atomically. The prefix names this instance,
+ * {@code producer.kafka.transactions.instance-id} or else the host name, so
+ * replicas never share a transactional id and fence each other. Templates
+ * still allow non-transactional sends for single records and spool replay.
+ * </p>
  */
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(ProducerProfileProperties.class)
 public class KafkaProducerConfig {
 
+    private final KafkaProperties kafkaProperties;
+
+    private final ProducerProfileProperties profileProperties;
+
+    private final ObjectProvider<SslBundles> sslBundles;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    private final ClusterProperties clusterProperties;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
-        Map<String, Object> config = new HashMap<>();
+        return profileFactory(profileProperties.getDefaultProfile());
+    }
 
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate() {
+        return template(producerFactory());
+    }
 
-        config.put(ProducerConfig.ACKS_CONFIG, "all");
-        config.put(ProducerConfig.RETRIES_CONFIG, 5);
-        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    /**
+     * Builds one template per configured profile. The default profile reuses
+     * the {@link #kafkaTemplate()} bean.
+     */
+    @Bean
+    public ProducerProfiles producerProfiles(KafkaTemplate<String, Object> kafkaTemplate) {
+        Map<String, KafkaTemplate<String, Object>> templates = new HashMap<>();
+        templates.put(profileProperties.getDefaultProfile(), kafkaTemplate);
+        profileProperties.getProfiles().keySet().forEach(profile ->
+                templates.computeIfAbsent(profile, name -> template(profileFactory(name))));
 
-        return new DefaultKafkaProducerFactory<>(config);
+        Map<String, DeleteMode> deleteModes = new HashMap<>();
+        profileProperties.getDeleteModes().forEach((topic, mode) -> deleteModes.put(topic, DeleteMode.parse(mode)));
+        if (recordKeyStrategy() == RecordKeyStrategy.EVENT_ID
+                && deleteModes.values().stream().anyMatch(mode -> mode != DeleteMode.EVENT)) {
+            throw new IllegalStateException("Tombstones need entity-id record keys; set producer.kafka.key-strategy=entity-id");
+        }
+        return new ProducerProfiles(profileProperties.getDefaultProfile(), templates, profileProperties.getTopics(),
+                deleteModes);
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public RecordKeyStrategy recordKeyStrategy() {
+        return switch (profileProperties.getKeyStrategy()) {
+            case "entity-id" -> RecordKeyStrategy.ENTITY_ID;
+            case "event-id" -> RecordKeyStrategy.EVENT_ID;
+            default -> throw new IllegalArgumentException("Unknown key strategy: " + profileProperties.getKeyStrategy());
+        };
+    }
+
+    private ProducerFactory<String, Object> profileFactory(String profile) {
+        Map<String, Object> config = new HashMap<>(kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable()));
+
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, "producer-service-" + profile);
+
+        config.putAll(profileProperties.getProfiles().getOrDefault(profile, Map.of()));
+
+        DefaultKafkaProducerFactory<String, Object> factory =
+                new DefaultKafkaProducerFactory<>(config, new StringSerializer(), valueSerializer());
+        if (transactional()) {
+            factory.setTransactionIdPrefix(profileProperties.getTransactions().getIdPrefix()
+                    + instanceId() + "-" + profile + "-");
+        }
+        factory.addListener(new MicrometerProducerListener<>(pipelineMetrics.getRegistry(),
+                List.of(Tag.of("profile", profile))));
+        return factory;
+    }
+
+    private KafkaTemplate<String, Object> template(ProducerFactory<String, Object> factory) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(factory);
+        template.setAllowNonTransactional(true);
+        return template;
+    }
+
+    private boolean transactional() {
+        return TransactionMode.parse(profileProperties.getTransactions().getMode()) != TransactionMode.NONE;
+    }
+
+    /**
+     * Names this instance in its transactional ids. It has to differ between
+     * replicas, and should stay the same across restarts of one replica so
+     * that the restarted producer fences the transactions of its old self.
+     */
+    private String instanceId() {
+        String configured = profileProperties.getTransactions().getInstanceId();
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        if ("file".equals(clusterProperties.getMode())) {
+            // File-lock leases are meant for instances on one host, which share its name.
+            throw new IllegalStateException(
+                    "Set producer.kafka.transactions.instance-id per instance when producer.cluster.mode=file");
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot name this instance in its transactional ids;"
+                    + " set producer.kafka.transactions.instance-id", e);
+        }
+    }
+
+    /**
+     * Routes each topic to the value serializer selected for it, falling back
+     * to JSON.
+     */
+    private Serializer<Object> valueSerializer() {
+        Map<Pattern, Serializer<?>> delegates = new HashMap<>();
+        profileProperties.getValueFormats().forEach((topic, format) -> {
+            if ("avro".equalsIgnoreCase(format)) {
+                delegates.put(Pattern.compile(Pattern.quote(topic)), new BaseEventAvroSerializer());
+            } else if (!"json".equalsIgnoreCase(format)) {
+                throw new IllegalArgumentException("Unknown value format '" + format + "' for topic " + topic);
+            }
+        });
+        return new TimedSerializer(new DelegatingByTopicSerializer(delegates, new JsonEventSerializer()), pipelineMetrics);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.project.producer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Named Kafka producer profiles bound from {@code producer.kafka.*}.
+ * <p>
+ * Each profile is a set of raw Kafka producer properties (for example
+ * {@code linger.ms}, {@code batch.size}, {@code compression.type}) layered on
+ * top of the shared {@code spring.kafka.producer.*} settings. Topics are mapped
+ * to a profile, and a producer run may also pick a profile explicitly.
+ * </p>
+ *
+ * <pre>{@code
+ * producer:
+ *   kafka:
+ *     default-profile: low-latency
+ *     full-run-profile: bulk-backfill
+ *     topics:
+ *       customer_data: high-throughput
+ *     profiles:
+ *       bulk-backfill:
+ *         linger.ms: 100
+ *         batch.size: 1048576
+ *         compression.type: zstd
+ *     value-formats:
+ *       inventory_data: avro
+ *     key-strategy: entity-id
+ *     delete-modes:
+ *       customer_data: both
+ *     transactions:
+ *       mode: run
+ * }</pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "producer.kafka")
+public class ProducerProfileProperties {
+
+    /**
+     * Profile used for topics without an explicit mapping.
+     */
+    private String defaultProfile = "low-latency";
+
+    /**
+     * Profile used for full reloads of a source, where large compressed
+     * batches matter more than per-record latency.
+     */
+    private String fullRunProfile = "bulk-backfill";
+
+    /**
+     * Topic name to profile name.
+     */
+    private Map<String, String> topics = new HashMap<>();
+
+    /**
+     * Profile name to Kafka producer properties.
+     */
+    private Map<String, Map<String, String>> profiles = new HashMap<>();
+
+    /**
+     * Topic name to value format, either {@code json} (the default) or
+     * {@code avro} for the compact binary encoding.
+     */
+    private Map<String, String> valueFormats = new HashMap<>();
+
+    /**
+     * Record key of published events: {@code entity-id} (the default) or
+     * {@code event-id}.
+     */
+    private String keyStrategy = "entity-id";
+
+    /**
+     * Topic name to delete mode: {@code event} (the default),
+     * {@code tombstone} or {@code both}. Tombstones require the
+     * {@code entity-id} key strategy.
+     */
+    private Map<String, String> deleteModes = new HashMap<>();
+
+    /**
+     * Transactional publishing of produce runs.
+     */
+    private Transactions transactions = new Transactions();
+
+    @Data
+    public static class Transactions {
+
+        /**
+         * {@code none} (the default), {@code run} to commit each batch
+         * atomically, or {@code chunk} to commit every {@link #chunkSize} records.
+         */
+        private String mode = "none";
+
+        /**
+         * Records per transaction in {@code chunk} mode.
+         */
+        private int chunkSize = 10000;
+
+        /**
+         * Prefix of the transactional ids; the {@link #instanceId} and the
+         * profile name are appended.
+         */
+        private String idPrefix = "producer-service-tx-";
+
+        /**
+         * Names this instance in its transactional ids; the host name when
+         * empty. Must differ between instances and should survive restarts,
+         * e.g. a StatefulSet pod name. Required in {@code file} cluster mode.
+         */
+        private String instanceId;
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.producer.config;
+
+import com.project.producer.publisher.DeleteMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+/**
+ * ProducerProfiles holds one {@link KafkaTemplate} per named producer profile
+ * and resolves which one to use for a topic or a run, along with how deletes
+ * are published to each topic.
+ * <p>
+ * Every profile owns its own Kafka producer, so batching and compression
+ * settings of a bulk reload never affect the latency of small incremental
+ * updates sent through another profile.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * KafkaTemplate<String, Object> template = producerProfiles.forTopic("customer_data");
+ * KafkaTemplate<String, Object> bulk = producerProfiles.forProfile("bulk-backfill");
+ * }</pre>
+ * </p>
+ */
+public class ProducerProfiles implements DisposableBean {
+
+    private final String defaultProfile;
+
+    private final Map<String, KafkaTemplate<String, Object>> templates;
+
+    private final Map<String, String> topicProfiles;
+
+    private final Map<String, DeleteMode> deleteModes;
+
+    /**
+     * @param defaultProfile profile used for topics without a mapping
+     * @param templates      template per profile name
+     * @param topicProfiles  topic name to profile name
+     */
+    public ProducerProfiles(String defaultProfile,
+                            Map<String, KafkaTemplate<String, Object>> templates,
+                            Map<String, String> topicProfiles) {
+        this(defaultProfile, templates, topicProfiles, Map.of());
+    }
+
+    /**
+     * @param defaultProfile profile used for topics without a mapping
+     * @param templates      template per profile name
+     * @param topicProfiles  topic name to profile name
+     * @param deleteModes    topic name to delete mode; unmapped topics use {@link DeleteMode#EVENT}
+     */
+    public ProducerProfiles(String defaultProfile,
+                            Map<String, KafkaTemplate<String, Object>> templates,
+                            Map<String, String> topicProfiles,
+                            Map<String, DeleteMode> deleteModes) {
+        this.defaultProfile = defaultProfile;
+        this.templates = Map.copyOf(templates);
+        this.topicProfiles = Map.copyOf(topicProfiles);
+        this.deleteModes = Map.copyOf(deleteModes);
+        forProfile(defaultProfile);
+    }
+
+    /**
+     * @param topic a Kafka topic
+     * @return the name of the profile configured for the topic
+     */
+    public String profileForTopic(String topic) {
+        return topicProfiles.getOrDefault(topic, defaultProfile);
+    }
+
+    /**
+     * @param topic a Kafka topic
+     * @return the template of the profile configured for the topic
+     */
+    public KafkaTemplate<String, Object> forTopic(String topic) {
+        return forProfile(profileForTopic(topic));
+    }
+
+    /**
+     * @param profile a profile name
+     * @return the template of the profile
+     * @throws IllegalArgumentException if no such profile is configured
+     */
+    public KafkaTemplate<String, Object> forProfile(String profile) {
+        KafkaTemplate<String, Object> template = templates.get(profile);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown producer profile: " + profile);
+        }
+        return template;
+    }
+
+    /**
+     * @param topic a Kafka topic
+     * @return how deletes are published to the topic
+     */
+    public DeleteMode deleteModeForTopic(String topic) {
+        return deleteModes.getOrDefault(topic, DeleteMode.EVENT);
+    }
+
+    /** @return all configured templates keyed by profile name */
+    public Map<String, KafkaTemplate<String, Object>> all() { return templates; }
+
+    /**
+     * Closes the producers of every profile on shutdown.
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (KafkaTemplate<String, Object> template : templates.values()) {
+            ProducerFactory<String, Object> factory = template.getProducerFactory();
+            if (factory instanceof DisposableBean disposable) {
+                disposable.destroy();
+            }
+        }
+    }
+}
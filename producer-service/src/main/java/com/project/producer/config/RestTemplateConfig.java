@@ -1,14 +1,85 @@
 package com.project.producer.config;
 
+import com.project.producer.http.GzipDecodingInterceptor;
+import com.project.producer.http.SourceResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP client configuration for calls to the source systems.
+ * <p>
+ * Requests go through the JDK {@link HttpClient}, which keeps persistent
+ * connections in a pool per host instead of opening a socket per request,
+ * and can negotiate HTTP/2. Connect and read timeouts, HTTP/2 and gzip
+ * compression are configured under {@code producer.http}; see
+ * {@link HttpClientProperties}.
+ * </p>
+ *
+ * <p>
+ * Every request is observed, so page latencies show up under the standard
+ * {@code http.client.requests} metric.
+ * </p>
+ *
+ * <p>
+ * Requests of the source clients go through {@link SourceResilience}, which
+ * keeps a circuit breaker, a retry budget and hedging latencies per source
+ * system; see {@code producer.http.resilience}.
+ * </p>
+ */
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class RestTemplateConfig {
 
+    private final HttpClientProperties properties;
+
+    @Bean
+    public HttpClient sourceHttpClient() {
+        return HttpClient.newBuilder()
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(HttpClient sourceHttpClient,
+                                     ObjectProvider<ObservationRegistry> observationRegistry) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(sourceHttpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        observationRegistry.ifAvailable(restTemplate::setObservationRegistry);
+        if (properties.isGzip()) {
+            restTemplate.getInterceptors().add(new GzipDecodingInterceptor());
+        }
+        return restTemplate;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public SourceResilience sourceResilience(MeterRegistry meterRegistry) {
+        HttpClientProperties.Resilience resilience = properties.getResilience();
+        HttpClientProperties.Retry retry = resilience.getRetry();
+        HttpClientProperties.Breaker breaker = resilience.getBreaker();
+        HttpClientProperties.Hedge hedge = resilience.getHedge();
+        return new SourceResilience(
+                new SourceResilience.Retry(retry.getMaxAttempts(), retry.getBackoff(), retry.getMultiplier(),
+                        retry.getBudgetRatio(), retry.getBudgetCapacity()),
+                new SourceResilience.Breaker(breaker.getWindow(), breaker.getMinCalls(), breaker.getFailureRate(),
+                        breaker.getOpenFor()),
+                new SourceResilience.Hedge(hedge.isEnabled(), hedge.getPercentile(), hedge.getMinSamples(),
+                        hedge.getMinDelay()),
+                meterRegistry);
     }
 }
@@ -0,0 +1,51 @@
+package com.project.producer.connector;
+
+import com.project.producer.client;
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.http.PageSink;
+import com.project.producer.model.Customer;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceFetch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the customers of the CRM system as {@code CUSTOMER_*} events to
+ * the {@code customer_data} topic.
+ */
+@Component
+@RequiredArgsConstructor
+public class CrmConnector implements SourceConnector<Customer> {
+
+    private final client.CrmClient crmClient;
+
+    @Override
+    public String name() { return "crm"; }
+
+    @Override
+    public String sourceSystem() { return "CRM"; }
+
+    @Override
+    public String topic() { return "customer_data"; }
+
+    @Override
+    public String eventPrefix() { return "CUSTOMER"; }
+
+    @Override
+    public Class<Customer> recordType() { return Customer.class; }
+
+    @Override
+    public Customer deleted(String id) { return Customer.ofId(id); }
+
+    @Override
+    public SourceFetch streamChanges(SourceCursor cursor, RunCheckpoint resume, PageSink<Customer> sink) {
+        return streamChanges(cursor, resume, ShardAssignment.ALL, sink);
+    }
+
+    @Override
+    public SourceFetch streamChanges(SourceCursor cursor, RunCheckpoint resume, ShardAssignment shards,
+                                     PageSink<Customer> sink) {
+        return crmClient.streamCustomerChanges(cursor, resume, shards, sink);
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.producer.connector;
+
+import com.project.producer.client;
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.http.PageSink;
+import com.project.producer.model.Product;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceFetch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the products of the Inventory system as {@code INVENTORY_*}
+ * events to the {@code inventory_data} topic.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryConnector implements SourceConnector<Product> {
+
+    private final client.InventoryClient inventoryClient;
+
+    @Override
+    public String name() { return "inventory"; }
+
+    @Override
+    public String sourceSystem() { return "INVENTORY"; }
+
+    @Override
+    public String topic() { return "inventory_data"; }
+
+    @Override
+    public String eventPrefix() { return "INVENTORY"; }
+
+    @Override
+    public Class<Product> recordType() { return Product.class; }
+
+    @Override
+    public Product deleted(String id) { return Product.ofId(id); }
+
+    @Override
+    public SourceFetch streamChanges(SourceCursor cursor, RunCheckpoint resume, PageSink<Product> sink) {
+        return streamChanges(cursor, resume, ShardAssignment.ALL, sink);
+    }
+
+    @Override
+    public SourceFetch streamChanges(SourceCursor cursor, RunCheckpoint resume, ShardAssignment shards,
+                                     PageSink<Product> sink) {
+        return inventoryClient.streamProductChanges(cursor, resume, shards, sink);
+    }
+}
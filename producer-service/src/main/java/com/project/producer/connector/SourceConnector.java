@@ -0,0 +1,114 @@
+package com.project.producer.connector;
+
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.http.PageSink;
+import com.project.producer.model.SourceRecord;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceFetch;
+
+/**
+ * A source system whose records the producer publishes to Kafka.
+ * <p>
+ * A connector only describes where records come from and where they go: it
+ * streams the records changed since a {@link SourceCursor}, and names the
+ * topic and event types. Change detection, parallel lanes, batching,
+ * transactions, cursors and scheduling are shared by every connector and
+ * live in {@code ProductionEngine} and {@code ProducerScheduler}. Adding a
+ * source system therefore only takes a client and a connector bean.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * @Component
+ * public class BillingConnector implements SourceConnector<Invoice> {
+ *     public String name() { return "billing"; }
+ *     public String sourceSystem() { return "BILLING"; }
+ *     public String topic() { return "invoice_data"; }
+ *     public String eventPrefix() { return "INVOICE"; }
+ *     public Class<Invoice> recordType() { return Invoice.class; }
+ *     public Invoice deleted(String id) { return Invoice.ofId(id); }
+ *     public SourceFetch streamChanges(SourceCursor cursor, RunCheckpoint resume, PageSink<Invoice> sink) {
+ *         return billingClient.streamInvoiceChanges(cursor, resume, sink);
+ *     }
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @param <R> the typed record of the source
+ */
+public interface SourceConnector<R extends SourceRecord> {
+
+    /**
+     * @return short lowercase name, e.g. {@code crm}; used for metrics tags,
+     * cursor files, {@code producer.scheduler.<name>.*} and the
+     * {@code /ingest/<name>} path
+     */
+    String name();
+
+    /** @return the source system stamped on every event, e.g. {@code CRM} */
+    String sourceSystem();
+
+    /** @return the topic the events are published to */
+    String topic();
+
+    /** @return the entity part of the event types, e.g. {@code CUSTOMER} for {@code CUSTOMER_UPDATE} */
+    String eventPrefix();
+
+    /** @return the record class, used to parse pushed records */
+    Class<R> recordType();
+
+    /**
+     * Streams the records changed since the run that produced {@code cursor}.
+     * <p>
+     * Records are passed to the sink with the page they were read from, so the
+     * engine can checkpoint the run. Given the checkpoint of an interrupted
+     * run, the connector resumes at its page and returns its cursor.
+     * </p>
+     *
+     * @param cursor the cursor stored after the last successful run
+     * @param resume the checkpoint of an interrupted run, or {@code null}
+     * @param sink   callback invoked once per record and page, never concurrently
+     * @return what was read, and the cursor to store once it is published
+     */
+    SourceFetch streamChanges(SourceCursor cursor, RunCheckpoint resume, PageSink<R> sink);
+
+    /**
+     * Streams the changed records of the shards this instance owns.
+     * <p>
+     * A connector whose source can filter by shard passes {@code shards} on to
+     * the source, so every instance only downloads its share of the
+     * collection. By default the whole collection is streamed and the engine
+     * drops the records of other shards, so adding instances splits the
+     * publishing work but not the fetching.
+     * </p>
+     *
+     * @param cursor the cursor stored after the last successful run with these shards
+     * @param resume the checkpoint of an interrupted run, or {@code null}
+     * @param shards the shards owned by this instance
+     * @param sink   callback invoked once per record and page, never concurrently
+     * @return what was read, and the cursor to store once it is published
+     */
+    default SourceFetch streamChanges(SourceCursor cursor, RunCheckpoint resume, ShardAssignment shards,
+                                      PageSink<R> sink) {
+        return streamChanges(cursor, resume, sink);
+    }
+
+    /**
+     * @param id the id of an entity that disappeared from the source
+     * @return the payload of its delete event
+     */
+    R deleted(String id);
+
+    /**
+     * Extracts the entity id, which orders the records of one entity on one
+     * lane and identifies them for change detection.
+     *
+     * @param record a record of this source
+     * @return its entity id
+     */
+    default String entityId(R record) {
+        return record.getId();
+    }
+}
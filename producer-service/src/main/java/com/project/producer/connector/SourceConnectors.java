@@ -0,0 +1,42 @@
+package com.project.producer.connector;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Every {@link SourceConnector} bean of the application, by name.
+ */
+@Component
+public class SourceConnectors {
+
+    private final Map<String, SourceConnector<?>> byName = new LinkedHashMap<>();
+
+    /**
+     * @param connectors the registered connectors
+     * @throws IllegalStateException if two connectors share a name
+     */
+    public SourceConnectors(List<SourceConnector<?>> connectors) {
+        for (SourceConnector<?> connector : connectors) {
+            if (byName.putIfAbsent(connector.name(), connector) != null) {
+                throw new IllegalStateException("Duplicate source connector name: " + connector.name());
+            }
+        }
+    }
+
+    /** @return every connector, in registration order */
+    public List<SourceConnector<?>> all() {
+        return List.copyOf(byName.values());
+    }
+
+    /**
+     * @param name a connector name, e.g. {@code crm}
+     * @return the connector, or empty if none has that name
+     */
+    public Optional<SourceConnector<?>> find(String name) {
+        return Optional.ofNullable(byName.get(name));
+    }
+}
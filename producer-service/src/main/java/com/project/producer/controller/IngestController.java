@@ -0,0 +1,90 @@
+package com.project.producer.controller;
+
+import com.project.producer.service.IngestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * IngestController lets source systems push records straight to Kafka.
+ * <p>
+ * Sources that can call a webhook get their changes published within the
+ * request instead of waiting for the next {@code ProducerScheduler} poll.
+ * The body is streamed, so uploads of any size are accepted; see
+ * {@link IngestService} for how backpressure is applied.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>{@code
+ * curl -X POST -H 'Content-Type: application/x-ndjson' \
+ *      --data-binary @customers.ndjson http://localhost:8080/ingest/crm
+ * }</pre>
+ * </p>
+ */
+@RestController
+@RequestMapping("/ingest")
+@RequiredArgsConstructor
+public class IngestController {
+
+    private static final Set<String> TYPES = Set.of("create", "update", "delete");
+
+    /**
+     * Seconds a refused sender is asked to wait before retrying.
+     */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final IngestService ingestService;
+
+    /**
+     * POST /ingest/{source}
+     * <p>
+     * Publishes every record of the body as an event of the given type.
+     * Responds with:
+     * <ul>
+     *     <li>{@code 200} and the summary once every record was acknowledged,
+     *     spooled or failed;</li>
+     *     <li>{@code 400} and the summary of the records published so far if
+     *     the body stopped being valid JSON;</li>
+     *     <li>{@code 500} if the records could not be handed to Kafka, e.g.
+     *     because they failed to serialize; the sender should retry;</li>
+     *     <li>{@code 429} with a {@code Retry-After} header if the producer
+     *     is saturated; nothing was read;</li>
+     *     <li>{@code 404} for an unknown source.</li>
+     * </ul>
+     * </p>
+     *
+     * @param source {@code crm} or {@code inventory}
+     * @param type   {@code create}, {@code update} (default) or {@code delete}
+     * @param body   newline-delimited JSON or a JSON array of records
+     * @return the ingest summary
+     */
+    @PostMapping(path = "/{source}",
+            consumes = {MockCustomerController.APPLICATION_NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<IngestService.IngestSummary> ingest(@PathVariable String source,
+                                                              @RequestParam(defaultValue = "update") String type,
+                                                              InputStream body) {
+        if (!ingestService.supports(source)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!TYPES.contains(type)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<IngestService.IngestSummary> summary = ingestService.ingest(source, type, body);
+        if (summary.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        return summary.get().error() == null
+                ? ResponseEntity.ok(summary.get())
+                : ResponseEntity.badRequest().body(summary.get());
+    }
+}
@@ -1,30 +1,71 @@
 package com.project.producer.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.http.PagedJsonReader;
+import com.project.producer.mock.CustomerStore;
+import com.project.producer.mock.SyntheticCustomerGenerator;
+import com.project.producer.model.Customer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 /**
- * MockCustomerController provides a simple in-memory REST API to simulate
+ * MockCustomerController provides an in-memory REST API to simulate
  * customer data management.
  * <p>
  * This controller exposes endpoints to fetch and add customers. It includes
- * sample data preloaded for testing and integration purposes.
+ * sample data preloaded for testing and integration purposes, and can be
+ * grown to millions of synthetic customers for load tests with
+ * {@link SyntheticCustomerGenerator}.
+ * </p>
+ *
+ * <p>
+ * Collection responses carry an {@code ETag} derived from the store version;
+ * a request with a matching {@code If-None-Match} header receives
+ * {@code 304 Not Modified} without a body.
  * </p>
  */
 @RestController
 @RequestMapping("/customers")
+@RequiredArgsConstructor
 public class MockCustomerController {
 
     /**
-     * In-memory storage for customer records. The key is a unique UUID,
-     * and the value is a map representing customer attributes (e.g., name, email).
+     * Media type of newline-delimited JSON bodies.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Thread-safe storage for customer records, ordered by id.
      */
-    private final Map<String, Map<String, Object>> customerStore = new HashMap<>();
+    private final CustomerStore customerStore;
 
     /**
-     * Constructor initializes the controller with some sample customer data.
+     * Generator of synthetic customers and churn.
      */
-    public MockCustomerController() {
+    private final SyntheticCustomerGenerator generator;
+
+    /**
+     * Mapper used to stream bulk request bodies.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Initializes the controller with some sample customer data.
+     */
+    @PostConstruct
+    void addSampleCustomers() {
         addSampleCustomer("Alice Smith", "alice@example.com");
         addSampleCustomer("Bob Johnson", "bob@example.com");
         addSampleCustomer("Charlie Brown", "charlie@example.com");
@@ -38,41 +79,180 @@ public class MockCustomerController {
      */
     private void addSampleCustomer(String name, String email) {
         String id = UUID.randomUUID().toString();
-        Map<String, Object> customer = new HashMap<>();
-        customer.put("id", id);
-        customer.put("name", name);
-        customer.put("email", email);
-        customerStore.put(id, customer);
+        customerStore.put(new Customer(id, name, email));
     }
 
     /**
      * GET /customers
      * <p>
-     * Retrieves all customers from the mock store.
+     * Retrieves customers from the mock store, in id order. Without
+     * {@code limit} every customer is returned. With {@code limit}, one page
+     * is returned and the total number of customers is reported in the
+     * {@code X-Total-Count} header:
+     * <ul>
+     *     <li>by default the page starts after {@code cursor} (the last id of
+     *     the previous page) and the next page is advertised in a
+     *     {@code Link: <...>; rel="next"} header;</li>
+     *     <li>with {@code offset}, the page is cut from a snapshot of the
+     *     store and carries the {@code ETag} of its version, so clients can
+     *     fetch pages in parallel and tell whether they all came from the same
+     *     version.</li>
+     * </ul>
+     * With {@code shards}, e.g. {@code 0,5/12}, only customers whose id falls
+     * into one of those shards ({@link ShardAssignment}) are returned and
+     * counted, so every producer instance downloads only its share.
      * </p>
      *
-     * @return a list of customers, where each customer is represented as a map
+     * @param offset     index of the first customer of the page
+     * @param limit      maximum number of customers in the page
+     * @param cursor     id after which the page starts
+     * @param shards     the shards to return, or {@code null} for all customers
+     * @param webRequest used to evaluate {@code If-None-Match}
+     * @return a list of customers, {@code 400} for malformed {@code shards}, or {@code null} once a 304
+     * has been prepared
      */
     @GetMapping
-    public List<Map<String, Object>> getCustomers() {
-        return new ArrayList<>(customerStore.values());
+    public ResponseEntity<List<Customer>> getCustomers(@RequestParam(required = false) Integer offset,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) String shards,
+                                                       WebRequest webRequest) {
+        ShardAssignment assignment;
+        try {
+            assignment = shards == null ? ShardAssignment.ALL : ShardAssignment.parse(shards);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (offset != null && limit != null) {
+            CustomerStore.Snapshot snapshot = customerStore.snapshot(assignment);
+            if (webRequest.checkNotModified(etag(snapshot.version()))) {
+                return null;
+            }
+            List<Customer> page = snapshot.page(offset, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .header(PagedJsonReader.TOTAL_COUNT_HEADER, String.valueOf(snapshot.customers().length));
+            if (!page.isEmpty() && offset + page.size() < snapshot.customers().length) {
+                String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .replaceQueryParam("offset", offset + page.size())
+                        .toUriString();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.body(page);
+        }
+
+        String etag = etag(customerStore.version());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        if (limit == null) {
+            return ResponseEntity.ok(assignment.isAll()
+                    ? new ArrayList<>(customerStore.all())
+                    : Arrays.asList(customerStore.snapshot(assignment).customers()));
+        }
+        List<Customer> page = customerStore.after(cursor, Math.max(limit, 1), assignment);
+        int total = assignment.isAll() ? customerStore.size() : customerStore.snapshot(assignment).customers().length;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(PagedJsonReader.TOTAL_COUNT_HEADER, String.valueOf(total));
+        if (page.size() == Math.max(limit, 1)) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.get(page.size() - 1).getId())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
     }
 
     /**
      * POST /customers
      * <p>
      * Adds a new customer to the mock store. A unique UUID is generated as the
-     * customer ID, and it is added to the request payload.
+     * customer ID, replacing any ID in the request payload. Unknown attributes
+     * are kept as customer extras.
      * </p>
      *
-     * @param customer a map containing customer attributes (e.g., name, email)
+     * @param customer the customer attributes (e.g., name, email)
      * @return the newly added customer, including the generated ID
      */
     @PostMapping
-    public Map<String, Object> addCustomer(@RequestBody Map<String, Object> customer) {
+    public Customer addCustomer(@RequestBody Customer customer) {
         String id = UUID.randomUUID().toString();
-        customer.put("id", id);
-        customerStore.put(id, customer);
-        return customer;
+        Customer stored = customer.withId(id);
+        customerStore.put(stored);
+        return stored;
+    }
+
+    /**
+     * POST /customers/bulk
+     * <p>
+     * Inserts customers from a newline-delimited JSON stream, or from a JSON
+     * array. The body is read one record at a time, so arbitrarily large
+     * uploads are supported. Records with an {@code id} replace the stored
+     * customer with that id; records without one get a generated UUID.
+     * </p>
+     *
+     * @param body the request body
+     * @return the number of customers inserted and the new store size
+     * @throws IOException if the body is not valid JSON
+     */
+    @PostMapping(path = "/bulk", consumes = {APPLICATION_NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public Map<String, Object> bulkInsert(InputStream body) throws IOException {
+        long inserted = 0;
+        try (MappingIterator<Customer> records = objectMapper.readerFor(Customer.class).readValues(body)) {
+            while (records.hasNextValue()) {
+                Customer customer = records.nextValue();
+                customerStore.put(customer.getId() == null ? customer.withId(UUID.randomUUID().toString()) : customer);
+                inserted++;
+            }
+        }
+        return Map.of("inserted", inserted, "total", customerStore.size());
+    }
+
+    /**
+     * POST /customers/generate
+     * <p>
+     * Adds {@code count} synthetic customers; the same seed always yields the
+     * same data.
+     * </p>
+     *
+     * @param count number of customers to generate
+     * @param seed  seed of the data set
+     * @return the number of customers generated and the new store size
+     */
+    @PostMapping("/generate")
+    public Map<String, Object> generate(@RequestParam long count, @RequestParam(defaultValue = "42") long seed) {
+        long generated = generator.generate(count, seed);
+        return Map.of("generated", generated, "total", customerStore.size());
+    }
+
+    /**
+     * POST /customers/churn
+     * <p>
+     * Updates, deletes and creates customers for a fraction {@code rate} of
+     * the store, simulating the changes between two producer runs.
+     * </p>
+     *
+     * @param rate fraction of the store to touch, between 0 and 1
+     * @return the number of customers created, updated and deleted
+     */
+    @PostMapping("/churn")
+    public SyntheticCustomerGenerator.Churn churn(@RequestParam double rate) {
+        return generator.churn(rate);
+    }
+
+    /**
+     * DELETE /customers/{id}
+     *
+     * @param id the customer id
+     * @return 204 if the customer was removed, 404 if it did not exist
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteCustomer(@PathVariable String id) {
+        return customerStore.remove(id) == null
+                ? ResponseEntity.notFound().build()
+                : ResponseEntity.noContent().build();
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
     }
 }
@@ -0,0 +1,184 @@
+package com.project.producer.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.http.PagedJsonReader;
+import com.project.producer.mock.MockInventoryProperties;
+import com.project.producer.mock.ProductCatalog;
+import com.project.producer.model.Product;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MockInventoryController serves a generated product catalog so the
+ * inventory path can be exercised without an external Inventory system.
+ * <p>
+ * Every {@code /products} request goes through the configured
+ * {@link MockInventoryProperties.Faults}: a latency drawn from a fixed, normal
+ * or long-tail distribution is added before the response starts, a share of
+ * requests fails with an error status, and the body can be dripped out at a
+ * limited number of bytes per second to simulate a slow network or an
+ * overloaded server. The faults can be changed at runtime through
+ * {@code PUT /products/faults}. Responses carry an {@code ETag}, so an
+ * unchanged catalog answers conditional requests with {@code 304 Not Modified}.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * curl -X PUT localhost:8010/products/faults -H 'Content-Type: application/json' \
+ *      -d '{"latency":"LONG_TAIL","latencyMs":40,"tailSigma":1.5,"errorRate":0.05}'
+ * curl 'localhost:8010/products?limit=500&offset=1000'
+ * }</pre>
+ * </p>
+ */
+@RestController
+@RequestMapping("/products")
+public class MockInventoryController {
+
+    /**
+     * Generated catalog served by this controller.
+     */
+    private final ProductCatalog catalog;
+
+    /**
+     * Mapper used to render pages before they are streamed.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Faults currently applied to every request.
+     */
+    private final AtomicReference<MockInventoryProperties.Faults> faults;
+
+    public MockInventoryController(ProductCatalog catalog, ObjectMapper objectMapper,
+                                   MockInventoryProperties properties) {
+        this.catalog = catalog;
+        this.objectMapper = objectMapper;
+        this.faults = new AtomicReference<>(properties.getFaults());
+    }
+
+    /**
+     * GET /products
+     * <p>
+     * Retrieves products from the catalog. Without {@code limit} the whole
+     * catalog is returned. With {@code limit}, one page starting at
+     * {@code offset} is returned, the catalog size is reported in the
+     * {@code X-Total-Count} header, and the next page is advertised in a
+     * {@code Link: <...>; rel="next"} header. With {@code shards}, e.g.
+     * {@code 0,5/12}, only products whose id falls into one of those shards
+     * ({@link ShardAssignment}) are returned, counted and paged through.
+     * </p>
+     *
+     * @param offset     index of the first product of the page
+     * @param limit      maximum number of products in the page
+     * @param shards     the shards to return, or {@code null} for the whole catalog
+     * @param webRequest used to evaluate {@code If-None-Match}
+     * @return the page, the configured error status, {@code 400} for malformed {@code shards}, or
+     * {@code null} once a 304 has been prepared
+     * @throws InterruptedException if interrupted while injecting latency
+     * @throws JsonProcessingException if the page cannot be rendered
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getProducts(@RequestParam(defaultValue = "0") long offset,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String shards,
+                                                             WebRequest webRequest)
+            throws InterruptedException, JsonProcessingException {
+        ShardAssignment assignment;
+        try {
+            assignment = shards == null ? ShardAssignment.ALL : ShardAssignment.parse(shards);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        MockInventoryProperties.Faults current = faults.get();
+        SplittableRandom random = new SplittableRandom();
+
+        Thread.sleep(current.sampleLatencyMs(random));
+        if (current.sampleError(random)) {
+            return ResponseEntity.status(current.getErrorStatus()).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        // The generated catalog only changes with its size and seed.
+        if (webRequest.checkNotModified("\"" + catalog.size() + "-" + catalog.seed() + "\"")) {
+            return null;
+        }
+
+        long size = catalog.size(assignment);
+        List<Product> products = limit == null
+                ? catalog.page(0, (int) Math.min(size, Integer.MAX_VALUE), assignment)
+                : catalog.page(offset, limit, assignment);
+        byte[] body = objectMapper.writeValueAsBytes(products);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(PagedJsonReader.TOTAL_COUNT_HEADER, String.valueOf(size));
+        if (limit != null && offset + products.size() < size && !products.isEmpty()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("offset", offset + products.size())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        long dripBytesPerSecond = current.getDripBytesPerSecond();
+        return response.body(out -> write(body, out, dripBytesPerSecond));
+    }
+
+    /**
+     * GET /products/faults
+     *
+     * @return the faults currently applied
+     */
+    @GetMapping("/faults")
+    public MockInventoryProperties.Faults getFaults() {
+        return faults.get();
+    }
+
+    /**
+     * PUT /products/faults
+     * <p>
+     * Replaces the faults applied to subsequent requests. Omitted fields take
+     * their defaults, i.e. no latency and no errors.
+     * </p>
+     *
+     * @param newFaults the faults to apply
+     * @return the faults now applied
+     */
+    @PutMapping("/faults")
+    public MockInventoryProperties.Faults setFaults(@RequestBody MockInventoryProperties.Faults newFaults) {
+        faults.set(newFaults);
+        return newFaults;
+    }
+
+    /**
+     * Writes the body at once, or in ten chunks per second when dripping.
+     */
+    private static void write(byte[] body, OutputStream out, long dripBytesPerSecond) throws IOException {
+        if (dripBytesPerSecond <= 0) {
+            out.write(body);
+            return;
+        }
+        int chunk = (int) Math.max(1, Math.min(body.length, dripBytesPerSecond / 10));
+        for (int from = 0; from < body.length; from += chunk) {
+            out.write(body, from, Math.min(chunk, body.length - from));
+            out.flush();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while dripping response");
+            }
+        }
+    }
+}
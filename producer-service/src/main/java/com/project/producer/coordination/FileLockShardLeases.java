@@ -0,0 +1,258 @@
+package com.project.producer.coordination;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Shard leases backed by OS file locks in a directory shared by every
+ * instance, a stand-in for a lease service when running several instances
+ * on one machine or on a shared volume with working locks.
+ * <p>
+ * Each instance holds a lock on its own {@code member-<id>.lock} file for as
+ * long as it lives, and a lock on {@code shard-<n>.lock} for every shard it
+ * owns. Every {@code producer.cluster.rebalance-interval} it counts the live
+ * members, i.e. member files that are still locked, and moves towards its fair
+ * share of {@code ceil(shards / members)}: it releases surplus shards and
+ * claims free ones. The OS drops the locks of a process that dies, so its
+ * shards are picked up by the survivors on their next rebalance.
+ * </p>
+ *
+ * <p>
+ * Locks are exclusive, so no two instances hold a shard at the same time,
+ * and a run stops publishing a shard once its lock is released. Sends the
+ * old owner had already handed to the producer still complete, so records
+ * of a moved shard may reach consumers twice; while a shard moves between
+ * instances it may briefly be owned by none, which the next run of the new
+ * owner covers with a full read. OS file locks belong to the process, so run
+ * one instance per JVM.
+ * </p>
+ */
+@Slf4j
+public class FileLockShardLeases implements ShardLeases, SmartLifecycle {
+
+    private static final String MEMBER_PREFIX = "member-";
+
+    private static final String LOCK_SUFFIX = ".lock";
+
+    private final Path dir;
+
+    private final int shardCount;
+
+    private final Duration rebalanceInterval;
+
+    private final String memberId = UUID.randomUUID().toString();
+
+    /**
+     * Locks of the owned shards, by shard number.
+     */
+    private final TreeMap<Integer, FileLock> held = new TreeMap<>();
+
+    private FileLock membership;
+
+    private Thread rebalancer;
+
+    private volatile ShardAssignment current;
+
+    /**
+     * @param dir               directory shared by every instance
+     * @param shardCount        number of shards the key space is split into
+     * @param rebalanceInterval time between two rebalances
+     */
+    public FileLockShardLeases(Path dir, int shardCount, Duration rebalanceInterval) {
+        this.dir = dir;
+        this.shardCount = shardCount;
+        this.rebalanceInterval = rebalanceInterval;
+        this.current = new ShardAssignment(shardCount, Set.of());
+    }
+
+    @Override
+    public ShardAssignment current() {
+        return current;
+    }
+
+    /**
+     * Releases surplus shards and claims free ones up to the fair share.
+     * Called every {@code rebalance-interval} once started.
+     */
+    public void rebalance() {
+        synchronized (held) {
+            rebalanceLocked();
+        }
+    }
+
+    private void rebalanceLocked() {
+        int members = liveMembers();
+        int fairShare = (shardCount + members - 1) / members;
+        while (held.size() > fairShare) {
+            release(held.pollLastEntry().getValue());
+        }
+        for (int shard = 0; shard < shardCount && held.size() < fairShare; shard++) {
+            if (!held.containsKey(shard)) {
+                FileLock lock = tryLock(dir.resolve("shard-" + shard + LOCK_SUFFIX));
+                if (lock != null) {
+                    held.put(shard, lock);
+                }
+            }
+        }
+        ShardAssignment next = new ShardAssignment(shardCount, held.keySet());
+        if (!next.equals(current)) {
+            log.info("Instance {} of {} now owns {}", memberId, members, next.label());
+            current = next;
+        }
+    }
+
+    /**
+     * Counts the members whose file is still locked and removes the files of
+     * members that are gone.
+     */
+    private int liveMembers() {
+        int live = 1;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith(MEMBER_PREFIX) || !name.endsWith(LOCK_SUFFIX)
+                        || name.equals(MEMBER_PREFIX + memberId + LOCK_SUFFIX)) {
+                    continue;
+                }
+                FileLock stale = tryLock(file);
+                if (stale == null) {
+                    live++;
+                } else {
+                    release(stale);
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list lease directory " + dir, e);
+        }
+        return live;
+    }
+
+    /**
+     * @return the lock, or {@code null} if another instance holds it
+     */
+    private static FileLock tryLock(Path file) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+            }
+            return lock;
+        } catch (OverlappingFileLockException e) {
+            // Held by another instance in this JVM.
+            closeQuietly(channel);
+            return null;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("Cannot lock " + file, e);
+        }
+    }
+
+    private static void release(FileLock lock) {
+        try {
+            lock.release();
+        } catch (IOException e) {
+            log.warn("Failed to release lease lock", e);
+        }
+        closeQuietly(lock.channel());
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The lock goes away with the channel either way.
+        }
+    }
+
+    private void loop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(rebalanceInterval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                log.warn("Shard rebalance failed, keeping {}", current.label(), e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (rebalancer != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            // Lock the member file before it becomes visible, so nobody takes it for stale.
+            Path joining = dir.resolve(MEMBER_PREFIX + memberId + ".joining");
+            membership = tryLock(joining);
+            Files.move(joining, dir.resolve(MEMBER_PREFIX + memberId + LOCK_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot join lease directory " + dir, e);
+        }
+        rebalance();
+        rebalancer = Thread.ofVirtual().name("shard-rebalance").start(this::loop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (rebalancer == null) {
+            return;
+        }
+        rebalancer.interrupt();
+        try {
+            rebalancer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rebalancer = null;
+        synchronized (held) {
+            held.values().forEach(FileLockShardLeases::release);
+            held.clear();
+            current = new ShardAssignment(shardCount, Set.of());
+        }
+        release(membership);
+        try {
+            Files.deleteIfExists(dir.resolve(MEMBER_PREFIX + memberId + LOCK_SUFFIX));
+        } catch (IOException e) {
+            log.warn("Failed to remove member file of {}", memberId, e);
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return rebalancer != null;
+    }
+
+    /**
+     * Starts before and stops after the producer jobs.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+}
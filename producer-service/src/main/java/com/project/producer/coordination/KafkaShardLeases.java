@@ -0,0 +1,159 @@
+package com.project.producer.coordination;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Shard leases handed out by Kafka's consumer-group protocol.
+ * <p>
+ * The control topic has one partition per shard and carries no records.
+ * Every instance joins the same consumer group on it, and the partitions the
+ * group coordinator assigns to an instance are the shards it owns. Kafka
+ * rebalances the partitions when an instance joins, leaves or stops polling
+ * within {@code max.poll.interval.ms}; a cooperative assignor moves only
+ * the shards that have to move.
+ * </p>
+ *
+ * <p>
+ * An instance that stopped polling may be dropped from the group before it
+ * notices, so for a while a shard can be owned by its old and its new
+ * instance. A run checks its leases before every record and stops
+ * publishing a shard once it is revoked, but records sent before that may
+ * be published again by the new owner: they may reach consumers twice,
+ * never not at all.
+ * </p>
+ */
+@Slf4j
+public class KafkaShardLeases implements ShardLeases, SmartLifecycle, ConsumerRebalanceListener {
+
+    private final Map<String, Object> consumerConfig;
+
+    private final String topic;
+
+    private final int shardCount;
+
+    private final Duration pollTimeout;
+
+    private final Set<Integer> owned = new ConcurrentSkipListSet<>();
+
+    private volatile ShardAssignment current;
+
+    private volatile KafkaConsumer<byte[], byte[]> consumer;
+
+    private Thread poller;
+
+    /**
+     * @param consumerConfig connection settings of the cluster holding the control topic
+     * @param topic          the control topic, with {@code shardCount} partitions
+     * @param groupId        consumer group shared by every producer instance
+     * @param shardCount     number of shards the key space is split into
+     * @param pollTimeout    maximum time between two polls of the group
+     */
+    public KafkaShardLeases(Map<String, Object> consumerConfig, String topic, String groupId, int shardCount,
+                            Duration pollTimeout) {
+        this.consumerConfig = new HashMap<>(consumerConfig);
+        this.consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        this.consumerConfig.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumerConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        this.consumerConfig.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                "org.apache.kafka.clients.consumer.CooperativeStickyAssignor");
+        this.topic = topic;
+        this.shardCount = shardCount;
+        this.pollTimeout = pollTimeout;
+        this.current = new ShardAssignment(shardCount, Set.of());
+    }
+
+    @Override
+    public ShardAssignment current() {
+        return current;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        partitions.forEach(partition -> owned.add(partition.partition()));
+        update();
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        partitions.forEach(partition -> owned.remove(partition.partition()));
+        update();
+    }
+
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+        onPartitionsRevoked(partitions);
+    }
+
+    private void update() {
+        current = new ShardAssignment(shardCount, owned);
+        log.info("Producer instance now owns {}", current.label());
+    }
+
+    private void poll() {
+        try (KafkaConsumer<byte[], byte[]> kafkaConsumer = consumer) {
+            kafkaConsumer.subscribe(List.of(topic), this);
+            while (!Thread.currentThread().isInterrupted()) {
+                // The topic stays empty; polling only keeps this instance in the group.
+                kafkaConsumer.poll(pollTimeout);
+            }
+        } catch (WakeupException e) {
+            // stop() was called.
+        } catch (RuntimeException e) {
+            log.error("Shard lease consumer on {} failed, this instance no longer owns any shard", topic, e);
+        } finally {
+            owned.clear();
+            update();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        consumer = new KafkaConsumer<>(consumerConfig, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+        poller = Thread.ofVirtual().name("shard-leases").start(this::poll);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (poller == null) {
+            return;
+        }
+        consumer.wakeup();
+        try {
+            poller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        poller = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return poller != null;
+    }
+
+    /**
+     * Starts before and stops after the producer jobs.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+}
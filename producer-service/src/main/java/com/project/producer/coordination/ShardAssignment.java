@@ -0,0 +1,97 @@
+package com.project.producer.coordination;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The shards of the entity key space that one producer instance currently
+ * publishes.
+ * <p>
+ * A record belongs to shard {@code floorMod(entityId.hashCode(), shardCount)}.
+ * {@link String#hashCode()} is specified by the JDK, so every instance maps a
+ * key to the same shard.
+ * </p>
+ *
+ * @param shardCount number of shards the key space is split into
+ * @param owned      the shards held by this instance
+ */
+public record ShardAssignment(int shardCount, Set<Integer> owned) {
+
+    /**
+     * A single instance owning the whole key space.
+     */
+    public static final ShardAssignment ALL = new ShardAssignment(1, Set.of(0));
+
+    public ShardAssignment {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        owned = Set.copyOf(owned);
+    }
+
+    /**
+     * @param key        an entity id, or {@code null}
+     * @param shardCount number of shards
+     * @return the shard of {@code key}; keys without an id belong to shard 0
+     */
+    public static int shardOf(String key, int shardCount) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), shardCount);
+    }
+
+    /**
+     * @param key an entity id
+     * @return whether this instance publishes records of that entity
+     */
+    public boolean owns(String key) {
+        return owned.contains(shardOf(key, shardCount));
+    }
+
+    /** @return {@code true} if this instance owns no shard and should not publish */
+    public boolean isEmpty() { return owned.isEmpty(); }
+
+    /** @return {@code true} if this instance owns the whole key space */
+    public boolean isAll() { return owned.size() == shardCount; }
+
+    /**
+     * @return the owned shards as a query parameter value, e.g. {@code 0,2/4};
+     * see {@link #parse(String)}
+     */
+    public String queryValue() {
+        return new TreeSet<>(owned).stream().map(String::valueOf).collect(Collectors.joining(","))
+                + "/" + shardCount;
+    }
+
+    /**
+     * Parses a {@link #queryValue()}, as sent to sources that filter by shard.
+     *
+     * @param value the owned shards and the shard count, e.g. {@code 0,2/4}
+     * @return the assignment
+     * @throws IllegalArgumentException if {@code value} is malformed
+     */
+    public static ShardAssignment parse(String value) {
+        int slash = value.lastIndexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Expected <shard>,<shard>/<count>: " + value);
+        }
+        try {
+            Set<Integer> owned = new TreeSet<>();
+            for (String shard : value.substring(0, slash).split(",")) {
+                if (!shard.isBlank()) {
+                    owned.add(Integer.parseInt(shard.trim()));
+                }
+            }
+            return new ShardAssignment(Integer.parseInt(value.substring(slash + 1).trim()), owned);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected <shard>,<shard>/<count>: " + value, e);
+        }
+    }
+
+    /**
+     * @return a file-name safe description, e.g. {@code shards-0.2-of-4}
+     */
+    public String label() {
+        return "shards-" + new TreeSet<>(owned).stream().map(String::valueOf).collect(Collectors.joining("."))
+                + "-of-" + shardCount;
+    }
+}
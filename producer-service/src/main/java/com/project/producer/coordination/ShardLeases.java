@@ -0,0 +1,25 @@
+package com.project.producer.coordination;
+
+/**
+ * Decides which shards of every source's key space this producer instance
+ * publishes, so that replicas split the work instead of duplicating it.
+ * <p>
+ * Implementations hold leases that are released when an instance stops or
+ * dies, and rebalance the shards when instances join or leave. Selected via
+ * {@code producer.cluster.mode}:
+ * <ul>
+ *     <li>{@code none} - {@link SingleInstanceLeases}, the whole key space</li>
+ *     <li>{@code file} - {@link FileLockShardLeases}, file locks in a shared directory</li>
+ *     <li>{@code kafka} - {@link KafkaShardLeases}, consumer-group assignment of a control topic</li>
+ * </ul>
+ * </p>
+ */
+public interface ShardLeases {
+
+    /**
+     * @return the shards held right now; a run plans its reads with the
+     * snapshot taken at its start, but checks again before publishing each
+     * record, since leases may move while it runs
+     */
+    ShardAssignment current();
+}
@@ -0,0 +1,12 @@
+package com.project.producer.coordination;
+
+/**
+ * Lease-free mode for a single producer instance, which owns every record.
+ */
+public class SingleInstanceLeases implements ShardLeases {
+
+    @Override
+    public ShardAssignment current() {
+        return ShardAssignment.ALL;
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.producer.http;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of the
+ * source system is open.
+ */
+public class CircuitOpenException extends RestClientException {
+
+    /**
+     * @param source the source system, e.g. {@code crm}
+     */
+    public CircuitOpenException(String source) {
+        super("Circuit breaker for " + source + " is open, not sending the request");
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.producer.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Requests gzip compressed responses and transparently decompresses them.
+ * <p>
+ * The JDK HTTP client does not handle content encoding on its own. This
+ * interceptor adds {@code Accept-Encoding: gzip} to every request and, when
+ * the server answers with {@code Content-Encoding: gzip}, wraps the body in a
+ * {@link GZIPInputStream}, so callers such as {@link PagedJsonReader} still
+ * read plain JSON while the payload crosses the network compressed.
+ * </p>
+ */
+public class GzipDecodingInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String GZIP = "gzip";
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (!GZIP.equalsIgnoreCase(encoding) || hasNoBody(response.getStatusCode())) {
+            return response;
+        }
+        return new GzipResponse(response);
+    }
+
+    private static boolean hasNoBody(HttpStatusCode status) {
+        return status.value() == 204 || status.value() == 304;
+    }
+
+    /**
+     * Response view exposing the decompressed body. Content encoding and
+     * length headers are dropped since they describe the compressed bytes.
+     */
+    private static final class GzipResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+
+        private final HttpHeaders headers;
+
+        private InputStream body;
+
+        private GzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(delegate.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new GZIPInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
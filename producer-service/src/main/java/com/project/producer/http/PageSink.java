@@ -0,0 +1,60 @@
+package com.project.producer.http;
+
+import com.project.producer.sync.SourceCursor;
+
+import java.net.URI;
+import java.util.function.Consumer;
+
+/**
+ * Receives the records of a paged read together with the page they came
+ * from, so that a caller can tell when every record of a page has been
+ * handled and checkpoint the read.
+ * <p>
+ * Pages are numbered from {@code 0} within one read, in request order for
+ * link and cursor paging and by offset for parallel offset paging. For every
+ * page, {@link #pageStarted} is called before its first record and
+ * {@link #pageRead} after its last one. The callbacks are never invoked
+ * concurrently, but pages read in parallel interleave.
+ * </p>
+ *
+ * @param <T> the record type
+ */
+@FunctionalInterface
+public interface PageSink<T> {
+
+    /**
+     * @param record a record of the collection
+     * @param page   the page it was read from
+     */
+    void accept(T record, long page);
+
+    /**
+     * @param page the page about to be read
+     * @param uri  the request that reads it; reading again from there resumes at this page
+     */
+    default void pageStarted(long page, URI uri) {}
+
+    /**
+     * @param page    a page whose records have all been passed to {@link #accept}
+     * @param records the number of records it held
+     */
+    default void pageRead(long page, long records) {}
+
+    /**
+     * Called once the first page of a conditional read has been read, with
+     * the cursor the read will return, so that an interrupted read can still
+     * store the watermark of its start.
+     *
+     * @param cursor the cursor to store once every record has been published
+     */
+    default void started(SourceCursor cursor) {}
+
+    /**
+     * @param sink a callback that does not care about pages
+     * @param <T>  the record type
+     * @return a page sink passing every record to {@code sink}
+     */
+    static <T> PageSink<T> of(Consumer<? super T> sink) {
+        return (record, page) -> sink.accept(record);
+    }
+}
@@ -0,0 +1,789 @@
+package com.project.producer.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceFetch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PagedJsonReader streams JSON records from a paginated REST collection.
+ * <p>
+ * Instead of materializing the whole response as a {@code List<Map>}, the body
+ * is parsed incrementally with Jackson's streaming {@link JsonParser} and each
+ * record is bound straight to its target type and handed to the caller as soon
+ * as it has been read. Only one record is held in memory at a time, so heap use
+ * does not depend on the size of the source collection.
+ * </p>
+ *
+ * <p>
+ * Two page shapes are understood:
+ * <ul>
+ *     <li>a top-level JSON array, with the next page advertised in an
+ *     RFC 8288 {@code Link: <url>; rel="next"} header;</li>
+ *     <li>an envelope object of the form
+ *     {@code {"items": [...], "next": "url"}} or
+ *     {@code {"items": [...], "nextCursor": "abc"}}, where a cursor is sent
+ *     back as the {@code cursor} query parameter.</li>
+ * </ul>
+ * Pages are followed until the source stops advertising a next page.
+ * </p>
+ *
+ * <p>
+ * Link and cursor pages depend on each other and are read one at a time. When
+ * the first page of a {@code limit}-based request carries an
+ * {@code X-Total-Count} header, the remaining pages are independent and are
+ * requested by {@code offset} instead, up to {@code parallelism} at a time.
+ * Records of different pages then reach the sink in no particular order, but
+ * never concurrently. So that every page is cut from the same version of the
+ * collection, a parallel read asks for the first page by {@code offset=0} as
+ * well, and every page must report the {@code ETag} and total count of the
+ * first one. If the collection changed in between, records may have been
+ * skipped or read twice: {@link #readChanges} then reports a partial read,
+ * which does not look for deletions, and a cursor that makes the next read a
+ * full one.
+ * </p>
+ *
+ * <p>
+ * {@link #readChanges} makes the first request conditional on a
+ * {@link SourceCursor}: the stored validators are sent as
+ * {@code If-None-Match}/{@code If-Modified-Since}, and a delta request adds
+ * the {@code updatedSince} watermark as a query parameter. A
+ * {@code 304 Not Modified} ends the read without touching the sink.
+ * </p>
+ *
+ * <p>
+ * Given a {@link PageSink}, the reader also reports the request of every
+ * page and when it has been read, and can resume a read at the page of a
+ * {@link RunCheckpoint}. An offset page resumes with the remaining pages
+ * still fetched in parallel.
+ * </p>
+ *
+ * <p>
+ * Every page request goes through {@link SourceResilience}: it fails fast
+ * while the circuit breaker of the source is open and is retried within the
+ * source's retry budget. The source is named by the client through
+ * {@link #forSource(String)}. Once enough latencies of the source are known, a
+ * page request that got no response within the configured percentile is
+ * hedged with a duplicate request. The first response is read and the other
+ * request is aborted, so records reach the sink once and the slower request
+ * does not hold a connection until its timeout. A page that fails after some
+ * of its records were read is retried as a whole, so those records reach the
+ * sink again. An exception thrown by the sink ends the read as it is: it is
+ * not retried and not held against the source.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * long count = reader.read(crmUrl + "/customers", Customer.class, customer -> publish(customer));
+ * }</pre>
+ * </p>
+ */
+@Component
+@Slf4j
+public class PagedJsonReader {
+
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    /**
+     * Header advertising the size of the whole collection.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /**
+     * Returned by a hedged attempt whose response arrived second and was discarded.
+     */
+    private static final Page LOST_RACE = new Page(0, null, null, false, null, null, -1);
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;[^,]*rel=\"?next\"?");
+
+    /**
+     * RestTemplate used to issue the page requests.
+     */
+    private final RestTemplate restTemplate;
+
+    /**
+     * Shared Jackson mapper used to bind individual records.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Circuit breakers, retry budgets and hedging delays of the source systems.
+     */
+    private final SourceResilience resilience;
+
+    /**
+     * Name of the source system whose resilience state the requests use.
+     */
+    private final String source;
+
+    /**
+     * Creates a reader that sends every page request once, without breaker or hedging.
+     */
+    public PagedJsonReader(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(restTemplate, objectMapper, SourceResilience.disabled());
+    }
+
+    @Autowired
+    public PagedJsonReader(RestTemplate restTemplate, ObjectMapper objectMapper, SourceResilience resilience) {
+        this(restTemplate, objectMapper, resilience, "default");
+    }
+
+    private PagedJsonReader(RestTemplate restTemplate, ObjectMapper objectMapper, SourceResilience resilience,
+                            String source) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.resilience = resilience;
+        this.source = source;
+    }
+
+    /**
+     * Returns a reader whose requests use the circuit breaker, retry budget
+     * and latencies of {@code source}, so that sources behind one host fail
+     * and recover independently.
+     *
+     * @param source name of the source system, e.g. {@code crm}
+     * @return a reader sharing this reader's client and mapper
+     */
+    public PagedJsonReader forSource(String source) {
+        return new PagedJsonReader(restTemplate, objectMapper, resilience, source);
+    }
+
+    /**
+     * Reads every record of the collection starting at {@code url}, following
+     * next-page links, and passes each record to {@code sink}.
+     *
+     * @param url  the URL of the first page
+     * @param type the type each record is bound to
+     * @param sink callback invoked once per record, in source order
+     * @param <T>  the record type
+     * @return the number of records read across all pages
+     */
+    public <T> long read(String url, Class<T> type, Consumer<? super T> sink) {
+        return read(url, objectMapper.constructType(type), 1, sink);
+    }
+
+    /**
+     * Reads every record of the collection, fetching independent pages in
+     * parallel when the source supports offset paging.
+     *
+     * @param url         the URL of the first page, including a {@code limit}
+     * @param type        the type each record is bound to
+     * @param parallelism maximum number of concurrent page requests
+     * @param sink        callback invoked once per record, never concurrently
+     * @param <T>         the record type
+     * @return the number of records read across all pages
+     */
+    public <T> long read(String url, Class<T> type, int parallelism, Consumer<? super T> sink) {
+        return read(url, objectMapper.constructType(type), parallelism, sink);
+    }
+
+    /**
+     * Reads every record of the collection as an untyped {@code Map}.
+     *
+     * @param url  the URL of the first page
+     * @param sink callback invoked once per record, in source order
+     * @return the number of records read across all pages
+     * @see #read(String, Class, Consumer)
+     */
+    public long read(String url, Consumer<Map<String, Object>> sink) {
+        return read(url, objectMapper.constructType(RECORD_TYPE), 1, sink);
+    }
+
+    /**
+     * Reads the records changed since the last successful read of the
+     * collection, as far as the source can tell.
+     * <p>
+     * The first request carries the validators of {@code cursor}. If
+     * {@code deltaParam} is set and the cursor holds a watermark, only records
+     * updated since then are requested. The returned cursor holds the new
+     * validators and, as the new watermark, the source's {@code Date} at the
+     * first response (or the local time if the source sends none); it should
+     * only be stored once the records have been published.
+     * </p>
+     *
+     * @param url         the URL of the first page
+     * @param type        the type each record is bound to
+     * @param parallelism maximum number of concurrent page requests
+     * @param cursor      what the previous successful read left behind
+     * @param deltaParam  name of the source's updated-since query parameter,
+     *                    or {@code null} to read the whole collection
+     * @param sink        callback invoked once per record, never concurrently
+     * @param <T>         the record type
+     * @return the number of records read, and the cursor for the next read
+     */
+    public <T> SourceFetch readChanges(String url, Class<T> type, int parallelism, SourceCursor cursor,
+                                       String deltaParam, Consumer<? super T> sink) {
+        return readChanges(url, type, parallelism, cursor, deltaParam, null, PageSink.of(sink));
+    }
+
+    /**
+     * Reads the records changed since the last successful read, or resumes an
+     * interrupted read at its checkpoint.
+     * <p>
+     * Without a checkpoint this is {@link #readChanges(String, Class, int,
+     * SourceCursor, String, Consumer)}, and {@link PageSink#started} receives
+     * the returned cursor as soon as the first page has been read. With one,
+     * the read starts unconditionally at {@link RunCheckpoint#resumeUri()} and
+     * returns the cursor of the checkpoint. A resumed read does not see the
+     * records before the checkpoint, so it is reported as a delta read and
+     * deletions are left to the next full read.
+     * </p>
+     *
+     * @param url         the URL of the first page
+     * @param type        the type each record is bound to
+     * @param parallelism maximum number of concurrent page requests
+     * @param cursor      what the previous successful read left behind
+     * @param deltaParam  name of the source's updated-since query parameter,
+     *                    or {@code null} to read the whole collection
+     * @param resume      the checkpoint of an interrupted read, or {@code null}
+     * @param sink        callback invoked once per record and page, never concurrently
+     * @param <T>         the record type
+     * @return the number of records read, and the cursor for the next read
+     */
+    public <T> SourceFetch readChanges(String url, Class<T> type, int parallelism, SourceCursor cursor,
+                                       String deltaParam, RunCheckpoint resume, PageSink<? super T> sink) {
+        if (resume != null) {
+            log.info("Resuming the read of {} at {}", url, resume.resumeUri());
+            Read read = read(resume.resumeUri(), objectMapper.constructType(type), parallelism, HttpHeaders.EMPTY,
+                    sink, first -> {});
+            return new SourceFetch(read.count(), false, true, resume.cursor());
+        }
+        boolean delta = deltaParam != null && cursor.updatedSince() != null;
+        if (delta) {
+            url = UriComponentsBuilder.fromUriString(url)
+                    .queryParam(deltaParam, cursor.updatedSince().toString())
+                    .toUriString();
+        }
+        HttpHeaders conditions = new HttpHeaders();
+        if (cursor.etag() != null) {
+            conditions.setIfNoneMatch(cursor.etag());
+        }
+        if (cursor.lastModified() != null) {
+            conditions.set(HttpHeaders.IF_MODIFIED_SINCE, cursor.lastModified());
+        }
+
+        Instant requestedAt = Instant.now();
+        Read read = read(url, objectMapper.constructType(type), parallelism, conditions, sink, first -> {
+            if (!first.notModified()) {
+                sink.started(nextCursor(first, cursor, delta, requestedAt));
+            }
+        });
+        Page first = read.first();
+        if (first != null && first.notModified()) {
+            return new SourceFetch(0, true, delta, cursor);
+        }
+        if (!read.consistent()) {
+            log.warn("{} changed while its pages were read, treating the read as partial", url);
+            // Unconditional and without a recent full sync, so the next read is a full one.
+            return new SourceFetch(read.count(), false, true,
+                    new SourceCursor(null, null, cursor.updatedSince(), null));
+        }
+        return new SourceFetch(read.count(), false, delta, nextCursor(first, cursor, delta, requestedAt));
+    }
+
+    private static SourceCursor nextCursor(Page first, SourceCursor cursor, boolean delta, Instant requestedAt) {
+        Instant watermark = first != null && first.date() > 0 ? Instant.ofEpochMilli(first.date()) : requestedAt;
+        return new SourceCursor(
+                first == null ? null : first.etag(),
+                first == null ? null : first.lastModified(),
+                watermark,
+                delta ? cursor.lastFullSync() : requestedAt);
+    }
+
+    private <T> long read(String url, JavaType type, int parallelism, Consumer<? super T> sink) {
+        return read(url, type, parallelism, HttpHeaders.EMPTY, PageSink.of(sink), first -> {}).count();
+    }
+
+    private <T> Read read(String url, JavaType type, int parallelism, HttpHeaders conditions,
+                          PageSink<? super T> sink, Consumer<Page> onFirstPage) {
+        URI first = URI.create(url);
+        if (parallelism > 1 && hasQueryParam(first, "limit") && !hasQueryParam(first, "offset")) {
+            // Offset pages of the same version as the pages fetched in parallel after it.
+            first = UriComponentsBuilder.fromUri(first).queryParam("offset", 0).build(true).toUri();
+        }
+        Page firstPage = fetch(first, type, conditions, 0, sink);
+        if (firstPage == null) {
+            return new Read(0, null, true);
+        }
+        onFirstPage.accept(firstPage);
+        if (firstPage.notModified()) {
+            return new Read(0, firstPage, true);
+        }
+        Page page = firstPage;
+        long total = page.count();
+        long startOffset = offsetOf(first);
+        if (parallelism > 1 && page.totalCount() != null && page.count() > 0
+                && page.totalCount() > startOffset + page.count() && hasQueryParam(first, "limit")) {
+            AtomicBoolean changed = new AtomicBoolean();
+            total += readRemainingInParallel(first, firstPage, startOffset, page.count(), parallelism, type, sink,
+                    changed);
+            return new Read(total, firstPage, !changed.get());
+        }
+        URI next = page.next();
+        long index = 1;
+        while (next != null) {
+            page = fetch(next, type, HttpHeaders.EMPTY, index++, sink);
+            if (page == null) {
+                break;
+            }
+            total += page.count();
+            next = page.next();
+        }
+        return new Read(total, firstPage, true);
+    }
+
+    /**
+     * Fetches the pages after the first one by offset, with at most
+     * {@code parallelism} requests in flight.
+     *
+     * @param firstPage   the first page, whose version every other page must have
+     * @param startOffset offset of the first page, non-zero when a read is resumed
+     * @param stride      number of records per page, taken from the first page
+     *                    since a server may cap the requested limit
+     * @param changed     set if a page came from another version of the collection
+     */
+    private <T> long readRemainingInParallel(URI first, Page firstPage, long startOffset, long stride,
+                                             int parallelism, JavaType type, PageSink<? super T> sink,
+                                             AtomicBoolean changed) {
+        long pages = (firstPage.totalCount() - startOffset + stride - 1) / stride;
+        AtomicLong nextPage = new AtomicLong(1);
+        AtomicLong read = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        ReentrantLock sinkLock = new ReentrantLock();
+        PageSink<T> serialized = new PageSink<>() {
+            @Override
+            public void accept(T record, long page) {
+                sinkLock.lock();
+                try {
+                    sink.accept(record, page);
+                } finally {
+                    sinkLock.unlock();
+                }
+            }
+
+            @Override
+            public void pageStarted(long page, URI uri) {
+                sinkLock.lock();
+                try {
+                    sink.pageStarted(page, uri);
+                } finally {
+                    sinkLock.unlock();
+                }
+            }
+
+            @Override
+            public void pageRead(long page, long records) {
+                sinkLock.lock();
+                try {
+                    sink.pageRead(page, records);
+                } finally {
+                    sinkLock.unlock();
+                }
+            }
+        };
+
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long w = 0; w < Math.min(parallelism, pages - 1); w++) {
+                workers.add(executor.submit(() -> {
+                    long p;
+                    while ((p = nextPage.getAndIncrement()) < pages && !failed.get()) {
+                        URI uri = UriComponentsBuilder.fromUri(first)
+                                .replaceQueryParam("offset", startOffset + p * stride)
+                                .build(true)
+                                .toUri();
+                        try {
+                            Page page = fetch(uri, type, HttpHeaders.EMPTY, p, serialized);
+                            read.addAndGet(page == null ? 0 : page.count());
+                            if (page == null || !sameVersion(firstPage, page)) {
+                                changed.set(true);
+                            }
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading " + first, e);
+            }
+        }
+        return read.get();
+    }
+
+    private <T> Page fetch(URI uri, JavaType type, HttpHeaders conditions, long index,
+                           PageSink<? super T> sink) {
+        // Records are handed over while the response is read, so the sink runs inside the
+        // request; its failures are carried out of the retry loop instead of being thrown in it.
+        PageSink<T> guarded = new PageSink<>() {
+            @Override
+            public void accept(T record, long page) {
+                try {
+                    sink.accept(record, page);
+                } catch (RuntimeException e) {
+                    throw new SinkFailure(e);
+                }
+            }
+
+            @Override
+            public void pageStarted(long page, URI pageUri) {
+                try {
+                    sink.pageStarted(page, pageUri);
+                } catch (RuntimeException e) {
+                    throw new SinkFailure(e);
+                }
+            }
+        };
+        Attempt attempt = resilience.call(source, () -> {
+            try {
+                // Started again on a retry, so that acknowledgements of a failed attempt do not count.
+                guarded.pageStarted(index, uri);
+                return new Attempt(fetchHedged(uri, type, conditions, index, guarded), null);
+            } catch (SinkFailure e) {
+                return new Attempt(null, e.getCause());
+            }
+        });
+        if (attempt.sinkFailure() != null) {
+            throw attempt.sinkFailure();
+        }
+        Page page = attempt.page();
+        if (page != null) {
+            log.debug("Read {} records from {}", page.count(), uri);
+            sink.pageRead(index, page.count());
+        }
+        return page;
+    }
+
+    /**
+     * Requests a page and, if no response arrived within the hedge delay of
+     * its source, once more. Whichever response arrives first is read; the
+     * other request is aborted by interrupting its thread, which cancels the
+     * exchange in the HTTP client, or its response is closed unread if it
+     * arrived as well.
+     */
+    private <T> Page fetchHedged(URI uri, JavaType type, HttpHeaders conditions, long index,
+                                 PageSink<? super T> sink) {
+        SourceResilience.Source state = resilience.source(source);
+        long hedgeAfter = state.hedgeDelayNanos();
+        if (hedgeAfter < 0) {
+            return request(uri, type, conditions, index, sink, state, null);
+        }
+        Race race = new Race();
+        AtomicInteger running = new AtomicInteger(1);
+        CompletableFuture<Page> result = new CompletableFuture<>();
+        Runnable attempt = () -> {
+            try {
+                Page page = request(uri, type, conditions, index, sink, state, race);
+                if (page != LOST_RACE) {
+                    result.complete(page);
+                }
+            } catch (RuntimeException e) {
+                // A failure before any response only counts once no other attempt can still answer.
+                if (race.isWinner() || running.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        };
+        race.start("page-request", attempt);
+        try {
+            try {
+                return result.get(hedgeAfter, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!race.isDecided() && state.tryHedge() && incrementIfPositive(running)) {
+                    log.debug("No response from {} within {} ms, hedging", uri, hedgeAfter / 1_000_000);
+                    race.start("page-request-hedge", attempt);
+                }
+                return result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            race.abortAll();
+            throw new IllegalStateException("Interrupted while reading " + uri, e);
+        }
+    }
+
+    /**
+     * Registers a hedge unless every earlier attempt already failed, in which
+     * case the result is already complete.
+     */
+    private static boolean incrementIfPositive(AtomicInteger running) {
+        int current;
+        do {
+            current = running.get();
+            if (current == 0) {
+                return false;
+            }
+        } while (!running.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private <T> Page request(URI uri, JavaType type, HttpHeaders conditions, long index, PageSink<? super T> sink,
+                             SourceResilience.Source state, Race race) {
+        long start = System.nanoTime();
+        return restTemplate.execute(uri, HttpMethod.GET,
+                request -> {
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                    request.getHeaders().addAll(conditions);
+                },
+                response -> {
+                    if (race != null && !race.win()) {
+                        return LOST_RACE;
+                    }
+                    state.recordLatency(System.nanoTime() - start);
+                    return readPage(uri, response, type, index, sink);
+                });
+    }
+
+    private <T> Page readPage(URI current, ClientHttpResponse response, JavaType type, long index,
+                              PageSink<? super T> sink) throws IOException {
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return new Page(0, null, null, true, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                    headers.getDate());
+        }
+        URI next = nextFromLinkHeader(current, headers);
+        Long totalCount = totalCount(headers);
+        long count = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                count = readArray(parser, type, index, sink);
+            } else if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (("items".equals(field) || "data".equals(field)) && value == JsonToken.START_ARRAY) {
+                        count += readArray(parser, type, index, sink);
+                    } else if ("next".equals(field) && value == JsonToken.VALUE_STRING) {
+                        next = current.resolve(parser.getText());
+                    } else if ("nextCursor".equals(field) && value == JsonToken.VALUE_STRING) {
+                        next = UriComponentsBuilder.fromUri(current)
+                                .replaceQueryParam("cursor", parser.getText())
+                                .build(true)
+                                .toUri();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return new Page(count, next, totalCount, false, headers.getETag(),
+                headers.getFirst(HttpHeaders.LAST_MODIFIED), headers.getDate());
+    }
+
+    private <T> long readArray(JsonParser parser, JavaType type, long index, PageSink<? super T> sink)
+            throws IOException {
+        long count = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            T record = objectMapper.readValue(parser, type);
+            sink.accept(record, index);
+            count++;
+        }
+        return count;
+    }
+
+    private URI nextFromLinkHeader(URI current, HttpHeaders headers) {
+        for (String link : headers.getOrEmpty(HttpHeaders.LINK)) {
+            Matcher matcher = NEXT_LINK.matcher(link);
+            if (matcher.find()) {
+                return current.resolve(matcher.group(1));
+            }
+        }
+        return null;
+    }
+
+    private static Long totalCount(HttpHeaders headers) {
+        String value = headers.getFirst(TOTAL_COUNT_HEADER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether two pages were cut from the same version of the collection,
+     * as far as their {@code ETag} and total count tell
+     */
+    private static boolean sameVersion(Page first, Page page) {
+        return Objects.equals(first.etag(), page.etag()) && Objects.equals(first.totalCount(), page.totalCount());
+    }
+
+    private static boolean hasQueryParam(URI uri, String name) {
+        return UriComponentsBuilder.fromUri(uri).build().getQueryParams().containsKey(name);
+    }
+
+    private static long offsetOf(URI uri) {
+        String offset = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("offset");
+        if (offset == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(offset);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Result of reading a single page.
+     *
+     * @param count        number of records read from the page
+     * @param next         the next page to request, or {@code null} when done
+     * @param totalCount   size of the whole collection if advertised, else {@code null}
+     * @param notModified  whether the source answered {@code 304 Not Modified}
+     * @param etag         the {@code ETag} header, or {@code null}
+     * @param lastModified the {@code Last-Modified} header, or {@code null}
+     * @param date         the {@code Date} header in epoch millis, or {@code -1}
+     */
+    private record Page(long count, URI next, Long totalCount, boolean notModified,
+                        String etag, String lastModified, long date) {}
+
+    /**
+     * The attempts of one hedged page request. The first attempt to get a
+     * response wins, and the other attempts are interrupted, which aborts
+     * their requests.
+     */
+    private static final class Race {
+
+        private final AtomicReference<Thread> winner = new AtomicReference<>();
+
+        private final List<Thread> attempts = new CopyOnWriteArrayList<>();
+
+        /**
+         * Starts an attempt on a virtual thread; it is aborted at once if
+         * another attempt has already won.
+         */
+        void start(String name, Runnable attempt) {
+            Thread thread = Thread.ofVirtual().name(name).unstarted(attempt);
+            attempts.add(thread);
+            thread.start();
+            Thread won = winner.get();
+            if (won != null && won != thread) {
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Called by an attempt that got a response.
+         *
+         * @return whether it was the first, in which case the others are aborted
+         */
+        boolean win() {
+            Thread self = Thread.currentThread();
+            if (!winner.compareAndSet(null, self)) {
+                return false;
+            }
+            for (Thread attempt : attempts) {
+                if (attempt != self) {
+                    attempt.interrupt();
+                }
+            }
+            return true;
+        }
+
+        /** @return whether the calling attempt won */
+        boolean isWinner() { return winner.get() == Thread.currentThread(); }
+
+        /** @return whether some attempt already got a response */
+        boolean isDecided() { return winner.get() != null; }
+
+        /**
+         * Aborts every attempt, once nobody waits for the page any more.
+         */
+        void abortAll() {
+            attempts.forEach(Thread::interrupt);
+        }
+    }
+
+    /**
+     * Outcome of a page request: the page, or the exception the sink threw while it was read.
+     */
+    private record Attempt(Page page, RuntimeException sinkFailure) {}
+
+    /**
+     * Carries an exception of the sink through the request, so it is told
+     * apart from a failure of the source.
+     */
+    private static final class SinkFailure extends RuntimeException {
+
+        private SinkFailure(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+
+    /**
+     * Result of reading a whole collection.
+     *
+     * @param count      number of records read across all pages
+     * @param first      the first page, or {@code null} if it had no body
+     * @param consistent {@code false} if pages read in parallel came from
+     *                   different versions of the collection
+     */
+    private record Read(long count, Page first, boolean consistent) {}
+}
@@ -0,0 +1,441 @@
+package com.project.producer.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * SourceResilience keeps a slow or failing source system from stalling or
+ * overloading the produce runs.
+ * <p>
+ * State is kept per source system, named by the client that calls it, e.g.
+ * {@code crm}. Sources behind one host, or one gateway, fail and recover
+ * independently:
+ * <ul>
+ *     <li>A circuit breaker over the outcomes of the last {@code window}
+ *     requests. Once at least {@code minCalls} were recorded and the share of
+ *     failures reaches {@code failureRate}, the breaker opens and requests
+ *     fail fast with {@link CircuitOpenException} for {@code openFor}. Then a
+ *     single trial request is let through, which closes the breaker again or
+ *     reopens it. Requests arriving while the trial is in flight wait for its
+ *     outcome, at most {@code openFor}, so that parallel page reads continue
+ *     once the source has recovered instead of failing the run.</li>
+ *     <li>Retries with exponential backoff, up to {@code maxAttempts}
+ *     attempts, limited by a retry budget: every new request, but not its
+ *     retries, earns {@code budgetRatio} of a retry and every retry or hedge
+ *     spends one, with
+ *     at most {@code budgetCapacity} saved up. During an outage retries therefore
+ *     stay a small fraction of the traffic instead of multiplying it.</li>
+ *     <li>Latency samples of the recent requests, from which
+ *     {@link PagedJsonReader} derives when to hedge a page request: if no
+ *     response arrived within the {@code percentile} latency, a duplicate
+ *     request is sent and the first response wins.</li>
+ * </ul>
+ * Timeouts, connection and I/O errors, {@code 5xx} and {@code 429} count as
+ * failures and are retried. Other {@code 4xx} responses count as answered
+ * requests and are not retried. Any other exception, e.g. one thrown by the
+ * caller while handling a response, is rethrown at once and recorded neither
+ * way.
+ * </p>
+ *
+ * <p>
+ * Meters, all tagged with the {@code source}:
+ * <ul>
+ *     <li>{@code producer.source.requests} - requests by {@code outcome}:
+ *     {@code success}, {@code failure}, {@code client-error} or {@code rejected}</li>
+ *     <li>{@code producer.source.retries} - retries sent</li>
+ *     <li>{@code producer.source.hedges} - hedged duplicate requests sent</li>
+ *     <li>{@code producer.source.breaker.state} - {@code 0} closed,
+ *     {@code 1} half-open, {@code 2} open</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * List<Map<String, Object>> customers =
+ *         resilience.call("crm", () -> restTemplate.getForObject(url, List.class));
+ * }</pre>
+ * </p>
+ */
+@Slf4j
+public class SourceResilience {
+
+    /**
+     * Number of recent latencies a hedge delay is computed from.
+     */
+    private static final int LATENCY_SAMPLES = 256;
+
+    private final Retry retry;
+
+    private final Breaker breaker;
+
+    private final Hedge hedge;
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+
+    /**
+     * @param retry    attempts, backoff and budget of retries
+     * @param breaker  when the circuit breaker opens and for how long
+     * @param hedge    when page requests are hedged
+     * @param registry registry the meters are registered with
+     */
+    public SourceResilience(Retry retry, Breaker breaker, Hedge hedge, MeterRegistry registry) {
+        this.retry = retry;
+        this.breaker = breaker;
+        this.hedge = hedge;
+        this.registry = registry;
+    }
+
+    /**
+     * @return an instance that sends every request once, never opens a
+     * breaker and never hedges
+     */
+    public static SourceResilience disabled() {
+        return new SourceResilience(new Retry(1, Duration.ZERO, 1, 0, 0),
+                new Breaker(1, Integer.MAX_VALUE, 1, Duration.ZERO),
+                new Hedge(false, 0.95, Integer.MAX_VALUE, Duration.ZERO), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Sends a request through the circuit breaker of its source and retries it
+     * within the source's retry budget.
+     *
+     * @param source  name of the source system, e.g. {@code crm}
+     * @param request sends the request; called once per attempt
+     * @param <T>     the response type
+     * @return the response of the first successful attempt
+     * @throws CircuitOpenException if the breaker of the source is open
+     */
+    public <T> T call(String source, Supplier<T> request) {
+        Source state = source(source);
+        long backoff = retry.backoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            if (!state.tryAcquire(attempt == 1)) {
+                state.rejected.increment();
+                throw new CircuitOpenException(state.name);
+            }
+            try {
+                T response = request.get();
+                state.onResult(true);
+                state.successes.increment();
+                return response;
+            } catch (RuntimeException e) {
+                if (!isHostFailure(e)) {
+                    if (e instanceof HttpClientErrorException) {
+                        state.onResult(true);
+                        state.clientErrors.increment();
+                    } else {
+                        state.onIgnored();
+                    }
+                    throw e;
+                }
+                state.onResult(false);
+                state.failures.increment();
+                if (attempt >= retry.maxAttempts() || !state.tryRetry()) {
+                    throw e;
+                }
+                state.retries.increment();
+                log.warn("Request to {} failed (attempt {} of {}), retrying in {} ms: {}",
+                        source, attempt, retry.maxAttempts(), backoff, e.getMessage());
+                sleep(backoff);
+                backoff = (long) (backoff * retry.multiplier());
+            } catch (Error e) {
+                state.onIgnored();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @param name name of a source system
+     * @return its state
+     */
+    Source source(String name) {
+        return sources.computeIfAbsent(name, Source::new);
+    }
+
+    /**
+     * @return whether {@code e} says the source is unavailable or overloaded
+     */
+    private static boolean isHostFailure(RuntimeException e) {
+        if (e instanceof HttpServerErrorException || e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().value() == 429;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private enum State { CLOSED, HALF_OPEN, OPEN }
+
+    /**
+     * Breaker, retry budget and latency samples of one source system.
+     */
+    final class Source {
+
+        private final String name;
+
+        private final Counter successes;
+
+        private final Counter failures;
+
+        private final Counter clientErrors;
+
+        private final Counter rejected;
+
+        private final Counter retries;
+
+        private final Counter hedges;
+
+        private final AtomicInteger stateGauge = new AtomicInteger();
+
+        /**
+         * Outcomes of the last {@code window} requests, {@code true} for a failure.
+         */
+        private final boolean[] outcomes = new boolean[Math.max(1, breaker.window())];
+
+        private int nextOutcome;
+
+        private int recorded;
+
+        private int failed;
+
+        private State state = State.CLOSED;
+
+        private long openedAt;
+
+        private boolean trialInFlight;
+
+        private double retryTokens = retry.budgetCapacity();
+
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+
+        private int nextLatency;
+
+        private int latencyCount;
+
+        private Source(String name) {
+            this.name = name;
+            this.successes = requests("success");
+            this.failures = requests("failure");
+            this.clientErrors = requests("client-error");
+            this.rejected = requests("rejected");
+            this.retries = Counter.builder("producer.source.retries").tag("source", name).register(registry);
+            this.hedges = Counter.builder("producer.source.hedges").tag("source", name).register(registry);
+            Gauge.builder("producer.source.breaker.state", stateGauge, AtomicInteger::get)
+                    .tag("source", name)
+                    .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                    .register(registry);
+        }
+
+        private Counter requests(String outcome) {
+            return Counter.builder("producer.source.requests").tag("source", name).tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        /**
+         * Waits for the outcome of a trial request in flight, if there is one.
+         *
+         * @param firstAttempt whether this is a new request rather than a
+         *                     retry; only new requests earn retry budget
+         * @return whether a request may be sent now
+         */
+        synchronized boolean tryAcquire(boolean firstAttempt) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < breaker.openFor().toNanos()) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (!awaitTrial() || state == State.OPEN) {
+                    return false;
+                }
+                // Still half-open when the trial told nothing; then this request is the next trial.
+                trialInFlight = state == State.HALF_OPEN;
+            }
+            if (firstAttempt) {
+                retryTokens = Math.min(retry.budgetCapacity(), retryTokens + retry.budgetRatio());
+            }
+            return true;
+        }
+
+        /**
+         * @return {@code false} if the trial in flight did not end within {@code openFor}
+         */
+        private boolean awaitTrial() {
+            long deadline = System.nanoTime() + breaker.openFor().toNanos();
+            while (trialInFlight) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized void onResult(boolean success) {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+                notifyAll();
+                if (success) {
+                    Arrays.fill(outcomes, false);
+                    recorded = 0;
+                    failed = 0;
+                    transition(State.CLOSED);
+                } else {
+                    open();
+                }
+                return;
+            }
+            if (recorded == outcomes.length && outcomes[nextOutcome]) {
+                failed--;
+            }
+            outcomes[nextOutcome] = !success;
+            nextOutcome = (nextOutcome + 1) % outcomes.length;
+            recorded = Math.min(recorded + 1, outcomes.length);
+            if (!success) {
+                failed++;
+            }
+            if (state == State.CLOSED && recorded >= breaker.minCalls()
+                    && failed >= breaker.failureRate() * recorded) {
+                open();
+            }
+        }
+
+        /**
+         * Records that a request ended without telling anything about the
+         * source; a trial request is let through again.
+         */
+        synchronized void onIgnored() {
+            if (trialInFlight) {
+                trialInFlight = false;
+                notifyAll();
+            }
+        }
+
+        private void open() {
+            openedAt = System.nanoTime();
+            transition(State.OPEN);
+            log.warn("Circuit breaker for {} opened for {}", name, breaker.openFor());
+        }
+
+        private void transition(State next) {
+            state = next;
+            stateGauge.set(next.ordinal());
+        }
+
+        /**
+         * @return whether the retry budget allows one more retry, which is then spent
+         */
+        synchronized boolean tryRetry() {
+            if (retryTokens < 1) {
+                return false;
+            }
+            retryTokens--;
+            return true;
+        }
+
+        /**
+         * @return whether a hedged request may be sent; it is paid from the retry budget
+         */
+        boolean tryHedge() {
+            if (!tryRetry()) {
+                return false;
+            }
+            hedges.increment();
+            return true;
+        }
+
+        /**
+         * @param nanos time from sending a request to its response headers
+         */
+        synchronized void recordLatency(long nanos) {
+            latencies[nextLatency] = nanos;
+            nextLatency = (nextLatency + 1) % latencies.length;
+            latencyCount = Math.min(latencyCount + 1, latencies.length);
+        }
+
+        /**
+         * @return how long to wait for a response before hedging, or {@code -1}
+         * if requests to this source are not hedged (yet)
+         */
+        synchronized long hedgeDelayNanos() {
+            if (!hedge.enabled() || latencyCount < hedge.minSamples()) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(hedge.percentile() * latencyCount) - 1;
+            long delay = sorted[Math.max(0, Math.min(latencyCount - 1, rank))];
+            return Math.max(delay, hedge.minDelay().toNanos());
+        }
+    }
+
+    /**
+     * @param maxAttempts    attempts per request, including the first
+     * @param backoff        wait before the first retry
+     * @param multiplier     factor the wait grows by per retry
+     * @param budgetRatio    retries earned per new request
+     * @param budgetCapacity most retries that can be saved up; the budget starts full
+     */
+    public record Retry(int maxAttempts, Duration backoff, double multiplier, double budgetRatio,
+                        int budgetCapacity) {}
+
+    /**
+     * @param window      number of recent requests the failure rate is computed over
+     * @param minCalls    requests recorded before the breaker may open
+     * @param failureRate share of failed requests that opens the breaker
+     * @param openFor     how long requests fail fast before a trial request
+     */
+    public record Breaker(int window, int minCalls, double failureRate, Duration openFor) {}
+
+    /**
+     * @param enabled    whether page requests are hedged
+     * @param percentile latency percentile after which a duplicate request is sent, e.g. {@code 0.95}
+     * @param minSamples requests to a source before its requests are hedged
+     * @param minDelay   shortest wait before hedging
+     */
+    public record Hedge(boolean enabled, double percentile, int minSamples, Duration minDelay) {}
+}
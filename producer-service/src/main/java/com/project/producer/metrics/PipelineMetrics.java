@@ -0,0 +1,244 @@
+package com.project.producer.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * PipelineMetrics records where a produce run spends its time, from fetching
+ * records to the broker acknowledging them.
+ * <p>
+ * Meters, all tagged by {@code source} or {@code topic}:
+ * <ul>
+ *     <li>{@code producer.fetch.duration} - time to read a source collection,
+ *     including retries; tagged with the {@code outcome}</li>
+ *     <li>{@code producer.fetch.records} - records read per run</li>
+ *     <li>{@code producer.event.build} - time to build one event</li>
+ *     <li>{@code producer.event.serialize} - time to serialize one record value</li>
+ *     <li>{@code producer.bytes.out} - serialized value bytes handed to Kafka</li>
+ *     <li>{@code producer.publish.ack} - time from send to broker
+ *     acknowledgement; tagged with the {@code outcome}</li>
+ *     <li>{@code producer.record.latency} - time from reading a record from
+ *     its source until the broker acknowledged its event</li>
+ *     <li>{@code producer.publish.failures} - failed sends</li>
+ *     <li>{@code producer.publish.in.flight} - sends awaiting acknowledgement</li>
+ *     <li>{@code producer.run.duration} - duration of a whole run; tagged with
+ *     the {@code outcome}</li>
+ *     <li>{@code producer.scheduler.delay} - the delay chosen before the next
+ *     scheduled run, in milliseconds</li>
+ *     <li>{@code producer.scheduler.decisions} - delays chosen, tagged with
+ *     the {@code reason}, e.g. {@code busy}, {@code idle} or {@code slow-source}</li>
+ *     <li>{@code producer.ingest.records} - records pushed per ingest request</li>
+ *     <li>{@code producer.ingest.rejected} - ingest requests turned away
+ *     because the producer was saturated</li>
+ * </ul>
+ * Meters are looked up once per tag value and cached, so recording on the
+ * per-record path is a map lookup plus the meter update.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * long count = metrics.timeFetch("crm", () -> crmClient.streamCustomers(sink));
+ * }</pre>
+ * </p>
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> pollingDelays = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("producer.publish.in.flight", inFlight, AtomicInteger::get)
+                .description("Sends awaiting a broker acknowledgement")
+                .register(registry);
+    }
+
+    /** @return the registry the meters are registered with */
+    public MeterRegistry getRegistry() { return registry; }
+
+    /** @return the number of sends awaiting a broker acknowledgement */
+    public int inFlight() { return inFlight.get(); }
+
+    /**
+     * Times reading a source collection and records the number of records read.
+     *
+     * @param source the source system, e.g. {@code crm}
+     * @param fetch  the read, returning the number of records
+     * @return the number of records read
+     */
+    public long timeFetch(String source, LongSupplier fetch) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            long records = fetch.getAsLong();
+            outcome = "success";
+            summary("producer.fetch.records", "source", source).record(records);
+            return records;
+        } finally {
+            timer("producer.fetch.duration", "source", source, "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Times reading a source collection whose result carries more than the
+     * record count.
+     *
+     * @param source  the source system, e.g. {@code crm}
+     * @param fetch   the read
+     * @param records extracts the number of records read from the result
+     * @param <R>     the result type
+     * @return the result of the read
+     */
+    public <R> R timeFetch(String source, Supplier<R> fetch, ToLongFunction<R> records) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            R value = fetch.get();
+            outcome = "success";
+            summary("producer.fetch.records", "source", source).record(records.applyAsLong(value));
+            return value;
+        } finally {
+            timer("producer.fetch.duration", "source", source, "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param source     the source system the event was built for
+     * @param startNanos {@link System#nanoTime()} before building the event
+     */
+    public void recordBuild(String source, long startNanos) {
+        timer("producer.event.build", "source", source).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param topic      the topic the value was serialized for
+     * @param startNanos {@link System#nanoTime()} before serializing
+     * @param bytes      size of the serialized value
+     */
+    public void recordSerialize(String topic, long startNanos, int bytes) {
+        timer("producer.event.serialize", "topic", topic).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        counter("producer.bytes.out", "topic", topic).increment(bytes);
+    }
+
+    /**
+     * Marks a send as handed to the producer.
+     *
+     * @return the start time to pass to {@link #sendCompleted(String, long, boolean)}
+     */
+    public long sendStarted() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks a send as acknowledged or failed.
+     *
+     * @param topic      the topic of the record
+     * @param startNanos the value returned by {@link #sendStarted()}
+     * @param success    whether the broker acknowledged the record
+     */
+    public void sendCompleted(String topic, long startNanos, boolean success) {
+        inFlight.decrementAndGet();
+        timer("producer.publish.ack", "topic", topic, "outcome", success ? "success" : "failure")
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            counter("producer.publish.failures", "topic", topic).increment();
+        }
+    }
+
+    /**
+     * Records the fetch-to-ack latency of one record.
+     *
+     * @param topic     the topic of the record
+     * @param readNanos {@link System#nanoTime()} when the record was read from its source
+     */
+    public void recordLatency(String topic, long readNanos) {
+        timer("producer.record.latency", "topic", topic).record(System.nanoTime() - readNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param source      the source system of the run
+     * @param startNanos  {@link System#nanoTime()} at the start of the run
+     * @param success     whether the run completed without an exception
+     */
+    public void recordRun(String source, long startNanos, boolean success) {
+        timer("producer.run.duration", "source", source, "outcome", success ? "success" : "failure")
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param source the source system of the scheduled job
+     * @param millis the delay before its next run
+     * @param reason why the scheduler chose it
+     */
+    public void recordPollingDelay(String source, long millis, String reason) {
+        pollingDelays.computeIfAbsent(source, key -> {
+            AtomicLong delay = new AtomicLong();
+            Gauge.builder("producer.scheduler.delay", delay, AtomicLong::get)
+                    .tag("source", source)
+                    .baseUnit("milliseconds")
+                    .description("Delay before the next scheduled run")
+                    .register(registry);
+            return delay;
+        }).set(millis);
+        counter("producer.scheduler.decisions", "source", source, "reason", reason).increment();
+    }
+
+    /**
+     * @param source  the source system that pushed the records
+     * @param records records read from the request body
+     */
+    public void recordIngest(String source, long records) {
+        summary("producer.ingest.records", "source", source).record(records);
+    }
+
+    /**
+     * @param source the source system whose request was turned away
+     */
+    public void recordIngestRejected(String source) {
+        counter("producer.ingest.rejected", "source", source).increment();
+    }
+
+    private Timer timer(String name, String... tags) {
+        return cached(timers, name, tags, key -> Timer.builder(name).tags(tags).register(registry));
+    }
+
+    private Counter counter(String name, String... tags) {
+        return cached(counters, name, tags, key -> Counter.builder(name).tags(tags).register(registry));
+    }
+
+    private DistributionSummary summary(String name, String... tags) {
+        return cached(summaries, name, tags, key -> DistributionSummary.builder(name).tags(tags).register(registry));
+    }
+
+    private static <M> M cached(Map<String, M> cache, String name, String[] tags, Function<String, M> create) {
+        return cache.computeIfAbsent(name + '|' + String.join("|", tags), create);
+    }
+}
@@ -0,0 +1,201 @@
+package com.project.producer.mock;
+
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.model.Customer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe, id-ordered customer store backing the mock CRM.
+ * <p>
+ * Customers are kept in a {@link ConcurrentSkipListMap}, so concurrent reads
+ * and writes never block each other, and the id order gives stable cursor
+ * pagination: the cursor is the last id of the previous page, and a page is
+ * read in {@code O(log n + limit)} without copying the store.
+ * </p>
+ *
+ * <p>
+ * Every change that alters a customer bumps {@link #version()}, which the
+ * controller uses as ETag. Offset pages are served from an immutable
+ * {@link Snapshot} that is rebuilt at most once per version, so each page is a
+ * plain array slice. Pages are only consistent with each other while the
+ * version stays the same: a change between two requests shifts the offsets,
+ * and readers have to compare the versions of their pages.
+ * Reads restricted to some shards of the id space get a snapshot of their
+ * own, filtered once per version.
+ * </p>
+ */
+@Component
+public class CustomerStore {
+
+    private final ConcurrentSkipListMap<String, Customer> customers = new ConcurrentSkipListMap<>();
+
+    /**
+     * Maintained separately because {@link ConcurrentSkipListMap#size()} walks the whole map.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot = new Snapshot(-1, new Customer[0]);
+
+    /**
+     * Snapshots restricted to some shards, by the shards they hold.
+     */
+    private final Map<ShardAssignment, Snapshot> shardSnapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Inserts or replaces a customer.
+     *
+     * @param customer the customer, with a non-null id
+     * @return the replaced customer, or {@code null} if the id was new
+     */
+    public Customer put(Customer customer) {
+        Customer previous = customers.put(customer.getId(), customer);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        if (!customer.equals(previous)) {
+            version.incrementAndGet();
+        }
+        return previous;
+    }
+
+    /**
+     * @param id the customer id
+     * @return the removed customer, or {@code null} if there was none
+     */
+    public Customer remove(String id) {
+        Customer previous = customers.remove(id);
+        if (previous != null) {
+            size.decrementAndGet();
+            version.incrementAndGet();
+        }
+        return previous;
+    }
+
+    /** @return the number of customers */
+    public int size() { return size.get(); }
+
+    /** @return a counter that changes whenever the content of the store changes */
+    public long version() { return version.get(); }
+
+    /** @return a weakly consistent live view of all customers in id order */
+    public Collection<Customer> all() { return customers.values(); }
+
+    /**
+     * Reads up to {@code limit} customers with an id greater than {@code cursor}.
+     *
+     * @param cursor the last id of the previous page, or {@code null} for the first page
+     * @param limit  maximum number of customers to return
+     * @return the page in id order
+     */
+    public List<Customer> after(String cursor, int limit) {
+        NavigableMap<String, Customer> tail = cursor == null ? customers : customers.tailMap(cursor, false);
+        List<Customer> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Customer customer : tail.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(customer);
+        }
+        return page;
+    }
+
+    /**
+     * Reads up to {@code limit} customers of the given shards with an id
+     * greater than {@code cursor}.
+     *
+     * @param cursor the last id of the previous page, or {@code null} for the first page
+     * @param limit  maximum number of customers to return
+     * @param shards the shards whose customers are returned
+     * @return the page in id order
+     */
+    public List<Customer> after(String cursor, int limit, ShardAssignment shards) {
+        if (shards.isAll()) {
+            return after(cursor, limit);
+        }
+        NavigableMap<String, Customer> tail = cursor == null ? customers : customers.tailMap(cursor, false);
+        List<Customer> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Customer customer : tail.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (shards.owns(customer.getId())) {
+                page.add(customer);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns a consistent copy of the store, rebuilt only if the store changed
+     * since the last call.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current.version() == version.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            long v = version.get();
+            if (current.version() != v) {
+                current = new Snapshot(v, customers.values().toArray(Customer[]::new));
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Returns a consistent copy of the customers of some shards, rebuilt only
+     * if the store changed since it was last requested for these shards.
+     *
+     * @param shards the shards whose customers are included
+     * @return the current snapshot of those shards
+     */
+    public Snapshot snapshot(ShardAssignment shards) {
+        Snapshot all = snapshot();
+        if (shards.isAll()) {
+            return all;
+        }
+        return shardSnapshots.compute(shards, (key, current) -> current != null && current.version() == all.version()
+                ? current
+                : new Snapshot(all.version(), Arrays.stream(all.customers())
+                        .filter(customer -> shards.owns(customer.getId()))
+                        .toArray(Customer[]::new)));
+    }
+
+    /**
+     * Immutable view of the store at one version.
+     *
+     * @param version   the store version the copy was taken at
+     * @param customers all customers in id order
+     */
+    public record Snapshot(long version, Customer[] customers) {
+
+        /**
+         * @param offset index of the first customer
+         * @param limit  maximum number of customers
+         * @return the customers in {@code [offset, offset + limit)}
+         */
+        public List<Customer> page(int offset, int limit) {
+            int from = Math.min(Math.max(offset, 0), customers.length);
+            int to = (int) Math.min((long) from + Math.max(limit, 0), customers.length);
+            return Arrays.asList(customers).subList(from, to);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.producer.mock;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the generated catalog of the mock Inventory from {@link MockInventoryProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties(MockInventoryProperties.class)
+public class MockInventoryConfig {
+
+    @Bean
+    public ProductCatalog productCatalog(MockInventoryProperties properties) {
+        return new ProductCatalog(properties.getCatalogSize(), properties.getSeed());
+    }
+}
@@ -0,0 +1,102 @@
+package com.project.producer.mock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.SplittableRandom;
+
+/**
+ * Settings of the in-process mock Inventory, bound from {@code mock.inventory.*}.
+ *
+ * <pre>{@code
+ * mock:
+ *   inventory:
+ *     catalog-size: 100000
+ *     faults:
+ *       latency: long-tail        # fixed, normal or long-tail
+ *       latency-ms: 50            # fixed value, mean (normal) or median (long-tail)
+ *       stddev-ms: 20             # normal only
+ *       tail-sigma: 1.2           # long-tail only; larger means a heavier tail
+ *       max-latency-ms: 30000
+ *       error-rate: 0.02          # share of requests answered with error-status
+ *       error-status: 503
+ *       drip-bytes-per-second: 0  # > 0 streams the body slowly
+ * }</pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "mock.inventory")
+public class MockInventoryProperties {
+
+    /**
+     * Number of products in the generated catalog.
+     */
+    private long catalogSize = 1000;
+
+    /**
+     * Seed of the generated catalog.
+     */
+    private long seed = 42;
+
+    /**
+     * Latency and fault injection applied to every {@code /products} request.
+     */
+    private Faults faults = new Faults();
+
+    /**
+     * Shape of the injected response latency.
+     */
+    public enum Latency {
+        /** Always {@code latency-ms}. */
+        FIXED,
+        /** Gaussian around {@code latency-ms} with {@code stddev-ms}. */
+        NORMAL,
+        /** Log-normal with median {@code latency-ms}, mostly fast with rare very slow requests. */
+        LONG_TAIL
+    }
+
+    /**
+     * Latency and error injection settings; see the example above.
+     */
+    @Data
+    public static class Faults {
+
+        private Latency latency = Latency.FIXED;
+
+        private long latencyMs = 0;
+
+        private long stddevMs = 0;
+
+        private double tailSigma = 1.0;
+
+        private long maxLatencyMs = 30_000;
+
+        private double errorRate = 0.0;
+
+        private int errorStatus = 503;
+
+        private long dripBytesPerSecond = 0;
+
+        /**
+         * Draws the latency of one request.
+         *
+         * @param random source of randomness
+         * @return the delay in milliseconds, between 0 and {@code maxLatencyMs}
+         */
+        public long sampleLatencyMs(SplittableRandom random) {
+            double latency = switch (this.latency) {
+                case FIXED -> latencyMs;
+                case NORMAL -> latencyMs + stddevMs * random.nextGaussian();
+                case LONG_TAIL -> latencyMs * Math.exp(tailSigma * random.nextGaussian());
+            };
+            return Math.max(0, Math.min(maxLatencyMs, Math.round(latency)));
+        }
+
+        /**
+         * @param random source of randomness
+         * @return whether the request should fail
+         */
+        public boolean sampleError(SplittableRandom random) {
+            return errorRate > 0 && random.nextDouble() < errorRate;
+        }
+    }
+}
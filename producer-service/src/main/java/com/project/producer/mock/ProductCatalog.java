@@ -0,0 +1,131 @@
+package com.project.producer.mock;
+
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.model.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generated product catalog of the mock Inventory.
+ * <p>
+ * Products are computed from their index and the seed on every request
+ * instead of being stored, so a catalog of any size costs no heap and a page
+ * is built in {@code O(limit)}. The same index always yields the same product.
+ * A page restricted to some shards of the id space has to skip the products
+ * of other shards from the start, and costs {@code O(offset + limit)}.
+ * </p>
+ */
+public class ProductCatalog {
+
+    private static final String[] ADJECTIVES = {
+            "Compact", "Deluxe", "Eco", "Heavy-Duty", "Portable", "Smart", "Classic", "Wireless", "Solar", "Modular"};
+
+    private static final String[] NOUNS = {
+            "Kettle", "Lamp", "Backpack", "Drill", "Speaker", "Blender", "Router", "Chair", "Monitor", "Tent"};
+
+    private final long size;
+
+    private final long seed;
+
+    /**
+     * Number of products per set of shards, counted once.
+     */
+    private final Map<ShardAssignment, Long> shardSizes = new ConcurrentHashMap<>();
+
+    /**
+     * @param size number of products
+     * @param seed seed of the generated data
+     */
+    public ProductCatalog(long size, long seed) {
+        this.size = size;
+        this.seed = seed;
+    }
+
+    /** @return the number of products in the catalog */
+    public long size() { return size; }
+
+    /** @return the seed of the generated data */
+    public long seed() { return seed; }
+
+    /**
+     * @param offset index of the first product
+     * @param limit  maximum number of products
+     * @return the products in {@code [offset, offset + limit)}, clipped to the catalog
+     */
+    public List<Product> page(long offset, int limit) {
+        long from = Math.min(Math.max(offset, 0), size);
+        long to = Math.min(from + Math.max(limit, 0), size);
+        List<Product> page = new ArrayList<>((int) (to - from));
+        for (long index = from; index < to; index++) {
+            page.add(product(index));
+        }
+        return page;
+    }
+
+    /**
+     * @param shards a set of shards
+     * @return the number of products whose id falls into those shards
+     */
+    public long size(ShardAssignment shards) {
+        if (shards.isAll()) {
+            return size;
+        }
+        return shardSizes.computeIfAbsent(shards, key -> {
+            long count = 0;
+            for (long index = 0; index < size; index++) {
+                if (shards.owns(idOf(index))) {
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * @param offset index of the first product among those of {@code shards}
+     * @param limit  maximum number of products
+     * @param shards the shards whose products are returned
+     * @return the products of those shards in {@code [offset, offset + limit)}, clipped to the catalog
+     */
+    public List<Product> page(long offset, int limit, ShardAssignment shards) {
+        if (shards.isAll()) {
+            return page(offset, limit);
+        }
+        List<Product> page = new ArrayList<>(Math.min(Math.max(limit, 0), 1024));
+        long skip = Math.max(offset, 0);
+        for (long index = 0; index < size && page.size() < limit; index++) {
+            if (!shards.owns(idOf(index))) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                page.add(product(index));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * @param index position of the product in the catalog
+     * @return the product at {@code index}
+     */
+    public Product product(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+        BigDecimal price = BigDecimal.valueOf(99 + random.nextInt(99_900), 2);
+        Product product = new Product(idOf(index), String.format("SKU-%06X", index),
+                name, price, random.nextInt(500));
+        product.putExtra("warehouse", "WH-" + (1 + random.nextInt(8)));
+        return product;
+    }
+
+    private static String idOf(long index) {
+        return String.format("P%08d", index);
+    }
+}
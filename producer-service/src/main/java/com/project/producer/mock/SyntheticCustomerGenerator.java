@@ -0,0 +1,181 @@
+package com.project.producer.mock;
+
+import com.project.producer.model.Customer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Seeds the mock CRM with synthetic customers and applies churn between
+ * producer runs, so production-scale runs can be reproduced locally.
+ * <p>
+ * Customers are derived from their sequence number and a seed, so a given
+ * {@code (seed, count)} always produces the same data set, and generation
+ * runs in parallel. Ids are zero-padded sequence numbers ({@code C0000000042}),
+ * which keeps inserts at the tail of the id-ordered {@link CustomerStore}.
+ * </p>
+ *
+ * <p>
+ * Churn touches a fraction {@code rate} of the store: half of it is updated
+ * (new email, tier and {@code updatedAt}), a quarter is deleted, and a quarter
+ * is added as new customers. It can be triggered on demand or periodically:
+ * <pre>{@code
+ * mock:
+ *   crm:
+ *     seed-count: 5000000     # roughly 1 GB of heap
+ *     seed: 42
+ *     churn-rate: 0.01
+ *     churn-interval-ms: 60000
+ * }</pre>
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticCustomerGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Charlie", "Diana", "Ethan", "Fatima", "George", "Hana", "Ivan", "Julia",
+            "Kwame", "Leila", "Mateo", "Nadia", "Oscar", "Priya", "Quinn", "Rosa", "Samuel", "Wanjiru"};
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Brown", "Garcia", "Kamau", "Mueller", "Nguyen", "Okafor", "Patel", "Rossi",
+            "Silva", "Tanaka", "Williams", "Wang", "Kowalski", "Haddad", "Otieno", "Larsen", "Dubois", "Singh"};
+
+    private static final String[] DOMAINS = {"example.com", "mail.test", "corp.example", "shop.test"};
+
+    private static final String[] CITIES = {"Nairobi", "Berlin", "Austin", "Lagos", "Osaka", "Lisbon", "Pune", "Lima"};
+
+    private static final String[] TIERS = {"bronze", "silver", "gold", "platinum"};
+
+    private final CustomerStore store;
+
+    /**
+     * Sequence number of the next generated customer.
+     */
+    private final AtomicLong nextSequence = new AtomicLong(1);
+
+    /**
+     * Number of synthetic customers seeded at startup.
+     */
+    @Value("${mock.crm.seed-count:0}")
+    private long seedCount;
+
+    /**
+     * Seed of the generated data set.
+     */
+    @Value("${mock.crm.seed:42}")
+    private long seed;
+
+    /**
+     * Fraction of the store touched by each periodic churn; {@code 0} disables it.
+     */
+    @Value("${mock.crm.churn-rate:0}")
+    private double churnRate;
+
+    @PostConstruct
+    void seed() {
+        if (seedCount > 0) {
+            long start = System.nanoTime();
+            generate(seedCount, seed);
+            log.info("Seeded mock CRM with {} customers in {} ms", seedCount, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Adds {@code count} synthetic customers to the store.
+     *
+     * @param count number of customers to add
+     * @param seed  seed of the data set
+     * @return the number of customers added
+     */
+    public long generate(long count, long seed) {
+        long first = nextSequence.getAndAdd(count);
+        LongStream.range(first, first + count).parallel().forEach(sequence -> store.put(customer(sequence, seed)));
+        return count;
+    }
+
+    /**
+     * Updates, deletes and creates customers for a fraction {@code rate} of the store.
+     *
+     * @param rate fraction of the store to touch, between 0 and 1
+     * @return what was changed
+     */
+    public Churn churn(double rate) {
+        SplittableRandom random = new SplittableRandom();
+        String now = Instant.now().toString();
+        int updated = 0;
+        List<String> deletes = new ArrayList<>();
+        for (Customer customer : store.all()) {
+            double roll = random.nextDouble();
+            if (roll < rate * 0.25) {
+                deletes.add(customer.getId());
+            } else if (roll < rate * 0.75) {
+                store.put(updated(customer, random, now));
+                updated++;
+            }
+        }
+        deletes.forEach(store::remove);
+        long created = generate(Math.round(store.size() * rate * 0.25), random.nextLong());
+        return new Churn(created, updated, deletes.size());
+    }
+
+    @Scheduled(initialDelayString = "${mock.crm.churn-interval-ms:60000}",
+            fixedDelayString = "${mock.crm.churn-interval-ms:60000}")
+    void scheduledChurn() {
+        if (churnRate > 0) {
+            Churn churn = churn(churnRate);
+            log.info("Mock CRM churn created={} updated={} deleted={}", churn.created(), churn.updated(), churn.deleted());
+        }
+    }
+
+    private static Customer customer(long sequence, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ (sequence * 0x9E3779B97F4A7C15L));
+        String first = pick(random, FIRST_NAMES);
+        String last = pick(random, LAST_NAMES);
+        Customer customer = new Customer(String.format("C%010d", sequence), first + " " + last,
+                email(first, last, sequence, random));
+        customer.putExtra("phone", String.format("+1-555-%03d-%04d", random.nextInt(1000), random.nextInt(10000)));
+        customer.putExtra("city", pick(random, CITIES));
+        customer.putExtra("tier", pick(random, TIERS));
+        customer.putExtra("updatedAt", Instant.ofEpochSecond(1_700_000_000L + random.nextInt(30_000_000)).toString());
+        return customer;
+    }
+
+    private static Customer updated(Customer customer, SplittableRandom random, String now) {
+        String[] name = customer.getName() == null ? new String[]{"x", "y"} : customer.getName().split(" ", 2);
+        Customer copy = new Customer(customer.getId(), customer.getName(),
+                email(name[0], name.length > 1 ? name[1] : "", random.nextInt(1_000_000), random));
+        customer.getExtras().forEach(copy::putExtra);
+        copy.putExtra("tier", pick(random, TIERS));
+        copy.putExtra("updatedAt", now);
+        return copy;
+    }
+
+    private static String email(String first, String last, long suffix, SplittableRandom random) {
+        return (first + "." + last).toLowerCase().replace(' ', '-') + suffix + "@" + pick(random, DOMAINS);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Outcome of one churn pass.
+     *
+     * @param created customers added
+     * @param updated customers changed
+     * @param deleted customers removed
+     */
+    public record Churn(long created, long updated, long deleted) {}
+}
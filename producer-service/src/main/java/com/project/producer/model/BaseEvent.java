@@ -1,7 +1,9 @@
 package com.project.producer.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.Instant;
-import java.util.UUID;
 
 /**
  * Generic event wrapper for publishing messages to Kafka or any event-driven system.
@@ -13,6 +15,8 @@ import java.util.UUID;
  *
  * <p>
  * The {@code eventId} ensures uniqueness and can be used for idempotency.
+ * It is assigned by an {@link EventIdGenerator}; by default a time-ordered
+ * UUIDv7 from {@link TimeOrderedEventIdGenerator}.
  * The {@code timestamp} records the time the event was created.
  * </p>
  *
@@ -22,9 +26,9 @@ public class BaseEvent<T> {
 
     /**
      * Unique identifier for the event.
-     * Generated automatically using UUID.
+     * Generated by an {@link EventIdGenerator}.
      */
-    private String eventId = UUID.randomUUID().toString();
+    private String eventId;
 
     /**
      * Type of the event (e.g., CUSTOMER_UPDATE, INVENTORY_UPDATE).
@@ -39,7 +43,7 @@ public class BaseEvent<T> {
     /**
      * Timestamp indicating when the event was created.
      */
-    private Instant timestamp = Instant.now();
+    private Instant timestamp;
 
     /**
      * The actual payload of the event, can be any object representing the data.
@@ -54,8 +58,41 @@ public class BaseEvent<T> {
      * @param payload      the payload object
      */
     public BaseEvent(String eventType, String sourceSystem, T payload) {
+        this(TimeOrderedEventIdGenerator.INSTANCE, eventType, sourceSystem, payload);
+    }
+
+    /**
+     * Constructs a new BaseEvent whose ID is assigned by the given generator.
+     *
+     * @param idGenerator  the strategy used to assign the event ID
+     * @param eventType    the type of the event
+     * @param sourceSystem the system that produced the event
+     * @param payload      the payload object
+     */
+    public BaseEvent(EventIdGenerator idGenerator, String eventType, String sourceSystem, T payload) {
+        this(idGenerator.generate(eventType, sourceSystem, payload), eventType, sourceSystem, Instant.now(), payload);
+    }
+
+    /**
+     * Restores an event with its original metadata, for example when it is
+     * read back from Kafka.
+     *
+     * @param eventId      the original event ID
+     * @param eventType    the type of the event
+     * @param sourceSystem the system that produced the event
+     * @param timestamp    the original creation time
+     * @param payload      the payload object
+     */
+    @JsonCreator
+    public BaseEvent(@JsonProperty("eventId") String eventId,
+                     @JsonProperty("eventType") String eventType,
+                     @JsonProperty("sourceSystem") String sourceSystem,
+                     @JsonProperty("timestamp") Instant timestamp,
+                     @JsonProperty("payload") T payload) {
+        this.eventId = eventId;
         this.eventType = eventType;
         this.sourceSystem = sourceSystem;
+        this.timestamp = timestamp;
         this.payload = payload;
     }
 
@@ -0,0 +1,110 @@
+package com.project.producer.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Customer record as returned by the CRM system.
+ * <p>
+ * Declared fields are stored as plain Java fields instead of map entries.
+ * Any other attribute in the CRM response is kept in {@link #getExtras()},
+ * which is only allocated when such attributes exist, and written back at
+ * the top level when the customer is serialized. The JSON shape on Kafka is
+ * therefore the same as the CRM response.
+ * </p>
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class Customer implements SourceRecord {
+
+    /**
+     * Unique identifier assigned by the CRM.
+     */
+    private final String id;
+
+    /**
+     * Full name of the customer.
+     */
+    private final String name;
+
+    /**
+     * Email address of the customer.
+     */
+    private final String email;
+
+    /**
+     * Attributes not mapped to a declared field, sorted by name so equal
+     * customers always print and hash the same way.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private Map<String, Object> extras;
+
+    /**
+     * Constructs a customer.
+     *
+     * @param id    the CRM id
+     * @param name  the customer name
+     * @param email the customer email
+     */
+    @JsonCreator
+    public Customer(@JsonProperty("id") String id,
+                    @JsonProperty("name") String name,
+                    @JsonProperty("email") String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    /**
+     * Creates a customer that only carries an id, used for delete events.
+     *
+     * @param id the CRM id
+     * @return a customer with no other attributes
+     */
+    public static Customer ofId(String id) {
+        return new Customer(id, null, null);
+    }
+
+    /**
+     * Returns a copy of this customer with a different id.
+     *
+     * @param newId the id to assign
+     * @return the copy
+     */
+    public Customer withId(String newId) {
+        Customer copy = new Customer(newId, name, email);
+        copy.extras = extras == null ? null : new TreeMap<>(extras);
+        return copy;
+    }
+
+    @Override
+    @JsonAnyGetter
+    public Map<String, Object> getExtras() {
+        return extras == null ? Map.of() : extras;
+    }
+
+    /**
+     * Records an attribute that has no declared field.
+     *
+     * @param field the attribute name
+     * @param value the attribute value
+     */
+    @JsonAnySetter
+    public void putExtra(String field, Object value) {
+        if (extras == null) {
+            extras = new TreeMap<>();
+        }
+        extras.put(field, value);
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.producer.model;
+
+/**
+ * Strategy for assigning the {@code eventId} of a {@link BaseEvent}.
+ * <p>
+ * Two implementations are provided:
+ * <ul>
+ *     <li>{@link TimeOrderedEventIdGenerator}: lock-free, monotonic UUIDv7
+ *     identifiers that sort by creation time;</li>
+ *     <li>{@link ContentDerivedEventIdGenerator}: deterministic identifiers
+ *     derived from the source, event type, entity id, version and content
+ *     of the record, so that re-publishing the same record yields the same
+ *     ID and downstream idempotency checks drop the duplicate.</li>
+ * </ul>
+ * The strategy is selected with {@code producer.event-id.strategy}.
+ * </p>
+ */
+@FunctionalInterface
+public interface EventIdGenerator {
+
+    /**
+     * Generates the ID of a new event.
+     *
+     * @param eventType    the type of the event
+     * @param sourceSystem the system that produced the event
+     * @param payload      the event payload
+     * @return the event ID
+     */
+    String generate(String eventType, String sourceSystem, Object payload);
+}
@@ -0,0 +1,114 @@
+package com.project.producer.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Product record as returned by the Inventory system.
+ * <p>
+ * Declared fields are stored as plain Java fields instead of map entries.
+ * Any other attribute in the Inventory response is kept in
+ * {@link #getExtras()}, which is only allocated when such attributes exist,
+ * and written back at the top level when the product is serialized.
+ * </p>
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class Product implements SourceRecord {
+
+    /**
+     * Unique identifier assigned by the Inventory system.
+     */
+    private final String id;
+
+    /**
+     * Stock keeping unit code.
+     */
+    private final String sku;
+
+    /**
+     * Display name of the product.
+     */
+    private final String name;
+
+    /**
+     * Unit price.
+     */
+    private final BigDecimal price;
+
+    /**
+     * Units currently in stock.
+     */
+    private final Integer quantity;
+
+    /**
+     * Attributes not mapped to a declared field, sorted by name so equal
+     * products always print and hash the same way.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private Map<String, Object> extras;
+
+    /**
+     * Constructs a product.
+     *
+     * @param id       the Inventory id
+     * @param sku      the SKU code
+     * @param name     the product name
+     * @param price    the unit price
+     * @param quantity the units in stock
+     */
+    @JsonCreator
+    public Product(@JsonProperty("id") String id,
+                   @JsonProperty("sku") String sku,
+                   @JsonProperty("name") String name,
+                   @JsonProperty("price") BigDecimal price,
+                   @JsonProperty("quantity") Integer quantity) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Creates a product that only carries an id, used for delete events.
+     *
+     * @param id the Inventory id
+     * @return a product with no other attributes
+     */
+    public static Product ofId(String id) {
+        return new Product(id, null, null, null, null);
+    }
+
+    @Override
+    @JsonAnyGetter
+    public Map<String, Object> getExtras() {
+        return extras == null ? Map.of() : extras;
+    }
+
+    /**
+     * Records an attribute that has no declared field.
+     *
+     * @param field the attribute name
+     * @param value the attribute value
+     */
+    @JsonAnySetter
+    public void putExtra(String field, Object value) {
+        if (extras == null) {
+            extras = new TreeMap<>();
+        }
+        extras.put(field, value);
+    }
+}
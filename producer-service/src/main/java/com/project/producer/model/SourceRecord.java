@@ -0,0 +1,20 @@
+package com.project.producer.model;
+
+import java.util.Map;
+
+/**
+ * Common contract of the typed records fetched from source systems.
+ * <p>
+ * Besides its declared fields, every record keeps the attributes it did not
+ * recognise in a small side map, so fields added by a source system survive
+ * the trip to Kafka even before the model is updated.
+ * </p>
+ */
+public interface SourceRecord {
+
+    /** @return the entity id assigned by the source system */
+    String getId();
+
+    /** @return attributes not mapped to a declared field, never {@code null} */
+    Map<String, Object> getExtras();
+}
@@ -0,0 +1,38 @@
+package com.project.producer.publisher;
+
+/**
+ * How the deletion of an entity is published to a topic.
+ * <p>
+ * Compacted topics need a tombstone, a record with the entity key and a
+ * {@code null} value, to eventually drop every record of a deleted entity.
+ * Selected per topic via {@code producer.kafka.delete-modes}.
+ * </p>
+ */
+public enum DeleteMode {
+
+    /** A regular {@code *_DELETE} event only. */
+    EVENT,
+
+    /** A tombstone only. */
+    TOMBSTONE,
+
+    /**
+     * The {@code *_DELETE} event followed by a tombstone with the same key,
+     * so consumers still see the delete before compaction removes both.
+     */
+    BOTH;
+
+    /**
+     * @param value {@code event}, {@code tombstone} or {@code both}, case-insensitive
+     * @return the matching mode
+     * @throws IllegalArgumentException for any other value
+     */
+    public static DeleteMode parse(String value) {
+        return switch (value.trim().toLowerCase()) {
+            case "event" -> EVENT;
+            case "tombstone" -> TOMBSTONE;
+            case "both" -> BOTH;
+            default -> throw new IllegalArgumentException("Unknown delete mode: " + value);
+        };
+    }
+}
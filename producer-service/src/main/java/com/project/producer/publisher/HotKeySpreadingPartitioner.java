@@ -0,0 +1,83 @@
+package com.project.producer.publisher;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Partitioner that spreads a configured set of hot keys over several
+ * partitions while every other key keeps the default hash placement.
+ * <p>
+ * Ordinary keys go to {@code murmur2(key) % partitions}, exactly like Kafka's
+ * default partitioner, so per-entity ordering is unchanged. Records of a hot
+ * key rotate over {@code hot-key.spread} consecutive partitions starting at
+ * its home partition, which relieves the broker and the consumer owning that
+ * partition at the price of ordering for those keys only. For the same
+ * reason a compacted topic cannot fully compact a hot key.
+ * </p>
+ *
+ * <p>
+ * Enabled per producer profile:
+ * <pre>{@code
+ * producer:
+ *   kafka:
+ *     profiles:
+ *       high-throughput:
+ *         partitioner.class: com.project.producer.publisher.HotKeySpreadingPartitioner
+ *         hot-key.keys: C0000000001,C0000000002
+ *         hot-key.spread: 4
+ * }</pre>
+ * </p>
+ */
+public class HotKeySpreadingPartitioner implements Partitioner {
+
+    public static final String HOT_KEYS_CONFIG = "hot-key.keys";
+
+    public static final String SPREAD_CONFIG = "hot-key.spread";
+
+    private Set<String> hotKeys = Set.of();
+
+    private int spread = 4;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object keys = configs.get(HOT_KEYS_CONFIG);
+        if (keys != null) {
+            hotKeys = Arrays.stream(keys.toString().split(","))
+                    .map(String::trim)
+                    .filter(key -> !key.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        Object configuredSpread = configs.get(SPREAD_CONFIG);
+        if (configuredSpread != null) {
+            spread = Math.max(1, Integer.parseInt(configuredSpread.toString().trim()));
+        }
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes,
+                         Cluster cluster) {
+        int partitions = cluster.partitionsForTopic(topic).size();
+        if (keyBytes == null) {
+            return Utils.toPositive((int) counter.getAndIncrement()) % partitions;
+        }
+        int home = Utils.toPositive(Utils.murmur2(keyBytes)) % partitions;
+        if (!hotKeys.contains(String.valueOf(key))) {
+            return home;
+        }
+        int offset = (int) (counter.getAndIncrement() % Math.min(spread, partitions));
+        return (home + offset) % partitions;
+    }
+
+    @Override
+    public void close() {
+    }
+}
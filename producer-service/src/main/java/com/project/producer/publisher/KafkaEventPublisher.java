@@ -1,16 +1,26 @@
 package com.project.producer.publisher;
 
+import com.project.producer.config.ProducerProfiles;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.spool.EventSpool;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 /**
  * KafkaEventPublisher is responsible for publishing events to Kafka topics.
  * <p>
  * This component leverages Spring Kafka's {@link KafkaTemplate} to asynchronously
- * send messages to a specified topic with a key and payload. It includes logging
- * for both success and failure scenarios.
+ * send messages to a specified topic with a key and payload. The template is
+ * chosen from {@link ProducerProfiles} by topic, or explicitly per batch. It
+ * includes logging for both success and failure scenarios.
  * </p>
  *
  * <p>
@@ -53,25 +63,162 @@ import org.springframework.stereotype.Component;
 public class KafkaEventPublisher {
 
     /**
-     * KafkaTemplate used for publishing messages.
+     * KafkaTemplates per producer profile, used for publishing messages.
+     */
+    private final ProducerProfiles producerProfiles;
+
+    /**
+     * Records ack latency, failures and in-flight sends.
      */
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final PipelineMetrics metrics;
+
+    /**
+     * Durable outbox for records Kafka cannot take right now.
+     */
+    private final EventSpool spool;
+
+    /**
+     * Maximum number of unacknowledged sends per batch before callers block.
+     * Configurable via {@code producer.publish.max-in-flight} in application properties.
+     */
+    @Value("${producer.publish.max-in-flight:10000}")
+    private int maxInFlight = 10000;
+
+    /**
+     * Whether batches commit their records in Kafka transactions: {@code none},
+     * {@code run} or {@code chunk}.
+     * Configurable via {@code producer.kafka.transactions.mode} in application properties.
+     */
+    @Value("${producer.kafka.transactions.mode:none}")
+    private String transactionMode = "none";
+
+    /**
+     * Records per transaction in {@code chunk} mode.
+     * Configurable via {@code producer.kafka.transactions.chunk-size} in application properties.
+     */
+    @Value("${producer.kafka.transactions.chunk-size:10000}")
+    private int transactionChunkSize = 10000;
+
+    /**
+     * Fails startup on an in-flight limit that would block every send.
+     */
+    @PostConstruct
+    void validate() {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("producer.publish.max-in-flight must be positive: " + maxInFlight);
+        }
+    }
 
     /**
      * Publishes a message to the specified Kafka topic asynchronously.
+     * <p>
+     * With the {@link EventSpool} enabled, the message is spooled if older
+     * records are still waiting there or if the send fails with a retriable error.
+     * </p>
      *
      * @param topic   The Kafka topic to publish to
      * @param key     The key for the message (used for partitioning)
      * @param payload The payload object to send
      */
     public void publish(String topic, String key, Object payload) {
-        kafkaTemplate.send(topic, key, payload)
-                .whenComplete((result, ex) -> {
-                    if (ex != null) {
-                        log.error("Failed to publish to {}", topic, ex);
-                    } else {
-                        log.info("Published to {} offset={}", topic, result.getRecordMetadata().offset());
-                    }
-                });
+        spool.spoolOrSend(topic, key, payload, () -> dispatch(topic, key, payload));
+    }
+
+    private void dispatch(String topic, String key, Object payload) {
+        long start = metrics.sendStarted();
+        try {
+            producerProfiles.forTopic(topic).send(topic, key, payload)
+                    .whenComplete((result, ex) -> {
+                        metrics.sendCompleted(topic, start, ex == null);
+                        if (ex != null && EventSpool.isRetriable(ex) && spool.append(topic, key, payload)) {
+                            log.warn("Spooled record for {} after send failure: {}", topic, ex.getMessage());
+                        } else if (ex != null) {
+                            log.error("Failed to publish to {}", topic, ex);
+                        } else {
+                            log.debug("Published to {} offset={}", topic, result.getRecordMetadata().offset());
+                        }
+                    });
+        } catch (RuntimeException ex) {
+            metrics.sendCompleted(topic, start, false);
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens a batch for publishing the records of one run to a topic.
+     * <p>
+     * The batch caps the number of in-flight sends and reports a single
+     * aggregated {@link PublishSummary} once it is completed. With
+     * {@code producer.kafka.transactions.mode} set, the batch's records are
+     * committed atomically, per batch or per chunk.
+     * </p>
+     *
+     * @param topic the Kafka topic to publish to
+     * @return a new batch
+     */
+    public PublishBatch openBatch(String topic) {
+        return openBatch(topic, producerProfiles.profileForTopic(topic));
+    }
+
+    /**
+     * Opens a batch that publishes through an explicitly chosen producer
+     * profile instead of the one configured for the topic, for example a
+     * bulk profile for a full reload.
+     *
+     * @param topic   the Kafka topic to publish to
+     * @param profile the name of the producer profile to use
+     * @return a new batch
+     */
+    public PublishBatch openBatch(String topic, String profile) {
+        KafkaTemplate<String, Object> template = producerProfiles.forProfile(profile);
+        TransactionMode mode = TransactionMode.parse(transactionMode);
+        if (mode != TransactionMode.NONE && !template.isTransactional()) {
+            throw new IllegalStateException("Producer profile " + profile + " is not transactional");
+        }
+        return new PublishBatch(template, topic, maxInFlight, metrics,
+                producerProfiles.deleteModeForTopic(topic), spool, mode, transactionChunkSize);
+    }
+
+    /**
+     * Publishes every event of the given iterable as one batch.
+     * <p>
+     * The call returns once all events have been handed to the producer,
+     * blocking whenever the in-flight limit is reached. The returned future
+     * completes when every send has been acknowledged or has failed.
+     * </p>
+     *
+     * @param topic        the Kafka topic to publish to
+     * @param events       the events to publish
+     * @param keyExtractor function deriving the record key from an event
+     * @param <E>          the event type
+     * @return the future summary of the batch
+     */
+    public <E> CompletableFuture<PublishSummary> publishAll(String topic, Iterable<E> events,
+                                                            Function<? super E, String> keyExtractor) {
+        PublishBatch batch = openBatch(topic);
+        try {
+            for (E event : events) {
+                batch.send(keyExtractor.apply(event), event);
+            }
+        } catch (RuntimeException ex) {
+            batch.complete();
+            throw ex;
+        }
+        return batch.complete();
+    }
+
+    /**
+     * Publishes every event of the given stream as one batch.
+     *
+     * @param topic        the Kafka topic to publish to
+     * @param events       the events to publish
+     * @param keyExtractor function deriving the record key from an event
+     * @param <E>          the event type
+     * @return the future summary of the batch
+     * @see #publishAll(String, Iterable, Function)
+     */
+    public <E> CompletableFuture<PublishSummary> publishAll(String topic, Stream<E> events,
+                                                            Function<? super E, String> keyExtractor) {
+        return publishAll(topic, (Iterable<E>) events::iterator, keyExtractor);
     }
 }
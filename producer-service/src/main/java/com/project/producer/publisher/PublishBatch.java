@@ -0,0 +1,472 @@
+package com.project.producer.publisher;
+
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.spool.EventSpool;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * PublishBatch groups the sends of one produce run to a single Kafka topic.
+ * <p>
+ * The number of unacknowledged sends is capped: once the limit is reached,
+ * {@link #send(String, Object)} blocks the caller until an earlier send has
+ * been acknowledged. This pushes back on the fetch side so a large run never
+ * queues an unbounded number of records in memory.
+ * </p>
+ *
+ * <p>
+ * Calling {@link #complete()} flushes the producer and returns a future that
+ * completes with a {@link PublishSummary} once every send of the batch has
+ * either been acknowledged or failed.
+ * </p>
+ *
+ * <p>
+ * When the {@link EventSpool} is enabled, records are parked in the spool
+ * instead of failing or blocking when Kafka is unavailable: a send that fails
+ * with a retriable error, or that waits longer than
+ * {@code producer.spool.max-block-ms} for an in-flight permit, is spooled and
+ * replayed later. Such records are counted as {@code spooled} in the summary.
+ * </p>
+ *
+ * <p>
+ * In a transactional {@link TransactionMode}, the batch sends through its own
+ * transactional producer and commits when it completes, or every
+ * {@code chunkSize} records. {@link #abort()} discards the open transaction.
+ * Records only count as {@code sent} once their transaction committed; the
+ * records of an aborted transaction count as {@code failed}. The spool is not
+ * used, since a spooled record would escape the transaction.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * PublishBatch batch = publisher.openBatch("customer_data");
+ * customers.forEach(c -> batch.send(c.id(), c));
+ * PublishSummary summary = batch.complete().join();
+ * }</pre>
+ * </p>
+ */
+@Slf4j
+public class PublishBatch {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final String topic;
+
+    private final PipelineMetrics metrics;
+
+    private final DeleteMode deleteMode;
+
+    private final EventSpool spool;
+
+    private final TransactionMode transactionMode;
+
+    private final int chunkSize;
+
+    /**
+     * Transactional producer owned by this batch, or {@code null} when
+     * records are sent through the shared template.
+     */
+    private final Producer<String, Object> txProducer;
+
+    /**
+     * Sends take the read lock; a commit or abort takes the write lock, so no
+     * record is sent between the end of one transaction and the next begin.
+     */
+    private final ReentrantReadWriteLock txLock = new ReentrantReadWriteLock();
+
+    /**
+     * Records sent in the open transaction.
+     */
+    private final AtomicLong txRecords = new AtomicLong();
+
+    private final AtomicLong txSendFailures = new AtomicLong();
+
+    /**
+     * Acknowledgement callbacks of the open transaction, run once it commits.
+     */
+    private final Queue<Runnable> txAcknowledgements = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Set when the producer can no longer run transactions, e.g. after it was fenced.
+     */
+    private volatile boolean txBroken;
+
+    /**
+     * Permits for in-flight sends; one is taken per send and returned on ack.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * Number of outstanding sends plus one for the batch itself while it is
+     * still open. Whoever brings it to zero completes the batch.
+     */
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong spooled = new AtomicLong();
+
+    /**
+     * Lowest and highest acknowledged offset per partition.
+     */
+    private final Map<Integer, PublishSummary.OffsetRange> offsets = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final CompletableFuture<PublishSummary> completion = new CompletableFuture<>();
+
+    private final long startedAt = System.nanoTime();
+
+    PublishBatch(KafkaTemplate<String, Object> kafkaTemplate, String topic, int maxInFlight,
+                 PipelineMetrics metrics, DeleteMode deleteMode, EventSpool spool) {
+        this(kafkaTemplate, topic, maxInFlight, metrics, deleteMode, spool, TransactionMode.NONE, 0);
+    }
+
+    PublishBatch(KafkaTemplate<String, Object> kafkaTemplate, String topic, int maxInFlight,
+                 PipelineMetrics metrics, DeleteMode deleteMode, EventSpool spool,
+                 TransactionMode transactionMode, int chunkSize) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.metrics = metrics;
+        this.deleteMode = deleteMode;
+        this.spool = spool;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.transactionMode = transactionMode;
+        this.chunkSize = Math.max(1, chunkSize);
+        if (transactionMode == TransactionMode.NONE) {
+            this.txProducer = null;
+        } else {
+            this.txProducer = kafkaTemplate.getProducerFactory().createProducer();
+            txProducer.beginTransaction();
+        }
+    }
+
+    /**
+     * Sends a record as part of this batch, blocking while the in-flight
+     * limit is reached. With the spool enabled, the record is spooled instead
+     * if no permit frees up within {@code producer.spool.max-block-ms}, or if
+     * the spool still holds older records.
+     *
+     * @param key     the record key
+     * @param payload the record value, or {@code null} for a tombstone
+     */
+    public void send(String key, Object payload) {
+        send(key, payload, 0);
+    }
+
+    /**
+     * Sends a record read from a source at {@code readNanos}, so that its
+     * fetch-to-ack latency is recorded as {@code producer.record.latency}.
+     *
+     * @param key       the record key
+     * @param payload   the record value
+     * @param readNanos {@link System#nanoTime()} when the record was read, or {@code 0} if unknown
+     * @see #send(String, Object)
+     */
+    public void send(String key, Object payload, long readNanos) {
+        send(key, payload, readNanos, null);
+    }
+
+    /**
+     * Sends a record and runs {@code onAcknowledged} once it is safe: when
+     * Kafka acknowledged it, when it was parked in the spool, or in a
+     * transactional mode when its transaction committed. The callback is not
+     * run for a record that failed, and may run on a producer thread.
+     *
+     * @param key            the record key
+     * @param payload        the record value
+     * @param readNanos      {@link System#nanoTime()} when the record was read, or {@code 0} if unknown
+     * @param onAcknowledged callback for the acknowledgement, or {@code null}
+     * @see #send(String, Object, long)
+     */
+    public void send(String key, Object payload, long readNanos, Runnable onAcknowledged) {
+        if (txProducer != null) {
+            sendInTransaction(key, payload, readNanos, onAcknowledged);
+            return;
+        }
+        if (!acquire()) {
+            if (spool.append(topic, key, payload)) {
+                spooled.incrementAndGet();
+                acknowledged(onAcknowledged);
+                return;
+            }
+            acquireBlocking();
+        }
+        pending.incrementAndGet();
+        if (spool.spoolOrSend(topic, key, payload, () -> dispatch(key, payload, readNanos, onAcknowledged))) {
+            spooled.incrementAndGet();
+            acknowledged(onAcknowledged);
+            inFlight.release();
+            release();
+        }
+    }
+
+    private void dispatch(String key, Object payload, long readNanos, Runnable onAcknowledged) {
+        long start = metrics.sendStarted();
+        try {
+            kafkaTemplate.send(topic, key, payload)
+                    .whenComplete((result, ex) -> {
+                        metrics.sendCompleted(topic, start, ex == null);
+                        if (ex != null) {
+                            onFailure(key, payload, ex, onAcknowledged);
+                        } else {
+                            onSuccess(result.getRecordMetadata(), readNanos, onAcknowledged);
+                        }
+                    });
+        } catch (RuntimeException ex) {
+            metrics.sendCompleted(topic, start, false);
+            onFailure(key, payload, ex, onAcknowledged);
+        }
+    }
+
+    private void sendInTransaction(String key, Object payload, long readNanos, Runnable onAcknowledged) {
+        acquireBlocking();
+        pending.incrementAndGet();
+        long records;
+        txLock.readLock().lock();
+        try {
+            records = txRecords.incrementAndGet();
+            long start = metrics.sendStarted();
+            try {
+                if (txBroken) {
+                    throw new IllegalStateException("Transactional producer for " + topic + " is no longer usable");
+                }
+                txProducer.send(new ProducerRecord<>(topic, key, payload), (metadata, ex) -> {
+                    metrics.sendCompleted(topic, start, ex == null);
+                    if (ex != null) {
+                        onTransactionalFailure(ex);
+                    } else {
+                        onTransactionalAck(metadata, readNanos, onAcknowledged);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                metrics.sendCompleted(topic, start, false);
+                onTransactionalFailure(ex);
+            }
+        } finally {
+            txLock.readLock().unlock();
+        }
+        if (transactionMode == TransactionMode.CHUNK && records >= chunkSize) {
+            endTransaction(true, true);
+        }
+    }
+
+    /**
+     * Takes an in-flight permit. With the spool enabled the wait is bounded.
+     *
+     * @return {@code false} if the bounded wait expired
+     */
+    private boolean acquire() {
+        if (!spool.isEnabled()) {
+            acquireBlocking();
+            return true;
+        }
+        try {
+            return inFlight.tryAcquire(spool.getMaxBlockMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to publish to " + topic, e);
+        }
+    }
+
+    private void acquireBlocking() {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to publish to " + topic, e);
+        }
+    }
+
+    /**
+     * Publishes the deletion of an entity according to the topic's
+     * {@link DeleteMode}: the delete event, a tombstone with the same key,
+     * or both in that order.
+     *
+     * @param key         the entity key
+     * @param deleteEvent the delete event
+     */
+    public void delete(String key, Object deleteEvent) {
+        if (deleteMode != DeleteMode.TOMBSTONE) {
+            send(key, deleteEvent);
+        }
+        if (deleteMode != DeleteMode.EVENT) {
+            send(key, null);
+        }
+    }
+
+    /**
+     * Closes the batch: flushes buffered records, commits the open transaction
+     * if any, and returns a future that completes once every send has been
+     * acknowledged or has failed.
+     * Calling it more than once returns the same future.
+     *
+     * @return the future summary of the batch
+     */
+    public CompletableFuture<PublishSummary> complete() {
+        if (closed.compareAndSet(false, true)) {
+            if (txProducer != null) {
+                endTransaction(true, false);
+                txProducer.close();
+            } else {
+                kafkaTemplate.flush();
+            }
+            release();
+        }
+        return completion;
+    }
+
+    /**
+     * Closes the batch after the run failed. In a transactional mode the open
+     * transaction is aborted, so {@code read_committed} consumers never see
+     * its records; otherwise this is the same as {@link #complete()}, since
+     * records sent on their own cannot be recalled.
+     *
+     * @return the future summary of the batch
+     */
+    public CompletableFuture<PublishSummary> abort() {
+        if (txProducer != null && closed.compareAndSet(false, true)) {
+            endTransaction(false, false);
+            txProducer.close();
+            release();
+        }
+        return complete();
+    }
+
+    /**
+     * Commits or aborts the open transaction and, if {@code next}, begins
+     * another one.
+     */
+    private void endTransaction(boolean commit, boolean next) {
+        txLock.writeLock().lock();
+        try {
+            if (next && txRecords.get() < chunkSize) {
+                // Another sender already committed this chunk.
+                return;
+            }
+            long records = txRecords.getAndSet(0);
+            if (txBroken) {
+                failed.addAndGet(records);
+                txAcknowledgements.clear();
+                return;
+            }
+            try {
+                if (commit) {
+                    txProducer.commitTransaction();
+                    sent.addAndGet(records);
+                    // The commit flushed the transaction, so every ack callback has queued its runnable.
+                    Runnable acknowledgement;
+                    while ((acknowledgement = txAcknowledgements.poll()) != null) {
+                        acknowledgement.run();
+                    }
+                } else {
+                    txProducer.abortTransaction();
+                    failed.addAndGet(records);
+                }
+            } catch (KafkaException e) {
+                failed.addAndGet(records);
+                log.error("Transaction on {} failed, {} records discarded", topic, records, e);
+                try {
+                    txProducer.abortTransaction();
+                } catch (KafkaException fatal) {
+                    txBroken = true;
+                }
+            }
+            txAcknowledgements.clear();
+            if (next && !txBroken) {
+                txProducer.beginTransaction();
+            }
+        } finally {
+            txLock.writeLock().unlock();
+        }
+    }
+
+    private void onSuccess(RecordMetadata metadata, long readNanos, Runnable onAcknowledged) {
+        sent.incrementAndGet();
+        acknowledged(onAcknowledged);
+        if (readNanos != 0) {
+            metrics.recordLatency(topic, readNanos);
+        }
+        offsets.merge(metadata.partition(),
+                new PublishSummary.OffsetRange(metadata.offset(), metadata.offset()),
+                PublishSummary.OffsetRange::span);
+        inFlight.release();
+        release();
+    }
+
+    private void onTransactionalAck(RecordMetadata metadata, long readNanos, Runnable onAcknowledged) {
+        // Counted as sent, and acknowledged, when the transaction commits.
+        if (onAcknowledged != null) {
+            txAcknowledgements.add(onAcknowledged);
+        }
+        if (readNanos != 0) {
+            metrics.recordLatency(topic, readNanos);
+        }
+        offsets.merge(metadata.partition(),
+                new PublishSummary.OffsetRange(metadata.offset(), metadata.offset()),
+                PublishSummary.OffsetRange::span);
+        inFlight.release();
+        release();
+    }
+
+    private void onTransactionalFailure(Throwable ex) {
+        // The whole transaction fails to commit; its records are counted then.
+        if (txSendFailures.getAndIncrement() == 0) {
+            log.error("Failed to publish to {} in a transaction", topic, ex);
+        }
+        inFlight.release();
+        release();
+    }
+
+    private void onFailure(String key, Object payload, Throwable ex, Runnable onAcknowledged) {
+        if (EventSpool.isRetriable(ex) && spool.append(topic, key, payload)) {
+            acknowledged(onAcknowledged);
+            // Log the first spooled record only; the spool reports its depth as a metric.
+            if (spooled.getAndIncrement() == 0) {
+                log.warn("Kafka unavailable for {}, spooling records: {}", topic, ex.getMessage());
+            }
+        } else if (failed.getAndIncrement() == 0) {
+            // Log the first failure in full; the rest are summarized at the end.
+            log.error("Failed to publish to {}", topic, ex);
+        }
+        inFlight.release();
+        release();
+    }
+
+    private static void acknowledged(Runnable onAcknowledged) {
+        if (onAcknowledged != null) {
+            onAcknowledged.run();
+        }
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0) {
+            PublishSummary summary = new PublishSummary(topic, sent.get(), failed.get(), spooled.get(),
+                    new TreeMap<>(offsets), (System.nanoTime() - startedAt) / 1_000_000);
+            completion.complete(summary);
+        }
+    }
+}
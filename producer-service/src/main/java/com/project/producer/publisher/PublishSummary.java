@@ -0,0 +1,44 @@
+package com.project.producer.publisher;
+
+import java.util.Map;
+
+/**
+ * Aggregated outcome of a {@link PublishBatch}.
+ *
+ * @param topic      the topic the batch was published to
+ * @param sent       number of records acknowledged by the broker
+ * @param failed     number of records that could not be published
+ * @param spooled    number of records parked in the {@code EventSpool} for later replay
+ * @param offsets    acknowledged offset range per partition
+ * @param durationMs time from opening the batch until the last acknowledgement
+ */
+public record PublishSummary(String topic, long sent, long failed, long spooled,
+                             Map<Integer, OffsetRange> offsets, long durationMs) {
+
+    /**
+     * Creates a summary of a batch that spooled nothing.
+     */
+    public PublishSummary(String topic, long sent, long failed,
+                          Map<Integer, OffsetRange> offsets, long durationMs) {
+        this(topic, sent, failed, 0, offsets, durationMs);
+    }
+
+    /** @return {@code true} if at least one record failed; spooled records are not failures */
+    public boolean hasFailures() {
+        return failed > 0;
+    }
+
+    /**
+     * Inclusive range of offsets written to one partition.
+     *
+     * @param first lowest acknowledged offset
+     * @param last  highest acknowledged offset
+     */
+    public record OffsetRange(long first, long last) {
+
+        /** @return the smallest range covering both this and {@code other} */
+        public OffsetRange span(OffsetRange other) {
+            return new OffsetRange(Math.min(first, other.first), Math.max(last, other.last));
+        }
+    }
+}
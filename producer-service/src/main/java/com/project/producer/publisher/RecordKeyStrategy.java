@@ -0,0 +1,40 @@
+package com.project.producer.publisher;
+
+import com.project.producer.model.BaseEvent;
+import com.project.producer.model.SourceRecord;
+
+/**
+ * Strategy deriving the Kafka record key of an event.
+ * <p>
+ * The key decides the partition, and with it the ordering guarantee:
+ * <ul>
+ *     <li>{@link #ENTITY_ID} keys by the id of the customer or product, so all
+ *     events of one entity land on the same partition in order, and a
+ *     compacted topic keeps only the latest event per entity;</li>
+ *     <li>{@link #EVENT_ID} keys by the unique event id, spreading events
+ *     evenly without any per-entity ordering.</li>
+ * </ul>
+ * Selected via {@code producer.kafka.key-strategy}.
+ * </p>
+ */
+@FunctionalInterface
+public interface RecordKeyStrategy {
+
+    /**
+     * Keys by entity id, falling back to the event id for payloads without one.
+     */
+    RecordKeyStrategy ENTITY_ID = event -> event.getPayload() != null && event.getPayload().getId() != null
+            ? event.getPayload().getId()
+            : event.getEventId();
+
+    /**
+     * Keys by event id.
+     */
+    RecordKeyStrategy EVENT_ID = BaseEvent::getEventId;
+
+    /**
+     * @param event the event about to be published
+     * @return the record key
+     */
+    String key(BaseEvent<? extends SourceRecord> event);
+}
@@ -0,0 +1,40 @@
+package com.project.producer.publisher;
+
+/**
+ * Whether, and how often, a {@link PublishBatch} commits its records in a
+ * Kafka transaction.
+ * <p>
+ * Consumers reading with {@code isolation.level=read_committed} only see the
+ * records of committed transactions, so a run that fails halfway leaves
+ * nothing, or only whole chunks, behind. Selected via
+ * {@code producer.kafka.transactions.mode}.
+ * </p>
+ */
+public enum TransactionMode {
+
+    /** Every record is published on its own (the default). */
+    NONE,
+
+    /** All records of a batch are committed together when it completes. */
+    RUN,
+
+    /**
+     * Records are committed every {@code producer.kafka.transactions.chunk-size}
+     * records, bounding how much work a failure discards.
+     */
+    CHUNK;
+
+    /**
+     * @param value {@code none}, {@code run} or {@code chunk}, case-insensitive
+     * @return the matching mode
+     * @throws IllegalArgumentException for any other value
+     */
+    public static TransactionMode parse(String value) {
+        return switch (value.trim().toLowerCase()) {
+            case "none" -> NONE;
+            case "run" -> RUN;
+            case "chunk" -> CHUNK;
+            default -> throw new IllegalArgumentException("Unknown transaction mode: " + value);
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.producer.scheduler;
+
+import com.project.producer.service.RunReport;
+
+/**
+ * Polls a source more often while its runs find changes, and less often while
+ * they find none or the source is slow.
+ * <p>
+ * After every run the delay is adjusted from its previous value:
+ * <ul>
+ *     <li>{@code busy} - the run published at least {@code busyChanges}
+ *     events: the delay is divided by {@code backoffFactor}</li>
+ *     <li>{@code steady} - the run published fewer: the delay is kept</li>
+ *     <li>{@code idle} - the run published nothing or the source answered
+ *     {@code 304 Not Modified}: the delay is multiplied by {@code backoffFactor}</li>
+ *     <li>{@code failed} - the run failed: the delay is multiplied by
+ *     {@code backoffFactor}</li>
+ *     <li>{@code no-report} - nothing ran, e.g. the scheduled run was skipped
+ *     while another one was in progress or the instance owned no shards:
+ *     the delay is kept</li>
+ *     <li>{@code slow-source} - a source page took longer than
+ *     {@code latencyTargetMs} on average: the delay is not shortened and is
+ *     stretched by the ratio of the latency to the target, up to
+ *     {@code backoffFactor}</li>
+ * </ul>
+ * The result always stays within {@code minDelayMs} and {@code maxDelayMs}, so
+ * repeated idle runs back off exponentially up to the maximum.
+ * </p>
+ *
+ * <p>
+ * Changes are counted by the change detection of the incremental mode, so
+ * this policy requires {@code producer.sync.incremental=true}; in the full
+ * mode every record published would count as a change.
+ * </p>
+ *
+ * <p>
+ * Configurable per source via {@code producer.scheduler.<name>.adaptive.*},
+ * defaulting to {@code producer.scheduler.adaptive.*}:
+ * <pre>{@code
+ * producer:
+ *   scheduler:
+ *     mode: adaptive
+ *     adaptive:
+ *       min-delay-ms: 5000
+ *       max-delay-ms: 900000
+ *       busy-changes: 100
+ *       backoff-factor: 2.0
+ *       latency-target-ms: 2000
+ * }</pre>
+ * </p>
+ */
+public class AdaptivePolling implements PollingPolicy {
+
+    private final Settings settings;
+
+    /**
+     * The delay chosen after the previous run; guarded by {@code this}.
+     */
+    private long delayMs;
+
+    /**
+     * @param initialDelayMs the delay to start from, usually the configured {@code fixed-delay-ms}
+     * @param settings       bounds and factors of the adjustments
+     */
+    public AdaptivePolling(long initialDelayMs, Settings settings) {
+        if (settings.minDelayMs() < 1 || settings.maxDelayMs() < settings.minDelayMs()) {
+            throw new IllegalArgumentException("Invalid adaptive polling bounds: " + settings);
+        }
+        if (settings.backoffFactor() <= 1) {
+            throw new IllegalArgumentException("backoff-factor must be greater than 1: " + settings.backoffFactor());
+        }
+        this.settings = settings;
+        this.delayMs = clamp(initialDelayMs);
+    }
+
+    @Override
+    public synchronized PollingDelay next(boolean succeeded, RunReport report) {
+        double factor = settings.backoffFactor();
+        double next;
+        String reason;
+        if (!succeeded) {
+            next = delayMs * factor;
+            reason = "failed";
+        } else if (report == null) {
+            // Nothing to learn from; a stale report would repeat the last adjustment.
+            return new PollingDelay(delayMs, "no-report");
+        } else if (report.notModified() || report.changes() == 0) {
+            next = delayMs * factor;
+            reason = "idle";
+        } else if (report.changes() >= settings.busyChanges()) {
+            next = delayMs / factor;
+            reason = "busy";
+        } else {
+            next = delayMs;
+            reason = "steady";
+        }
+        if (report != null && settings.latencyTargetMs() > 0
+                && report.pageLatency().toMillis() > settings.latencyTargetMs()) {
+            double stretch = Math.min(factor, (double) report.pageLatency().toMillis() / settings.latencyTargetMs());
+            next = Math.max(next, delayMs) * stretch;
+            reason = "slow-source";
+        }
+        delayMs = clamp(Math.round(next));
+        return new PollingDelay(delayMs, reason);
+    }
+
+    private long clamp(long millis) {
+        return Math.max(settings.minDelayMs(), Math.min(settings.maxDelayMs(), millis));
+    }
+
+    /**
+     * @param minDelayMs      shortest delay between two runs
+     * @param maxDelayMs      longest delay between two runs
+     * @param busyChanges     events per run from which the source counts as busy
+     * @param backoffFactor   factor the delay is shortened or lengthened by per run, greater than 1
+     * @param latencyTargetMs average page latency above which the source counts as slow,
+     *                        or {@code 0} to ignore latency
+     */
+    public record Settings(long minDelayMs, long maxDelayMs, long busyChanges, double backoffFactor,
+                           long latencyTargetMs) {}
+}
@@ -0,0 +1,23 @@
+package com.project.producer.scheduler;
+
+import com.project.producer.service.RunReport;
+
+/**
+ * Polls a source with the same delay after every run.
+ */
+public class FixedPolling implements PollingPolicy {
+
+    private final PollingDelay delay;
+
+    /**
+     * @param delayMs delay between the end of one run and the start of the next
+     */
+    public FixedPolling(long delayMs) {
+        this.delay = new PollingDelay(delayMs, "fixed");
+    }
+
+    @Override
+    public PollingDelay next(boolean succeeded, RunReport report) {
+        return delay;
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.producer.scheduler;
+
+import com.project.producer.service.RunReport;
+
+/**
+ * Decides how long a {@link SourceJob} waits before its next run.
+ * <p>
+ * Selected per source via {@code producer.scheduler.mode} or
+ * {@code producer.scheduler.<name>.mode}:
+ * <ul>
+ *     <li>{@code fixed} - {@link FixedPolling}, the configured {@code fixed-delay-ms}</li>
+ *     <li>{@code adaptive} - {@link AdaptivePolling}, driven by the changes and
+ *     the source latency of the recent runs</li>
+ * </ul>
+ * </p>
+ */
+public interface PollingPolicy {
+
+    /**
+     * Called after every scheduled run, and after a scheduled run that was
+     * skipped because another run of the source was still in progress.
+     *
+     * @param succeeded whether the run completed without an exception
+     * @param report    what this run found, or {@code null} if it was skipped,
+     *                  failed or had nothing to do, e.g. without owned shards
+     * @return the delay before the next run, and why it was chosen
+     */
+    PollingDelay next(boolean succeeded, RunReport report);
+
+    /**
+     * @param millis delay before the next run, in milliseconds
+     * @param reason why it was chosen, e.g. {@code busy} or {@code idle}; used as a metric tag
+     */
+    record PollingDelay(long millis, String reason) {}
+}
@@ -1,61 +1,168 @@
 package com.project.producer.scheduler;
 
-import com.project.producer.service.CustomerProducerService;
-import com.project.producer.service.InventoryProducerService;
+import com.project.producer.connector.SourceConnector;
+import com.project.producer.connector.SourceConnectors;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.service.ProductionEngine;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * ProducerScheduler is responsible for periodically triggering the production
- * of customer and inventory events.
+ * of events for every registered {@link SourceConnector}.
  * <p>
- * The scheduler interval is configurable via application properties:
+ * Each source runs as its own {@link SourceJob} on a dedicated virtual thread
+ * with its own interval, so a slow or retrying CRM never delays inventory
+ * events, and adding sources does not lengthen the cycle of the others. The
+ * intervals are configurable via application properties, keyed by connector name:
  * <pre>{@code
  * producer.scheduler.fixed-delay-ms=60000
+ * producer.scheduler.crm.fixed-delay-ms=30000
+ * producer.scheduler.inventory.fixed-delay-ms=120000
  * }</pre>
- * <p>
- * This allows changing the schedule interval without modifying the code.
+ * The per-source values default to {@code producer.scheduler.fixed-delay-ms}.
+ * With {@code producer.scheduler.mode=adaptive}, or
+ * {@code producer.scheduler.<name>.mode=adaptive} for one source, the delay
+ * starts there and is then chosen by {@link AdaptivePolling} from the changes
+ * and source latency of the recent runs. Scheduling can be switched off with {@code producer.scheduler.enabled=false},
+ * leaving {@link #run()} for manual triggers.
  * </p>
  *
  * <p>
- * This class calls the {@link CustomerProducerService} and
- * {@link InventoryProducerService} to fetch data and publish events
- * to Kafka at fixed intervals.
+ * Every job hands its connector to the shared {@link ProductionEngine},
+ * which fetches the data and publishes the events to Kafka.
  * </p>
  */
 @Component
 @RequiredArgsConstructor
-public class ProducerScheduler {
+@Slf4j
+public class ProducerScheduler implements SmartLifecycle {
+
+    /**
+     * The sources to schedule, one job each.
+     */
+    private final SourceConnectors connectors;
+
+    /**
+     * Engine running the production of every source.
+     */
+    private final ProductionEngine engine;
+
+    /**
+     * Records the duration of every run per source.
+     */
+    private final PipelineMetrics metrics;
 
     /**
-     * Service responsible for producing customer events.
+     * Resolves the per-source {@code producer.scheduler.<name>.*} settings.
      */
-    private final CustomerProducerService customerProducer;
+    private final Environment environment;
 
     /**
-     * Service responsible for producing inventory events.
+     * Whether the per-source loops are started with the application.
      */
-    private final InventoryProducerService inventoryProducer;
+    @Value("${producer.scheduler.enabled:true}")
+    private boolean enabled;
 
     /**
-     * Fixed delay between consecutive runs of the scheduled task, in milliseconds.
-     * Configurable via {@code producer.scheduler.fixed-delay-ms} in properties.
+     * Delay between consecutive runs of a source without its own setting, in milliseconds.
      */
     @Value("${producer.scheduler.fixed-delay-ms}")
-    private long fixedDelay;
+    private long defaultDelay;
+
+    private List<SourceJob> jobs;
+
+    private final List<Thread> loops = new ArrayList<>();
 
     /**
-     * Periodically triggers production of customer and inventory events.
+     * Runs every source once, concurrently, and waits for all of them.
      * <p>
-     * Uses Spring's {@link Scheduled} annotation with {@code fixedDelayString}
-     * to read the interval from configuration properties.
+     * The wall-clock time of the call is that of the slowest source. A source
+     * whose scheduled run is still in progress is skipped.
      * </p>
      */
-    @Scheduled(fixedDelayString = "${producer.scheduler.fixed-delay-ms}")
     public void run() {
-        customerProducer.produce();
-        inventoryProducer.produce();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            jobs().forEach(job -> executor.submit(job::runOnce));
+        }
+    }
+
+    /** @return the jobs, one per source system */
+    public synchronized List<SourceJob> jobs() {
+        if (jobs == null) {
+            jobs = connectors.all().stream().map(this::job).toList();
+        }
+        return jobs;
+    }
+
+    private SourceJob job(SourceConnector<?> connector) {
+        String name = connector.name();
+        long delay = environment.getProperty("producer.scheduler." + name + ".fixed-delay-ms",
+                Long.class, defaultDelay);
+        String mode = setting(name, "mode", String.class, "fixed");
+        if (mode.equals("adaptive") && !environment.getProperty("producer.sync.incremental", Boolean.class, false)) {
+            // Without change detection every record counts as a change, so every run would look busy.
+            throw new IllegalStateException("producer.scheduler mode adaptive for " + name
+                    + " requires producer.sync.incremental=true");
+        }
+        PollingPolicy polling = switch (mode) {
+            case "fixed" -> new FixedPolling(delay);
+            case "adaptive" -> new AdaptivePolling(delay,
+                    new AdaptivePolling.Settings(
+                            setting(name, "adaptive.min-delay-ms", Long.class, 5_000L),
+                            setting(name, "adaptive.max-delay-ms", Long.class, 900_000L),
+                            setting(name, "adaptive.busy-changes", Long.class, 100L),
+                            setting(name, "adaptive.backoff-factor", Double.class, 2.0),
+                            setting(name, "adaptive.latency-target-ms", Long.class, 2_000L)));
+            default -> throw new IllegalArgumentException("Unknown producer.scheduler mode for " + name + ": " + mode);
+        };
+        return new SourceJob(name, () -> engine.produce(connector), polling, metrics);
+    }
+
+    /**
+     * @return {@code producer.scheduler.<name>.<key>}, else {@code producer.scheduler.<key>}, else the default
+     */
+    private <T> T setting(String name, String key, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty("producer.scheduler." + key, type, defaultValue);
+        return environment.getProperty("producer.scheduler." + name + "." + key, type, shared);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || !loops.isEmpty()) {
+            return;
+        }
+        for (SourceJob job : jobs()) {
+            loops.add(Thread.ofVirtual().name("producer-" + job.getName()).start(job::loop));
+        }
+        log.info("Started producer jobs {}", jobs().stream().map(SourceJob::getName).toList());
+    }
+
+    @Override
+    public synchronized void stop() {
+        loops.forEach(Thread::interrupt);
+        for (Thread loop : loops) {
+            try {
+                loop.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        loops.clear();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return !loops.isEmpty();
     }
 }
@@ -0,0 +1,120 @@
+package com.project.producer.scheduler;
+
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.service.RunReport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * SourceJob runs the production of one source system on its own schedule.
+ * <p>
+ * A job never overlaps with itself: if a run is still in progress when
+ * another one is requested (for example a manual trigger during a scheduled
+ * run), the second request is skipped. Between scheduled runs the job waits
+ * for the delay its {@link PollingPolicy} chooses from the report of the run
+ * that just ended, independently of every other source.
+ * </p>
+ */
+@Slf4j
+public class SourceJob {
+
+    private final String name;
+
+    private final Supplier<RunReport> task;
+
+    private final PollingPolicy polling;
+
+    private final PipelineMetrics metrics;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * @param name         name of the source, used for logging and thread names
+     * @param task         the production run, e.g. {@code customerProducer::produce}
+     * @param fixedDelayMs delay between the end of one run and the start of the next
+     * @param metrics      records the duration of every run
+     */
+    public SourceJob(String name, Runnable task, long fixedDelayMs, PipelineMetrics metrics) {
+        this(name, () -> {
+            task.run();
+            return null;
+        }, new FixedPolling(fixedDelayMs), metrics);
+    }
+
+    /**
+     * @param name    name of the source, used for logging and thread names
+     * @param task    the production run, returning what it found or {@code null} if it had nothing to do
+     * @param polling chooses the delay between the end of one run and the start of the next
+     * @param metrics records the duration of every run and the chosen delays
+     */
+    public SourceJob(String name, Supplier<RunReport> task, PollingPolicy polling, PipelineMetrics metrics) {
+        this.name = name;
+        this.task = task;
+        this.polling = polling;
+        this.metrics = metrics;
+    }
+
+    /** @return the name of the source */
+    public String getName() { return name; }
+
+    /** @return {@code true} while a run is in progress */
+    public boolean isRunning() { return running.get(); }
+
+    /**
+     * Executes one run unless a run of this job is already in progress.
+     * Failures are logged so that a scheduled loop keeps going.
+     *
+     * @return {@code true} if the run executed, {@code false} if it was skipped
+     */
+    public boolean runOnce() {
+        return execute() != null;
+    }
+
+    /**
+     * @return how the run ended, or {@code null} if it was skipped
+     */
+    private Outcome execute() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Skipping {} run, previous run still in progress", name);
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            RunReport report = task.get();
+            metrics.recordRun(name, start, true);
+            log.info("{} run finished in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+            return new Outcome(true, report);
+        } catch (RuntimeException e) {
+            metrics.recordRun(name, start, false);
+            log.error("{} run failed after {} ms", name, (System.nanoTime() - start) / 1_000_000, e);
+            return new Outcome(false, null);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Runs the job repeatedly, waiting the delay chosen by its polling policy
+     * after each run, until the calling thread is interrupted.
+     */
+    void loop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Outcome outcome = execute();
+            // A skipped run leaves nothing to learn from, but is no failure either.
+            PollingPolicy.PollingDelay delay = outcome == null
+                    ? polling.next(true, null)
+                    : polling.next(outcome.succeeded(), outcome.report());
+            metrics.recordPollingDelay(name, delay.millis(), delay.reason());
+            log.debug("Next {} run in {} ms ({})", name, delay.millis(), delay.reason());
+            try {
+                Thread.sleep(delay.millis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private record Outcome(boolean succeeded, RunReport report) {}
+}
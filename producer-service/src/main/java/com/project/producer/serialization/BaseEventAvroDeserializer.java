@@ -0,0 +1,115 @@
+package com.project.producer.serialization;
+
+import com.project.producer.model.BaseEvent;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for {@link BaseEvent} records written by
+ * {@link BaseEventAvroSerializer}.
+ * <p>
+ * Records without the binary content type header are treated as JSON and
+ * handed to a {@link JsonDeserializer}, so one consumer can read a topic
+ * while it is being migrated from JSON to the compact format. Binary records
+ * whose schema fingerprint does not match the local schema are rejected.
+ * </p>
+ */
+public class BaseEventAvroDeserializer implements Deserializer<BaseEvent<Object>> {
+
+    private final JsonDeserializer<BaseEvent<Object>> jsonFallback = new JsonDeserializer<>(BaseEvent.class, false);
+
+    public BaseEventAvroDeserializer() {
+        jsonFallback.addTrustedPackages("com.project.producer.model");
+    }
+
+    @Override
+    public BaseEvent<Object> deserialize(String topic, Headers headers, byte[] data) {
+        if (!EventWireFormat.isAvro(headers)) {
+            return jsonFallback.deserialize(topic, headers, data);
+        }
+        Header fingerprint = headers.lastHeader(EventWireFormat.SCHEMA_FINGERPRINT_HEADER);
+        if (fingerprint == null || ByteBuffer.wrap(fingerprint.value()).getLong() != EventWireFormat.SCHEMA_FINGERPRINT) {
+            throw new SerializationException("Unknown event schema fingerprint on topic " + topic);
+        }
+        return deserialize(topic, data);
+    }
+
+    @Override
+    public BaseEvent<Object> deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, null);
+            String eventId = decoder.readString();
+            String eventType = decoder.readString();
+            String sourceSystem = decoder.readString();
+            long micros = decoder.readLong();
+            Object payload = readValue(decoder);
+            Instant timestamp = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    Math.floorMod(micros, 1_000_000L) * 1_000L);
+            return new BaseEvent<>(eventId, eventType, sourceSystem, timestamp, payload);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to deserialize event from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonFallback.close();
+    }
+
+    private Object readValue(BinaryDecoder decoder) throws IOException {
+        switch (decoder.readIndex()) {
+            case EventWireFormat.NULL -> {
+                decoder.readNull();
+                return null;
+            }
+            case EventWireFormat.BOOLEAN -> {
+                return decoder.readBoolean();
+            }
+            case EventWireFormat.LONG -> {
+                return decoder.readLong();
+            }
+            case EventWireFormat.DOUBLE -> {
+                return decoder.readDouble();
+            }
+            case EventWireFormat.STRING -> {
+                return decoder.readString();
+            }
+            case EventWireFormat.ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                for (long n = decoder.readArrayStart(); n != 0; n = decoder.arrayNext()) {
+                    for (long i = 0; i < n; i++) {
+                        list.add(readValue(decoder));
+                    }
+                }
+                return list;
+            }
+            case EventWireFormat.MAP -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (long n = decoder.readMapStart(); n != 0; n = decoder.mapNext()) {
+                    for (long i = 0; i < n; i++) {
+                        String key = decoder.readString();
+                        map.put(key, readValue(decoder));
+                    }
+                }
+                return map;
+            }
+            default -> throw new IOException("Invalid value branch");
+        }
+    }
+}
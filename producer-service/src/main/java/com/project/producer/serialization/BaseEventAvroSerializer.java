@@ -0,0 +1,137 @@
+package com.project.producer.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.model.BaseEvent;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka serializer writing a {@link BaseEvent} in the compact Avro binary
+ * encoding of {@code avro/base-event.avsc}.
+ * <p>
+ * Envelope fields are written positionally, so names like {@code eventId}
+ * or {@code sourceSystem} are never repeated on the wire, and the timestamp
+ * is a variable-length long of epoch microseconds instead of ISO text.
+ * Values are streamed straight to the {@link BinaryEncoder} without building
+ * intermediate Avro records.
+ * </p>
+ *
+ * <p>
+ * The content type and schema fingerprint headers described in
+ * {@link EventWireFormat} are added to every record.
+ * </p>
+ */
+public class BaseEventAvroSerializer implements Serializer<Object> {
+
+    private static final byte[] CONTENT_TYPE = EventWireFormat.AVRO_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] FINGERPRINT = EventWireFormat.fingerprintBytes();
+
+    /**
+     * Used only to flatten payloads that are neither maps nor scalars.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (headers != null && data != null) {
+            headers.remove(EventWireFormat.CONTENT_TYPE_HEADER);
+            headers.add(EventWireFormat.CONTENT_TYPE_HEADER, CONTENT_TYPE);
+            headers.add(EventWireFormat.SCHEMA_FINGERPRINT_HEADER, FINGERPRINT);
+        }
+        return serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (!(data instanceof BaseEvent<?> event)) {
+            throw new SerializationException("Cannot serialize " + data.getClass().getName()
+                    + " as a BaseEvent for topic " + topic);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            encoder.writeString(event.getEventId());
+            encoder.writeString(event.getEventType());
+            encoder.writeString(event.getSourceSystem());
+            encoder.writeLong(toMicros(event.getTimestamp()));
+            writeValue(encoder, event.getPayload());
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize event for topic " + topic, e);
+        }
+    }
+
+    private void writeValue(BinaryEncoder encoder, Object value) throws IOException {
+        if (value == null) {
+            encoder.writeIndex(EventWireFormat.NULL);
+            encoder.writeNull();
+        } else if (value instanceof Boolean b) {
+            encoder.writeIndex(EventWireFormat.BOOLEAN);
+            encoder.writeBoolean(b);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            encoder.writeIndex(EventWireFormat.LONG);
+            encoder.writeLong(((Number) value).longValue());
+        } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+            // Arbitrary precision numbers keep their exact text form.
+            encoder.writeIndex(EventWireFormat.STRING);
+            encoder.writeString(value.toString());
+        } else if (value instanceof Number n) {
+            encoder.writeIndex(EventWireFormat.DOUBLE);
+            encoder.writeDouble(n.doubleValue());
+        } else if (value instanceof CharSequence s) {
+            encoder.writeIndex(EventWireFormat.STRING);
+            encoder.writeString(s.toString());
+        } else if (value instanceof Collection<?> collection) {
+            encoder.writeIndex(EventWireFormat.ARRAY);
+            encoder.writeArrayStart();
+            encoder.setItemCount(collection.size());
+            for (Object element : collection) {
+                encoder.startItem();
+                writeValue(encoder, element);
+            }
+            encoder.writeArrayEnd();
+        } else if (value instanceof Map<?, ?> map) {
+            encoder.writeIndex(EventWireFormat.MAP);
+            encoder.writeMapStart();
+            encoder.setItemCount(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                encoder.startItem();
+                encoder.writeString(String.valueOf(entry.getKey()));
+                writeValue(encoder, entry.getValue());
+            }
+            encoder.writeMapEnd();
+        } else {
+            Object converted = objectMapper.convertValue(value, Object.class);
+            if (converted == null || converted.getClass() == value.getClass()) {
+                encoder.writeIndex(EventWireFormat.STRING);
+                encoder.writeString(value.toString());
+            } else {
+                writeValue(encoder, converted);
+            }
+        }
+    }
+
+    private static long toMicros(Instant timestamp) {
+        return TimeUnit.SECONDS.toMicros(timestamp.getEpochSecond())
+                + TimeUnit.NANOSECONDS.toMicros(timestamp.getNano());
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.producer.serialization;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants describing how a {@code BaseEvent} is laid out on the wire.
+ * <p>
+ * Records written in the compact binary format carry two headers:
+ * {@value #CONTENT_TYPE_HEADER} set to {@value #AVRO_CONTENT_TYPE}, and
+ * {@value #SCHEMA_FINGERPRINT_HEADER} holding the 64-bit Avro parsing
+ * fingerprint of {@code avro/base-event.avsc}. A reader can therefore
+ * check the schema without a registry service. JSON records carry
+ * {@value #CONTENT_TYPE_HEADER} set to {@value #JSON_CONTENT_TYPE}; records
+ * without the header were written before it was added and are JSON too, so
+ * topics can be migrated one at a time.
+ * </p>
+ */
+public final class EventWireFormat {
+
+    /**
+     * Header naming the encoding of the record value.
+     */
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+
+    /**
+     * Header holding the 8-byte big-endian schema fingerprint.
+     */
+    public static final String SCHEMA_FINGERPRINT_HEADER = "schema-fingerprint";
+
+    public static final String AVRO_CONTENT_TYPE = "application/vnd.producer.event+avro";
+
+    public static final String JSON_CONTENT_TYPE = "application/json";
+
+    /**
+     * The envelope schema, loaded from {@code avro/base-event.avsc}.
+     */
+    public static final Schema SCHEMA = loadSchema();
+
+    /**
+     * Parsing fingerprint of {@link #SCHEMA}.
+     */
+    public static final long SCHEMA_FINGERPRINT = SchemaNormalization.parsingFingerprint64(SCHEMA);
+
+    /** Union branch indexes of the {@code Value} record, in schema order. */
+    static final int NULL = 0;
+    static final int BOOLEAN = 1;
+    static final int LONG = 2;
+    static final int DOUBLE = 3;
+    static final int STRING = 4;
+    static final int ARRAY = 5;
+    static final int MAP = 6;
+
+    private EventWireFormat() {
+    }
+
+    /**
+     * @param headers record headers
+     * @return {@code true} if the headers mark the value as compact binary
+     */
+    public static boolean isAvro(Headers headers) {
+        Header contentType = headers == null ? null : headers.lastHeader(CONTENT_TYPE_HEADER);
+        return contentType != null
+                && AVRO_CONTENT_TYPE.equals(new String(contentType.value(), StandardCharsets.UTF_8));
+    }
+
+    static byte[] fingerprintBytes() {
+        return ByteBuffer.allocate(Long.BYTES).putLong(SCHEMA_FINGERPRINT).array();
+    }
+
+    private static Schema loadSchema() {
+        try (InputStream in = EventWireFormat.class.getResourceAsStream("/avro/base-event.avsc")) {
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load avro/base-event.avsc", e);
+        }
+    }
+}
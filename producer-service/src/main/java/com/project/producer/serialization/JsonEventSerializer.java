@@ -0,0 +1,50 @@
+package com.project.producer.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Kafka serializer writing values as JSON, marked with the
+ * {@value EventWireFormat#CONTENT_TYPE_HEADER} header set to
+ * {@value EventWireFormat#JSON_CONTENT_TYPE}.
+ * <p>
+ * With the header on every record, consumers of a topic that is being
+ * migrated to Avro can pick the decoder per record instead of guessing from
+ * the bytes. Tombstones carry no header, like those of
+ * {@link BaseEventAvroSerializer}.
+ * </p>
+ */
+public class JsonEventSerializer implements Serializer<Object> {
+
+    private static final byte[] CONTENT_TYPE = EventWireFormat.JSON_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private final JsonSerializer<Object> delegate = new JsonSerializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (headers != null && data != null) {
+            headers.remove(EventWireFormat.CONTENT_TYPE_HEADER);
+            headers.add(EventWireFormat.CONTENT_TYPE_HEADER, CONTENT_TYPE);
+        }
+        return delegate.serialize(topic, headers, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return delegate.serialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
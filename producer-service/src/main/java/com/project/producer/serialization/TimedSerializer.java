@@ -0,0 +1,49 @@
+package com.project.producer.serialization;
+
+import com.project.producer.metrics.PipelineMetrics;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Serializer decorator recording serialization time and output size per
+ * topic in {@link PipelineMetrics}.
+ */
+public class TimedSerializer implements Serializer<Object> {
+
+    private final Serializer<Object> delegate;
+
+    private final PipelineMetrics metrics;
+
+    public TimedSerializer(Serializer<Object> delegate, PipelineMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, data);
+        metrics.recordSerialize(topic, start, bytes == null ? 0 : bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, headers, data);
+        metrics.recordSerialize(topic, start, bytes == null ? 0 : bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
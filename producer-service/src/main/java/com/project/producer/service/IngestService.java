@@ -0,0 +1,176 @@
+package com.project.producer.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.connector.SourceConnector;
+import com.project.producer.connector.SourceConnectors;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.model.BaseEvent;
+import com.project.producer.model.EventIdGenerator;
+import com.project.producer.model.SourceRecord;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisher.PublishSummary;
+import com.project.producer.publisher.RecordKeyStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IngestService publishes records pushed by a source system, for example
+ * from a CRM or Inventory webhook, without waiting for the next scheduled poll.
+ * Every registered {@link SourceConnector} can push; its topic, record type
+ * and event naming are taken from the connector.
+ * <p>
+ * The request body is read one record at a time, from newline-delimited JSON
+ * or a JSON array, and every record is sent as soon as it is parsed through
+ * one {@link PublishBatch}. While the batch's in-flight limit is reached, the
+ * body is not read any further, so a saturated Kafka slows the sender down
+ * rather than buffering the upload in memory.
+ * </p>
+ *
+ * <p>
+ * A request is refused up front when {@code producer.ingest.max-concurrent-requests}
+ * requests are already running, or when more than
+ * {@code producer.ingest.max-in-flight} sends of the whole producer await an
+ * acknowledgement; the controller answers those with {@code 429 Too Many Requests}.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * Optional<IngestService.IngestSummary> summary = ingestService.ingest("crm", "update", body);
+ * }</pre>
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IngestService {
+
+    /**
+     * Topic and event naming of every source that may push records.
+     */
+    private final SourceConnectors connectors;
+
+    private final KafkaEventPublisher publisher;
+
+    private final EventIdGenerator idGenerator;
+
+    private final RecordKeyStrategy recordKeys;
+
+    private final PipelineMetrics metrics;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Maximum number of ingest requests processed at the same time.
+     * Configurable via {@code producer.ingest.max-concurrent-requests} in application properties.
+     */
+    @Value("${producer.ingest.max-concurrent-requests:8}")
+    private int maxConcurrentRequests;
+
+    /**
+     * Number of unacknowledged sends across the producer above which new
+     * ingest requests are refused.
+     * Configurable via {@code producer.ingest.max-in-flight} in application properties.
+     */
+    @Value("${producer.ingest.max-in-flight:50000}")
+    private int maxInFlight;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * @param source a source name from the request path
+     * @return whether records of that source can be ingested
+     */
+    public boolean supports(String source) {
+        return connectors.find(source).isPresent();
+    }
+
+    /**
+     * Publishes every record of {@code body} as a {@code <ENTITY>_<TYPE>} event,
+     * for example {@code CUSTOMER_UPDATE}. Records of type {@code delete} are
+     * published according to the topic's delete mode.
+     *
+     * @param source the name of the pushing source connector, e.g. {@code crm}
+     * @param type   {@code create}, {@code update} or {@code delete}
+     * @param body   the request body
+     * @return the outcome, or empty if the request was refused because the producer is saturated
+     * @throws RuntimeException if a record could not be published; malformed input is reported
+     *                          in the summary instead
+     */
+    public Optional<IngestSummary> ingest(String source, String type, InputStream body) {
+        SourceConnector<?> target = connectors.find(source)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown ingest source: " + source));
+        String eventType = target.eventPrefix() + "_" + type.toUpperCase(Locale.ROOT);
+        boolean delete = "delete".equalsIgnoreCase(type);
+
+        if (running.incrementAndGet() > maxConcurrentRequests || metrics.inFlight() > maxInFlight) {
+            running.decrementAndGet();
+            metrics.recordIngestRejected(source);
+            return Optional.empty();
+        }
+        try {
+            long received = 0;
+            String error = null;
+            PublishBatch batch = publisher.openBatch(target.topic());
+            try (MappingIterator<SourceRecord> records =
+                         objectMapper.readerFor(target.recordType()).readValues(body)) {
+                while (records.hasNextValue()) {
+                    SourceRecord record = records.nextValue();
+                    long start = System.nanoTime();
+                    BaseEvent<SourceRecord> event = new BaseEvent<>(idGenerator, eventType, target.sourceSystem(), record);
+                    metrics.recordBuild(source, start);
+                    if (delete) {
+                        batch.delete(recordKeys.key(event), event);
+                    } else {
+                        batch.send(recordKeys.key(event), event);
+                    }
+                    received++;
+                }
+            } catch (IOException e) {
+                // Records read before the error are still published; the summary reports where it stopped.
+                error = e.getMessage();
+                log.warn("Ingest from {} stopped after {} records: {}", source, received, error);
+            } catch (RuntimeException e) {
+                // Publishing failed, which is not the sender's fault; settle what was sent and fail the request.
+                batch.abort().join();
+                log.error("Ingest from {} failed to publish after {} records", source, received, e);
+                throw e;
+            }
+            PublishSummary summary = batch.complete().join();
+            metrics.recordIngest(source, received);
+            log.info("Ingest from {} published sent={} failed={} spooled={} in {} ms",
+                    source, summary.sent(), summary.failed(), summary.spooled(), summary.durationMs());
+            return Optional.of(new IngestSummary(source, target.topic(), received,
+                    summary.sent() + summary.spooled(), summary.spooled(), summary.failed(),
+                    summary.durationMs(), error));
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    /**
+     * Outcome of one ingest request.
+     *
+     * @param source     the pushing source system
+     * @param topic      the topic the records were published to
+     * @param received   records read from the body
+     * @param accepted   records acknowledged by Kafka or stored in the spool
+     * @param spooled    accepted records waiting in the spool for replay
+     * @param failed     records that could not be published
+     * @param durationMs time from the first send until the last acknowledgement
+     * @param error      why reading the body stopped early, or {@code null}
+     */
+    public record IngestSummary(String source, String topic, long received, long accepted, long spooled,
+                                long failed, long durationMs, String error) {
+    }
+}
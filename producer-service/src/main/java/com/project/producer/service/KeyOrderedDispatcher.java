@@ -0,0 +1,149 @@
+package com.project.producer.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * KeyOrderedDispatcher spreads record processing over a fixed number of
+ * lanes, each drained by its own virtual thread.
+ * <p>
+ * Tasks are assigned to a lane by the hash of their key, so tasks for the same
+ * entity always run in submission order while different entities are
+ * processed in parallel. Each lane has a bounded queue: when a lane is full,
+ * {@link #submit(Object, Runnable)} blocks, which pushes back on the reader
+ * feeding the dispatcher.
+ * </p>
+ *
+ * <p>
+ * The first task failure is remembered; later submissions fail fast and
+ * {@link #close()} rethrows it after every lane has drained.
+ * {@link #submit(Object, Runnable)} may be called from several threads, for
+ * example by a page sink fed from hedged requests.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (KeyOrderedDispatcher lanes = new KeyOrderedDispatcher("crm", 4, 1024)) {
+ *     customers.forEach(c -> lanes.submit(c.getId(), () -> publish(c)));
+ * }
+ * }</pre>
+ * </p>
+ */
+public final class KeyOrderedDispatcher implements AutoCloseable {
+
+    private static final Runnable STOP = () -> { };
+
+    private final List<BlockingQueue<Runnable>> lanes = new ArrayList<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Whether the failure has already been thrown to a submitting thread.
+     */
+    private final AtomicBoolean failureReported = new AtomicBoolean();
+
+    private final AtomicLong nextUnkeyed = new AtomicLong();
+
+    /**
+     * Starts the lanes.
+     *
+     * @param name          prefix of the worker thread names
+     * @param parallelism   number of lanes, at least one
+     * @param queueCapacity number of queued tasks per lane before submitters block
+     */
+    public KeyOrderedDispatcher(String name, int parallelism, int queueCapacity) {
+        Thread.Builder builder = Thread.ofVirtual().name(name + "-lane-", 0);
+        for (int i = 0; i < Math.max(1, parallelism); i++) {
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+            lanes.add(queue);
+            workers.add(builder.start(() -> drain(queue)));
+        }
+    }
+
+    /**
+     * Queues a task on the lane owning {@code key}. Tasks without a key are
+     * spread round-robin.
+     *
+     * @param key  the ordering key, usually the entity id
+     * @param task the work to run
+     */
+    public void submit(Object key, Runnable task) {
+        rethrowIfFailed();
+        int lane = key == null
+                ? Math.floorMod(nextUnkeyed.getAndIncrement(), lanes.size())
+                : Math.floorMod(key.hashCode(), lanes.size());
+        put(lanes.get(lane), task);
+    }
+
+    /**
+     * Waits for every queued task to finish and rethrows the first failure,
+     * unless it was already thrown from {@link #submit(Object, Runnable)}.
+     */
+    @Override
+    public void close() {
+        for (BlockingQueue<Runnable> lane : lanes) {
+            put(lane, STOP);
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for record processing", e);
+            }
+        }
+        rethrowIfFailed();
+    }
+
+    private void drain(BlockingQueue<Runnable> queue) {
+        while (true) {
+            Runnable task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == STOP) {
+                return;
+            }
+            if (failure.get() == null) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }
+        }
+    }
+
+    private void put(BlockingQueue<Runnable> lane, Runnable task) {
+        try {
+            lane.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing record processing", e);
+        }
+    }
+
+    private void rethrowIfFailed() {
+        Throwable t = failure.get();
+        if (t == null || !failureReported.compareAndSet(false, true)) {
+            return;
+        }
+        if (t instanceof RuntimeException e) {
+            throw e;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+        throw new IllegalStateException(t);
+    }
+}
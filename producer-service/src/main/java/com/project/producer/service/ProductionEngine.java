@@ -0,0 +1,416 @@
+package com.project.producer.service;
+
+import com.project.producer.connector.SourceConnector;
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.coordination.ShardLeases;
+import com.project.producer.http.PageSink;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.model.BaseEvent;
+import com.project.producer.model.EventIdGenerator;
+import com.project.producer.model.SourceRecord;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisher.PublishSummary;
+import com.project.producer.publisher.RecordKeyStrategy;
+import com.project.producer.sync.ChangeDetector;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.RunCheckpointStore;
+import com.project.producer.sync.RunProgress;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceCursorStore;
+import com.project.producer.sync.SourceFetch;
+import com.project.producer.sync.SyncStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * ProductionEngine fetches the records of a {@link SourceConnector} and
+ * publishes them to Kafka.
+ * <p>
+ * One engine serves every registered connector: the HTTP client pool, the
+ * {@link KafkaEventPublisher}, the metrics and the cursor store are shared,
+ * while change detection state and run statistics are kept per connector.
+ * Runs of different connectors may execute concurrently; runs of the same
+ * connector are serialized by its {@code SourceJob}.
+ * </p>
+ *
+ * <p>
+ * With several producer instances ({@code producer.cluster.mode}), every
+ * instance publishes only the records whose entity id hashes into a shard it
+ * holds a lease on, so adding instances splits the publishing work instead of
+ * duplicating it. The owned shards are passed to the connector, so a source
+ * that filters by shard ({@code <source>.shard-param}) only sends each
+ * instance its share; from any other source every instance still downloads
+ * the whole collection and drops the records of other shards.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * @RestController
+ * public class CustomerController {
+ *     private final ProductionEngine engine;
+ *     private final CrmConnector crm;
+ *
+ *     @PostMapping("/produce/customers")
+ *     public ResponseEntity<String> produce() {
+ *         engine.produce(crm);
+ *         return ResponseEntity.ok("Customer events published");
+ *     }
+ * }
+ * }</pre>
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductionEngine {
+
+    /**
+     * Number of records queued per processing lane before the reader blocks.
+     */
+    private static final int LANE_CAPACITY = 1024;
+
+    /**
+     * Kafka publisher used to send the events of every connector.
+     */
+    private final KafkaEventPublisher publisher;
+
+    /**
+     * Strategy assigning the ID of every published event.
+     */
+    private final EventIdGenerator idGenerator;
+
+    /**
+     * Derives the record key, by default the entity id so that all events
+     * of one entity stay ordered on one partition.
+     */
+    private final RecordKeyStrategy recordKeys;
+
+    /**
+     * Records fetch and event build timings.
+     */
+    private final PipelineMetrics metrics;
+
+    /**
+     * Persists the conditional-request validators and delta watermark of
+     * every source between runs and restarts.
+     */
+    private final SourceCursorStore cursors;
+
+    /**
+     * The shards of the key space this instance publishes.
+     */
+    private final ShardLeases shardLeases;
+
+    /**
+     * Persists how far an unfinished run got, so that a restarted run resumes there.
+     */
+    private final RunCheckpointStore checkpoints;
+
+    /**
+     * Fingerprints of the records published in the last completed run of
+     * each connector, used by the incremental mode to skip unchanged records.
+     */
+    private final Map<String, ChangeDetector> changeDetectors = new ConcurrentHashMap<>();
+
+    /**
+     * Counters of the last incremental run of each connector.
+     */
+    private final Map<String, SyncStats> lastRunStats = new ConcurrentHashMap<>();
+
+    /**
+     * Shards owned during the last run of each connector.
+     */
+    private final Map<String, ShardAssignment> lastAssignments = new ConcurrentHashMap<>();
+
+    /**
+     * When enabled, only new or changed records are published, plus a
+     * {@code <ENTITY>_DELETE} event for every id that disappeared.
+     * Configurable via {@code producer.sync.incremental} in application properties.
+     */
+    @Value("${producer.sync.incremental:false}")
+    private boolean incremental;
+
+    /**
+     * Producer profile used for full reloads, which favours large compressed
+     * batches; incremental runs use the profile configured for the topic.
+     * Configurable via {@code producer.kafka.full-run-profile} in application properties.
+     */
+    @Value("${producer.kafka.full-run-profile:bulk-backfill}")
+    private String fullRunProfile;
+
+    /**
+     * Number of lanes building and sending events in parallel per run.
+     * Records of the same entity always share a lane, so their order is preserved.
+     * Configurable via {@code producer.processing.parallelism} in application properties.
+     */
+    @Value("${producer.processing.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * When enabled, runs are checkpointed at the first page that is not fully
+     * acknowledged, and a run that did not complete is resumed from there.
+     * Configurable via {@code producer.sync.checkpoints} in application properties.
+     */
+    @Value("${producer.sync.checkpoints:true}")
+    private boolean checkpointing;
+
+    /**
+     * Minimum time between two checkpoints of a running run.
+     * Configurable via {@code producer.sync.checkpoint-interval} in application properties.
+     */
+    @Value("${producer.sync.checkpoint-interval:PT30S}")
+    private Duration checkpointInterval;
+
+    /**
+     * Streams the changed records of {@code connector} and publishes each one
+     * as a {@link BaseEvent} to the connector's topic.
+     * <p>
+     * Records are published as soon as they are read from the source
+     * response, so the full collection is never held in memory. Each event
+     * contains an event ID from the configured {@link EventIdGenerator},
+     * source system metadata, and the typed record as payload.
+     * </p>
+     *
+     * <p>
+     * All events of a run are sent through one {@link PublishBatch}, which
+     * caps the number of in-flight sends. Full reloads use the bulk producer
+     * profile, while incremental runs keep the low-latency topic profile.
+     * Records are classified, built and sent on parallel lanes keyed by
+     * entity id. The method returns once every event has been acknowledged
+     * or has failed, and logs the batch summary.
+     * </p>
+     *
+     * <p>
+     * In incremental mode ({@code producer.sync.incremental=true}) each record
+     * is compared against the content fingerprint from the previous run. Only
+     * {@code <ENTITY>_CREATE} and {@code <ENTITY>_UPDATE} events are emitted for
+     * new or changed records, followed by {@code <ENTITY>_DELETE} events for ids
+     * that are no longer returned by the source; depending on
+     * {@code producer.kafka.delete-modes} these are tombstones instead, or
+     * both. The fingerprints only become the new baseline when every event of
+     * the run was acknowledged, and are stored with the cursor, so a restarted
+     * instance continues from them; without a stored baseline the run reads
+     * the whole collection unconditionally.
+     * </p>
+     *
+     * <p>
+     * The fetch is conditional on the {@link SourceCursor} of the last
+     * successful run: if the source answers {@code 304 Not Modified}, the run
+     * ends without publishing anything. A delta fetch publishes only the
+     * returned records and does not look for deletions. The new cursor is
+     * stored once every event of the run was acknowledged or spooled.
+     * </p>
+     *
+     * <p>
+     * With {@code producer.kafka.transactions.mode} set, the events of the run
+     * are committed in Kafka transactions, and a run that fails while reading
+     * or building aborts its open transaction.
+     * </p>
+     *
+     * <p>
+     * Only records of the shards this instance owns at the start of the run
+     * are requested from the source, where it supports that, and published;
+     * a run is skipped while it owns none. The leases are checked again before
+     * every record is published, so a shard handed over during the run stops
+     * being published as soon as this instance lost it; such a run publishes
+     * no deletions, keeps its cursor and counts as partial. When the owned
+     * shards changed since the previous run, the fingerprints are dropped and
+     * the cursor of the new share is used, so newly acquired shards are read
+     * in full and shards handed over are not reported as deleted.
+     * </p>
+     *
+     * <p>
+     * With {@code producer.sync.checkpoints} enabled, the run is checkpointed
+     * every {@code producer.sync.checkpoint-interval} at the first source page
+     * whose records are not all acknowledged or spooled, and once more when it
+     * ends with failures. The next run resumes at that page with the cursor of
+     * the interrupted run, as a partial run that does not look for deletions;
+     * the checkpoint is removed once a run completes without failures.
+     * </p>
+     *
+     * @param connector the source to run
+     * @param <R>       the record type of the source
+     * @return what this run found, or {@code null} if it was skipped because
+     * this instance owns no shards
+     */
+    public <R extends SourceRecord> RunReport produce(SourceConnector<R> connector) {
+        String source = connector.name();
+        ShardAssignment shards = shardLeases.current();
+        if (shards.isEmpty()) {
+            log.info("{} run skipped, this instance owns no shards", source);
+            return null;
+        }
+        ShardAssignment previous = lastAssignments.put(source, shards);
+        if (previous != null && !previous.equals(shards)) {
+            log.info("{} shards moved from {} to {}, starting from a full read",
+                    source, previous.label(), shards.label());
+            changeDetectors.remove(source);
+        }
+        String cursorName = shards.isAll() ? source : source + "." + shards.label();
+        ChangeDetector changeDetector = changeDetectors.computeIfAbsent(source, name -> incremental
+                ? cursors.loadBaseline(cursorName).map(ChangeDetector::new).orElseGet(ChangeDetector::new)
+                : new ChangeDetector());
+        ChangeDetector.Run run = incremental ? changeDetector.begin() : null;
+        boolean fullRun = run == null || changeDetector.size() == 0;
+        PublishBatch batch = fullRun
+                ? publisher.openBatch(connector.topic(), fullRunProfile)
+                : publisher.openBatch(connector.topic());
+        // A cursor read against fingerprints that are gone would hide deletions; read in full instead.
+        SourceCursor cursor = run == null || changeDetector.hasBaseline()
+                ? cursors.load(cursorName)
+                : SourceCursor.EMPTY;
+        RunCheckpoint resume = checkpointing ? checkpoints.load(cursorName).orElse(null) : null;
+        if (resume != null) {
+            log.info("{} resuming an interrupted run at {} ({} records acknowledged)",
+                    source, resume.resumeUri(), resume.acknowledged());
+        }
+        RunProgress progress = new RunProgress(resume, checkpointing ? checkpointInterval : Duration.ZERO);
+        AtomicBoolean revoked = new AtomicBoolean();
+        PublishSummary summary;
+        SourceFetch fetch;
+        try {
+            try (KeyOrderedDispatcher lanes = new KeyOrderedDispatcher(source, parallelism, LANE_CAPACITY)) {
+                PageSink<R> sink = new PageSink<>() {
+                    @Override
+                    public void accept(R record, long page) {
+                        long read = System.nanoTime();
+                        RunProgress.Page progressPage = progress.page(page);
+                        String id = connector.entityId(record);
+                        if (!shards.owns(id) || !stillOwned(id)) {
+                            progressPage.acknowledge();
+                            return;
+                        }
+                        lanes.submit(id, () -> {
+                            if (!stillOwned(id)) {
+                                progressPage.acknowledge();
+                                return;
+                            }
+                            ChangeDetector.Change change = run == null
+                                    ? ChangeDetector.Change.UPDATE
+                                    : run.classify(id, record);
+                            if (change != ChangeDetector.Change.UNCHANGED) {
+                                publish(batch, connector, connector.eventPrefix() + "_" + change.name(), record,
+                                        read, progressPage::acknowledge);
+                            } else {
+                                progressPage.acknowledge();
+                            }
+                        });
+                    }
+
+                    /**
+                     * Leases may move while the run is reading; a shard this
+                     * instance lost must not be published by it any more.
+                     */
+                    private boolean stillOwned(String id) {
+                        if (shardLeases.current().owns(id)) {
+                            return true;
+                        }
+                        if (revoked.compareAndSet(false, true)) {
+                            log.info("{} lost shards during the run, no longer publishing them", source);
+                        }
+                        return false;
+                    }
+
+                    @Override
+                    public void pageStarted(long page, URI uri) {
+                        progress.pageStarted(page, uri);
+                    }
+
+                    @Override
+                    public void pageRead(long page, long records) {
+                        progress.pageRead(page, records);
+                        if (checkpointing) {
+                            progress.checkpointIfDue()
+                                    .ifPresent(checkpoint -> checkpoints.save(cursorName, checkpoint));
+                        }
+                    }
+
+                    @Override
+                    public void started(SourceCursor next) {
+                        progress.started(next);
+                    }
+                };
+                fetch = metrics.timeFetch(source, () -> connector.streamChanges(cursor, resume, shards, sink),
+                        SourceFetch::count);
+            }
+            // Ids of lost shards were not classified, so they would look deleted.
+            if (run != null && !fetch.notModified() && !fetch.delta() && !revoked.get()) {
+                run.deletedIds().forEach(id -> {
+                    BaseEvent<R> event = build(connector, connector.eventPrefix() + "_DELETE", connector.deleted(id));
+                    batch.delete(recordKeys.key(event), event);
+                });
+            }
+        } catch (RuntimeException e) {
+            // In a transactional mode nothing of the failed run becomes visible.
+            batch.abort();
+            throw e;
+        } finally {
+            summary = batch.complete().join();
+            log.info("{} run published sent={} failed={} spooled={} in {} ms offsets={}", source,
+                    summary.sent(), summary.failed(), summary.spooled(), summary.durationMs(), summary.offsets());
+            if (checkpointing) {
+                // Every send has settled, so this is as far as the run got.
+                progress.checkpoint().ifPresent(checkpoint -> checkpoints.save(cursorName, checkpoint));
+            }
+        }
+
+        long changes = run != null ? run.changes() : summary.sent() + summary.failed() + summary.spooled();
+        RunReport report = new RunReport(fetch.count(), changes, fetch.notModified(), progress.averagePageLatency());
+        if (fetch.notModified()) {
+            log.info("{} unchanged since the last run, nothing to publish", source);
+            return report;
+        }
+        if (summary.hasFailures()) {
+            if (run != null) {
+                // Keep the old baseline so the failed changes are emitted again next run.
+                log.warn("{} sync had {} failed sends, keeping previous fingerprints", source, summary.failed());
+            }
+            return report;
+        }
+        if (run != null) {
+            SyncStats stats = fetch.delta() || revoked.get() ? run.completePartial() : run.complete();
+            lastRunStats.put(source, stats);
+            log.info("{} sync emitted={} (created={}, updated={}, deleted={}) skipped={}", source,
+                    stats.emitted(), stats.created(), stats.updated(), stats.deleted(), stats.skipped());
+        }
+        if (!revoked.get()) {
+            // The cursor and the fingerprints it was read against are only stored together.
+            cursors.save(cursorName, fetch.cursor(), run == null ? null : changeDetector.baseline());
+        }
+        if (checkpointing) {
+            checkpoints.clear(cursorName);
+        }
+        return report;
+    }
+
+    /**
+     * @param source a connector name, e.g. {@code crm}
+     * @return counters of its last incremental run, or {@code null} if none has completed
+     */
+    public SyncStats getLastRunStats(String source) { return lastRunStats.get(source); }
+
+    private <R extends SourceRecord> void publish(PublishBatch batch, SourceConnector<R> connector,
+                                                  String eventType, R record, long readNanos,
+                                                  Runnable onAcknowledged) {
+        BaseEvent<R> event = build(connector, eventType, record);
+        batch.send(recordKeys.key(event), event, readNanos, onAcknowledged);
+    }
+
+    private <R extends SourceRecord> BaseEvent<R> build(SourceConnector<R> connector, String eventType, R record) {
+        long start = System.nanoTime();
+        BaseEvent<R> event = new BaseEvent<>(idGenerator, eventType, connector.sourceSystem(), record);
+        metrics.recordBuild(connector.name(), start);
+        return event;
+    }
+}
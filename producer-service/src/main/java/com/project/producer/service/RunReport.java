@@ -0,0 +1,18 @@
+package com.project.producer.service;
+
+import java.time.Duration;
+
+/**
+ * What one produce run of a source found, used to decide when to poll the
+ * source again.
+ *
+ * @param read        records read from the source
+ * @param changes     entities the change detection found created, updated or
+ *                    deleted; in the full mode, which has no change detection,
+ *                    every event the run published counts
+ * @param notModified whether the source answered {@code 304 Not Modified}
+ * @param pageLatency average time to request and read one source page, or
+ *                    {@link Duration#ZERO} if no page was read
+ */
+public record RunReport(long read, long changes, boolean notModified, Duration pageLatency) {
+}
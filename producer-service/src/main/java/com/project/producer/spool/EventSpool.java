@@ -0,0 +1,426 @@
+package com.project.producer.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.config.ProducerProfiles;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.model.BaseEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * EventSpool is a durable local outbox for records Kafka cannot take right now.
+ * <p>
+ * Records whose send fails with a retriable error (for example a delivery
+ * timeout while the broker is down), or that would exceed the in-flight
+ * budget of a batch, are appended to memory-mapped {@link SpoolSegment} files
+ * instead of being dropped or blocking the fetch side. A replay thread sends
+ * them in append order once the broker accepts records again, acknowledges
+ * them in the segment header and deletes each segment once it is drained.
+ * </p>
+ *
+ * <p>
+ * While the spool holds records, new sends are appended behind them rather
+ * than sent directly, so an entity's newer events never overtake its spooled
+ * older ones. Replay is at-least-once: after a crash, or when a replay batch
+ * partly fails, records since the last acknowledged position are sent again,
+ * and consumers deduplicate by event ID.
+ * </p>
+ *
+ * <p>
+ * Configurable via application properties:
+ * <pre>{@code
+ * producer:
+ *   spool:
+ *     enabled: true
+ *     dir: /var/lib/producer/spool
+ *     segment-bytes: 67108864
+ *     max-block-ms: 1000
+ *     replay-batch: 500
+ *     replay-interval-ms: 1000
+ * }</pre>
+ * Exposed meters: {@code producer.spool.depth} (records waiting),
+ * {@code producer.spool.bytes}, {@code producer.spool.segments},
+ * {@code producer.spool.appended} and {@code producer.spool.replayed}.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventSpool implements SmartLifecycle {
+
+    private static final byte EVENT = 1;
+
+    private static final byte JSON = 2;
+
+    private static final byte TOMBSTONE = 3;
+
+    private final ProducerProfiles producerProfiles;
+
+    private final ObjectMapper objectMapper;
+
+    private final PipelineMetrics metrics;
+
+    @Value("${producer.spool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${producer.spool.dir:spool}")
+    private String dir;
+
+    @Value("${producer.spool.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    /**
+     * How long a batch waits for an in-flight permit before spooling the record instead.
+     */
+    @Value("${producer.spool.max-block-ms:1000}")
+    private long maxBlockMs;
+
+    @Value("${producer.spool.replay-batch:500}")
+    private int replayBatch;
+
+    @Value("${producer.spool.replay-interval-ms:1000}")
+    private long replayIntervalMs;
+
+    /**
+     * Appends and direct sends take the read lock; the replay thread takes
+     * the write lock to switch back to direct sends once the spool is empty.
+     */
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final ConcurrentLinkedDeque<SpoolSegment> segments = new ConcurrentLinkedDeque<>();
+
+    private final AtomicLong pendingRecords = new AtomicLong();
+
+    private volatile boolean active;
+
+    private long nextSequence;
+
+    private Counter appended;
+
+    private Counter replayed;
+
+    private Thread replayer;
+
+    /**
+     * @return a spool that never stores anything, for tests and benchmarks
+     */
+    public static EventSpool disabled() {
+        return new EventSpool(null, null, null);
+    }
+
+    /** @return whether spooling is configured */
+    public boolean isEnabled() { return enabled; }
+
+    /** @return whether records are currently waiting in the spool */
+    public boolean isActive() { return active; }
+
+    /** @return the number of records waiting to be replayed */
+    public long depth() { return pendingRecords.get(); }
+
+    /** @return how long to wait for an in-flight permit before spooling */
+    public long getMaxBlockMs() { return maxBlockMs; }
+
+    /**
+     * Runs {@code send} unless the spool holds records, in which case the
+     * record is appended behind them.
+     *
+     * @return {@code true} if the record was spooled instead of sent
+     */
+    public boolean spoolOrSend(String topic, String key, Object value, Runnable send) {
+        if (!enabled) {
+            send.run();
+            return false;
+        }
+        gate.readLock().lock();
+        try {
+            if (active && write(topic, key, value)) {
+                return true;
+            }
+            send.run();
+            return false;
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a record and switches the spool on, so later records queue
+     * behind it.
+     *
+     * @return {@code false} if spooling is disabled or the record could not be written
+     */
+    public boolean append(String topic, String key, Object value) {
+        if (!enabled) {
+            return false;
+        }
+        gate.readLock().lock();
+        try {
+            active = true;
+            return write(topic, key, value);
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param ex a send failure
+     * @return whether the failure is transient, i.e. the record is worth spooling
+     */
+    public static boolean isRetriable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean write(String topic, String key, Object value) {
+        byte[] record;
+        try {
+            record = encode(topic, key, value);
+        } catch (IOException e) {
+            log.error("Cannot encode record for topic {} into the spool", topic, e);
+            return false;
+        }
+        appendLock.lock();
+        try {
+            SpoolSegment current = segments.peekLast();
+            if (current == null || !current.append(record)) {
+                if (current != null) {
+                    current.force();
+                }
+                current = SpoolSegment.create(Path.of(dir), nextSequence++, segmentBytes);
+                segments.addLast(current);
+                if (!current.append(record)) {
+                    log.error("Record of {} bytes for topic {} exceeds the spool segment size", record.length, topic);
+                    return false;
+                }
+            }
+            pendingRecords.incrementAndGet();
+            appended.increment();
+            return true;
+        } catch (IOException e) {
+            log.error("Cannot write to spool directory {}", dir, e);
+            return false;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Replays one batch from the oldest segment.
+     *
+     * @return {@code true} if records were replayed and more may follow immediately
+     */
+    boolean replayOnce() throws IOException, InterruptedException {
+        SpoolSegment head = segments.peekFirst();
+        if (head == null) {
+            deactivateIfEmpty();
+            return false;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+        int end = -1;
+        for (SpoolSegment.Entry entry; sends.size() < replayBatch && (entry = head.next()) != null; ) {
+            end = entry.end();
+            SpooledRecord record;
+            try {
+                record = decode(entry.data());
+            } catch (IOException | RuntimeException e) {
+                // A record that cannot be decoded would block the spool forever.
+                log.error("Dropping unreadable spool record in segment {}", head.sequence(), e);
+                sends.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            try {
+                sends.add(producerProfiles.forTopic(record.topic()).send(record.topic(), record.key(), record.value()));
+            } catch (RuntimeException e) {
+                sends.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+        }
+        if (!sends.isEmpty()) {
+            try {
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get();
+            } catch (ExecutionException e) {
+                head.rewind();
+                log.warn("Spool replay paused, {} records waiting: {}", pendingRecords.get(), e.getCause().getMessage());
+                return false;
+            }
+            head.ack(end);
+            pendingRecords.addAndGet(-sends.size());
+            replayed.increment(sends.size());
+        }
+        if (head.isDrained()) {
+            segments.remove(head);
+            head.delete();
+            return true;
+        }
+        if (sends.isEmpty()) {
+            deactivateIfEmpty();
+        }
+        return !sends.isEmpty();
+    }
+
+    private SpooledRecord decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        String topic = in.readUTF();
+        String key = in.readBoolean() ? in.readUTF() : null;
+        byte type = in.readByte();
+        byte[] value = in.readAllBytes();
+        Object payload = switch (type) {
+            case EVENT -> objectMapper.readValue(value, BaseEvent.class);
+            case JSON -> objectMapper.readValue(value, Object.class);
+            default -> null;
+        };
+        return new SpooledRecord(topic, key, payload);
+    }
+
+    private byte[] encode(String topic, String key, Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(topic);
+        out.writeBoolean(key != null);
+        if (key != null) {
+            out.writeUTF(key);
+        }
+        out.writeByte(value == null ? TOMBSTONE : value instanceof BaseEvent<?> ? EVENT : JSON);
+        if (value != null) {
+            out.write(objectMapper.writeValueAsBytes(value));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Switches back to direct sends once every record has been replayed, and
+     * removes the last, fully acknowledged segment.
+     */
+    private void deactivateIfEmpty() throws IOException {
+        if (!active) {
+            return;
+        }
+        gate.writeLock().lock();
+        try {
+            if (pendingRecords.get() == 0) {
+                for (SpoolSegment segment; (segment = segments.pollFirst()) != null; ) {
+                    segment.seal();
+                    segment.delete();
+                }
+                active = false;
+                log.info("Spool drained, sending directly to Kafka again");
+            }
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    private void replayLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (!active || !replayOnce()) {
+                    Thread.sleep(replayIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Spool replay failed", e);
+                try {
+                    Thread.sleep(replayIntervalMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record SpooledRecord(String topic, String key, Object value) {}
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || replayer != null) {
+            return;
+        }
+        try {
+            Path directory = Files.createDirectories(Path.of(dir));
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(SpoolSegment.SUFFIX)).sorted().toList()) {
+                    SpoolSegment segment = SpoolSegment.open(file);
+                    segments.addLast(segment);
+                    pendingRecords.addAndGet(segment.pendingRecords());
+                    nextSequence = segment.sequence() + 1;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open spool directory " + dir, e);
+        }
+        active = pendingRecords.get() > 0;
+
+        MeterRegistry registry = metrics.getRegistry();
+        Gauge.builder("producer.spool.depth", pendingRecords, AtomicLong::get)
+                .description("Records waiting in the spool").register(registry);
+        Gauge.builder("producer.spool.bytes", segments, s -> s.stream().mapToLong(SpoolSegment::pendingBytes).sum())
+                .description("Spooled bytes not yet acknowledged").register(registry);
+        Gauge.builder("producer.spool.segments", segments, ConcurrentLinkedDeque::size).register(registry);
+        appended = Counter.builder("producer.spool.appended").register(registry);
+        replayed = Counter.builder("producer.spool.replayed").register(registry);
+
+        replayer = Thread.ofVirtual().name("spool-replay").start(this::replayLoop);
+        log.info("Spool at {} opened with {} records waiting", dir, pendingRecords.get());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (replayer == null) {
+            return;
+        }
+        replayer.interrupt();
+        try {
+            replayer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        replayer = null;
+        appendLock.lock();
+        try {
+            for (SpoolSegment segment : segments) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close spool segments", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return replayer != null;
+    }
+}
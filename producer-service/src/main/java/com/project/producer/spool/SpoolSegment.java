@@ -0,0 +1,220 @@
+package com.project.producer.spool;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One append-only, memory-mapped file of the {@link EventSpool}.
+ * <p>
+ * Layout: an 8-byte header holding the acknowledged position, followed by
+ * records of the form {@code [int length][int crc32][bytes]}. The length is
+ * written last, so a record only becomes visible once it is complete, and the
+ * checksum detects records torn by a crash. Appends and the acknowledged
+ * position go straight to the mapping, so they cost a memory copy rather
+ * than a system call; the operating system writes the pages back.
+ * </p>
+ *
+ * <p>
+ * A single writer (serialized by the spool) appends while a single replay
+ * thread reads; the volatile write position publishes complete records to
+ * the reader.
+ * </p>
+ */
+final class SpoolSegment {
+
+    static final String SUFFIX = ".seg";
+
+    private static final int HEADER_BYTES = Long.BYTES;
+
+    private static final int RECORD_OVERHEAD = 2 * Integer.BYTES;
+
+    private final Path path;
+
+    private final long sequence;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private volatile int writePosition;
+
+    private volatile boolean sealed;
+
+    private volatile int ackedPosition;
+
+    private int readPosition;
+
+    private SpoolSegment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer,
+                         int ackedPosition, int writePosition) {
+        this.path = path;
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.ackedPosition = ackedPosition;
+        this.readPosition = ackedPosition;
+        this.writePosition = writePosition;
+    }
+
+    /**
+     * Creates an empty segment.
+     *
+     * @param dir      the spool directory
+     * @param sequence the segment number, which orders segments for replay
+     * @param capacity the file size in bytes
+     */
+    static SpoolSegment create(Path dir, long sequence, int capacity) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", sequence, SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.putLong(0, HEADER_BYTES);
+        return new SpoolSegment(path, sequence, channel, buffer, HEADER_BYTES, HEADER_BYTES);
+    }
+
+    /**
+     * Reopens a segment left by a previous process. The segment is sealed:
+     * its intact records are replayed, new records go to a new segment.
+     *
+     * @param path the segment file
+     */
+    static SpoolSegment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long sequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+
+        int acked = (int) Math.max(HEADER_BYTES, Math.min(buffer.getLong(0), buffer.capacity()));
+        int end = acked;
+        while (true) {
+            int length = intactRecordLength(buffer, end);
+            if (length < 0) {
+                break;
+            }
+            end += RECORD_OVERHEAD + length;
+        }
+        SpoolSegment segment = new SpoolSegment(path, sequence, channel, buffer, acked, end);
+        segment.sealed = true;
+        return segment;
+    }
+
+    /**
+     * Appends a record unless the segment is sealed or too full, in which
+     * case the segment seals itself.
+     *
+     * @return {@code true} if the record was written
+     */
+    boolean append(byte[] record) {
+        int position = writePosition;
+        if (sealed || (long) position + RECORD_OVERHEAD + record.length > buffer.capacity()) {
+            sealed = true;
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        buffer.put(position + RECORD_OVERHEAD, record);
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(position, record.length);
+        writePosition = position + RECORD_OVERHEAD + record.length;
+        return true;
+    }
+
+    /**
+     * Reads the next record for replay.
+     *
+     * @return the record, or {@code null} if every written record has been read
+     */
+    Entry next() {
+        if (readPosition >= writePosition) {
+            return null;
+        }
+        int length = buffer.getInt(readPosition);
+        byte[] data = new byte[length];
+        buffer.get(readPosition + RECORD_OVERHEAD, data);
+        readPosition += RECORD_OVERHEAD + length;
+        return new Entry(data, readPosition);
+    }
+
+    /**
+     * Moves the replay position back to the last acknowledged record, after
+     * a replay batch failed.
+     */
+    void rewind() {
+        readPosition = ackedPosition;
+    }
+
+    /**
+     * Records that every record before {@code position} reached the broker.
+     */
+    void ack(int position) {
+        ackedPosition = position;
+        buffer.putLong(0, position);
+    }
+
+    /** @return whether no more records will be appended */
+    boolean isSealed() { return sealed; }
+
+    /** Stops further appends. */
+    void seal() { sealed = true; }
+
+    /** @return whether every record of a sealed segment has been acknowledged */
+    boolean isDrained() { return sealed && ackedPosition >= writePosition; }
+
+    /** @return bytes written but not yet acknowledged */
+    int pendingBytes() { return writePosition - ackedPosition; }
+
+    /** @return records written but not yet acknowledged */
+    long pendingRecords() {
+        long count = 0;
+        int end = writePosition;
+        for (int position = ackedPosition; position < end; position += RECORD_OVERHEAD + buffer.getInt(position)) {
+            count++;
+        }
+        return count;
+    }
+
+    long sequence() { return sequence; }
+
+    /** Writes dirty pages back to the file. */
+    void force() {
+        buffer.force();
+    }
+
+    /** Closes and removes the file. */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private static int intactRecordLength(MappedByteBuffer buffer, int position) {
+        if (position + RECORD_OVERHEAD > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || (long) position + RECORD_OVERHEAD + length > buffer.capacity()) {
+            return -1;
+        }
+        byte[] data = new byte[length];
+        buffer.get(position + RECORD_OVERHEAD, data);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue() == buffer.getInt(position + Integer.BYTES) ? length : -1;
+    }
+
+    /**
+     * A record read for replay.
+     *
+     * @param data the record bytes
+     * @param end  position right after the record, to acknowledge it
+     */
+    record Entry(byte[] data, int end) {}
+}
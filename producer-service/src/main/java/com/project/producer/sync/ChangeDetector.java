@@ -0,0 +1,198 @@
+package com.project.producer.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChangeDetector remembers a content fingerprint per entity id so that a
+ * producer only publishes records that actually changed since the last run.
+ * <p>
+ * Each produce run calls {@link #begin()}, classifies every fetched record
+ * with {@link Run#classify(String, Object)}, and finally calls
+ * {@link Run#complete()}. Ids that were known before but were not seen during
+ * the run are reported by {@link Run#deletedIds()}. The fingerprints of a run
+ * only replace the previous ones once the run completes, so a run that fails
+ * halfway never produces spurious deletions.
+ * </p>
+ *
+ * <p>
+ * The baseline can be persisted with {@link #baseline()} and restored with
+ * {@link #ChangeDetector(Map)}, so that a restarted producer still notices
+ * deletions and does not report every record as created.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * ChangeDetector.Run run = changeDetector.begin();
+ * records.forEach(r -> {
+ *     if (run.classify(id(r), r) != ChangeDetector.Change.UNCHANGED) {
+ *         publish(r);
+ *     }
+ * });
+ * run.deletedIds().forEach(this::publishDelete);
+ * SyncStats stats = run.complete();
+ * }</pre>
+ * </p>
+ */
+public class ChangeDetector {
+
+    /**
+     * Outcome of classifying a single record.
+     */
+    public enum Change { CREATE, UPDATE, UNCHANGED }
+
+    /**
+     * Fingerprints from the last completed run, keyed by entity id.
+     */
+    private volatile Map<String, Long> fingerprints = Map.of();
+
+    /**
+     * Whether {@link #fingerprints} describe a completed run, as opposed to
+     * a detector that has not seen one yet.
+     */
+    private volatile boolean established;
+
+    /**
+     * Creates a detector without a baseline; its first run reports every
+     * record as created.
+     */
+    public ChangeDetector() {
+    }
+
+    /**
+     * Creates a detector continuing from a persisted baseline.
+     *
+     * @param baseline fingerprints by entity id, as returned by {@link #baseline()}
+     */
+    public ChangeDetector(Map<String, Long> baseline) {
+        this.fingerprints = baseline;
+        this.established = true;
+    }
+
+    /**
+     * Starts a new run against the fingerprints of the last completed run.
+     *
+     * @return a run used to classify the records of this cycle
+     */
+    public Run begin() {
+        return new Run(fingerprints);
+    }
+
+    /** @return the number of entities currently tracked */
+    public int size() { return fingerprints.size(); }
+
+    /** @return whether a baseline was restored or a run has completed */
+    public boolean hasBaseline() { return established; }
+
+    /** @return the fingerprints of the last completed run, keyed by entity id */
+    public Map<String, Long> baseline() { return Collections.unmodifiableMap(fingerprints); }
+
+    /**
+     * A single produce run. Classification is thread-safe so records may be
+     * classified from several threads.
+     */
+    public class Run {
+
+        private final Map<String, Long> previous;
+
+        private final Map<String, Long> current = new ConcurrentHashMap<>();
+
+        private final LongAdder created = new LongAdder();
+
+        private final LongAdder updated = new LongAdder();
+
+        private final LongAdder skipped = new LongAdder();
+
+        private int deleted;
+
+        private Run(Map<String, Long> previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * Classifies a record by comparing its fingerprint with the one from
+         * the previous run. Records without an id cannot be tracked and are
+         * always reported as {@link Change#UPDATE}.
+         *
+         * @param id      the entity id, or {@code null} if the record has none
+         * @param payload the record content
+         * @return whether the record is new, changed or unchanged
+         */
+        public Change classify(String id, Object payload) {
+            if (id == null) {
+                updated.increment();
+                return Change.UPDATE;
+            }
+            long fingerprint = ContentFingerprint.of(payload);
+            Long old = previous.get(id);
+            current.put(id, fingerprint);
+            if (old == null) {
+                created.increment();
+                return Change.CREATE;
+            }
+            if (old == fingerprint) {
+                skipped.increment();
+                return Change.UNCHANGED;
+            }
+            updated.increment();
+            return Change.UPDATE;
+        }
+
+        /**
+         * Returns the ids that existed in the previous run but were not seen
+         * in this one. Must be called after all records have been classified.
+         *
+         * @return ids of entities that disappeared from the source
+         */
+        public List<String> deletedIds() {
+            List<String> ids = new ArrayList<>();
+            for (String id : previous.keySet()) {
+                if (!current.containsKey(id)) {
+                    ids.add(id);
+                }
+            }
+            deleted = ids.size();
+            return ids;
+        }
+
+        /**
+         * @return the records classified as created or updated so far, plus
+         * the deletions found by {@link #deletedIds()} if it was called
+         */
+        public long changes() {
+            return created.sum() + updated.sum() + deleted;
+        }
+
+        /**
+         * Makes the fingerprints of this run the baseline for the next one.
+         *
+         * @return the counters of this run
+         */
+        public SyncStats complete() {
+            fingerprints = current;
+            established = true;
+            return new SyncStats(created.sum(), updated.sum(), deleted, skipped.sum());
+        }
+
+        /**
+         * Merges the fingerprints of this run into the baseline, for a delta
+         * run that only saw the records changed since the previous one.
+         * Entities not seen keep their fingerprint; none count as deleted.
+         *
+         * @return the counters of this run
+         */
+        public SyncStats completePartial() {
+            Map<String, Long> merged = new HashMap<>(previous);
+            merged.putAll(current);
+            fingerprints = merged;
+            established = true;
+            return new SyncStats(created.sum(), updated.sum(), 0, skipped.sum());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.producer.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ContentFingerprint computes a compact 64-bit hash of a record's content.
+ * <p>
+ * The hash is FNV-1a over a canonical walk of the value: map keys are visited
+ * in sorted order and every value is prefixed with a type tag, so two records
+ * with the same content always produce the same fingerprint regardless of
+ * key order or map implementation. Typed records are hashed through their
+ * {@code toString()}, which lists every field including sorted extras. Only
+ * the 8-byte result needs to be kept per entity, which makes it cheap to
+ * remember millions of records.
+ * </p>
+ */
+public final class ContentFingerprint {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private ContentFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of the given value.
+     *
+     * @param value a record, usually a {@link Map} decoded from JSON
+     * @return the 64-bit content hash
+     */
+    public static long of(Object value) {
+        return hash(OFFSET_BASIS, value);
+    }
+
+    private static long hash(long h, Object value) {
+        if (value == null) {
+            return mix(h, (byte) 'n');
+        }
+        if (value instanceof Map<?, ?> map) {
+            h = mix(h, (byte) '{');
+            for (Map.Entry<String, ?> entry : sorted(map).entrySet()) {
+                h = hashString(h, entry.getKey());
+                h = hash(h, entry.getValue());
+            }
+            return mix(h, (byte) '}');
+        }
+        if (value instanceof Collection<?> collection) {
+            h = mix(h, (byte) '[');
+            for (Object element : collection) {
+                h = hash(h, element);
+            }
+            return mix(h, (byte) ']');
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return hashString(mix(h, (byte) '#'), value.toString());
+        }
+        return hashString(mix(h, (byte) '"'), value.toString());
+    }
+
+    private static Map<String, ?> sorted(Map<?, ?> map) {
+        Map<String, Object> sorted = new TreeMap<>();
+        map.forEach((key, val) -> sorted.put(String.valueOf(key), val));
+        return sorted;
+    }
+
+    private static long hashString(long h, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = mix(h, b);
+        }
+        // Terminator keeps adjacent strings from running into each other.
+        return mix(h, (byte) 0);
+    }
+
+    private static long mix(long h, byte b) {
+        return (h ^ (b & 0xff)) * PRIME;
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.producer.sync;
+
+import java.time.Instant;
+
+/**
+ * How far an interrupted produce run got, so that the next run resumes there
+ * instead of reading and publishing the whole collection again.
+ * <p>
+ * Every record of the pages before {@code resumeUri} has been acknowledged by
+ * Kafka or parked in the spool. The records of the page at {@code resumeUri}
+ * and after it may or may not have been published, so a resumed run publishes
+ * them again as new events. Only with {@code producer.event-id.strategy=content}
+ * do the republished events repeat their earlier ids, so that consumers can
+ * drop them as duplicates; with time-ordered ids they arrive twice.
+ * </p>
+ *
+ * @param resumeUri    the request reading the first page that is not fully acknowledged
+ * @param acknowledged records acknowledged by the run so far, across resumed attempts
+ * @param cursor       the cursor to store once the resumed run completes; it carries the
+ *                     watermark of the original run, so that no change made while the
+ *                     run was interrupted is missed
+ * @param savedAt      when the checkpoint was taken
+ */
+public record RunCheckpoint(String resumeUri, long acknowledged, SourceCursor cursor, Instant savedAt) {
+}
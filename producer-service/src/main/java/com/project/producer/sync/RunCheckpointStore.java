@@ -0,0 +1,90 @@
+package com.project.producer.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * RunCheckpointStore keeps the {@link RunCheckpoint} of a produce run that
+ * has not completed yet in a small JSON file next to the source cursors.
+ * <p>
+ * Checkpoints are written like cursors, to a temporary file that is
+ * atomically moved over the old one. The file is deleted when the run
+ * completes without failures. A missing or unreadable file means the next
+ * run starts from the beginning of the collection.
+ * </p>
+ *
+ * <p>
+ * Configurable via {@code producer.sync.state-dir} in application properties.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RunCheckpointStore {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${producer.sync.state-dir:state}")
+    private String stateDir;
+
+    /**
+     * @param name the cursor name of the run, e.g. {@code crm}
+     * @return the checkpoint of its interrupted run, if any
+     */
+    public Optional<RunCheckpoint> load(String name) {
+        Path file = file(name);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), RunCheckpoint.class));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable {} checkpoint at {}", name, file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param name       the cursor name of the run
+     * @param checkpoint how far the run got
+     */
+    public void save(String name, RunCheckpoint checkpoint) {
+        Path file = file(name);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), checkpoint);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The previous checkpoint, if any, still applies; a restart only repeats more work.
+            log.warn("Cannot persist {} checkpoint to {}", name, file, e);
+        }
+    }
+
+    /**
+     * Forgets the checkpoint once the run completed.
+     *
+     * @param name the cursor name of the run
+     */
+    public void clear(String name) {
+        Path file = file(name);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete {} checkpoint at {}", name, file, e);
+        }
+    }
+
+    private Path file(String name) {
+        return Path.of(stateDir, name + ".checkpoint.json");
+    }
+}
@@ -0,0 +1,187 @@
+package com.project.producer.sync;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RunProgress tracks which pages of a produce run are fully acknowledged, and
+ * derives the {@link RunCheckpoint} a restarted run resumes from.
+ * <p>
+ * The reader reports every page it starts and how many records it held. Each
+ * record is acknowledged once Kafka accepted it or it was spooled, or right
+ * away if it does not need publishing. A page is complete when all of its
+ * records are acknowledged, and the checkpoint points at the first page that
+ * is not. Pages completed out of order behind it are read again after a
+ * restart.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * RunProgress progress = new RunProgress(resume, Duration.ofSeconds(30));
+ * progress.pageStarted(0, uri);
+ * RunProgress.Page page = progress.page(0);
+ * batch.send(key, event, readNanos, page::acknowledge);
+ * progress.pageRead(0, 1);
+ * progress.checkpointIfDue().ifPresent(c -> store.save("crm", c));
+ * }</pre>
+ * </p>
+ */
+public class RunProgress {
+
+    private final Map<Long, Page> pages = new ConcurrentHashMap<>();
+
+    private final AtomicLong acknowledged;
+
+    private final AtomicLong pagesRead = new AtomicLong();
+
+    private final AtomicLong pageNanos = new AtomicLong();
+
+    private final long interval;
+
+    private volatile SourceCursor cursor;
+
+    /**
+     * The first page that is not complete yet; guarded by {@code this}.
+     */
+    private long watermark;
+
+    private long checkpointedWatermark;
+
+    private long checkpointedAt = System.nanoTime();
+
+    /**
+     * @param resume   the checkpoint the run resumes from, or {@code null} for a fresh run
+     * @param interval minimum time between two checkpoints from {@link #checkpointIfDue()}
+     */
+    public RunProgress(RunCheckpoint resume, Duration interval) {
+        this.cursor = resume == null ? null : resume.cursor();
+        this.acknowledged = new AtomicLong(resume == null ? 0 : resume.acknowledged());
+        this.interval = interval.toNanos();
+    }
+
+    /**
+     * @param cursor the cursor the run will store once it completes
+     */
+    public void started(SourceCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @param page the number of a page about to be read
+     * @param uri  the request reading it
+     */
+    public void pageStarted(long page, URI uri) {
+        // A retried read starts a page again; acks of the first attempt go to the replaced instance.
+        pages.put(page, new Page(uri, System.nanoTime()));
+    }
+
+    /**
+     * @param page the number of a page
+     * @return its progress, which every record read from it must acknowledge;
+     * a page that was never started cannot be resumed at
+     */
+    public Page page(long page) {
+        return pages.computeIfAbsent(page, number -> new Page(null, 0));
+    }
+
+    /**
+     * @param page    the number of a page that has been read
+     * @param records the number of records it held
+     */
+    public void pageRead(long page, long records) {
+        Page progress = pages.get(page);
+        if (progress != null) {
+            progress.records = records;
+            if (progress.startedAt != 0) {
+                pagesRead.incrementAndGet();
+                pageNanos.addAndGet(System.nanoTime() - progress.startedAt);
+            }
+        }
+    }
+
+    /** @return records acknowledged so far, including those of resumed attempts */
+    public long acknowledged() { return acknowledged.get(); }
+
+    /**
+     * @return average time from starting to finishing a page, or
+     * {@link Duration#ZERO} if no page was read
+     */
+    public Duration averagePageLatency() {
+        long pages = pagesRead.get();
+        return pages == 0 ? Duration.ZERO : Duration.ofNanos(pageNanos.get() / pages);
+    }
+
+    /**
+     * @return a checkpoint if {@code interval} passed since the previous one
+     * and the run got further since
+     */
+    public synchronized Optional<RunCheckpoint> checkpointIfDue() {
+        if (System.nanoTime() - checkpointedAt < interval) {
+            return Optional.empty();
+        }
+        return checkpoint();
+    }
+
+    /**
+     * @return a checkpoint at the first page that is not fully acknowledged,
+     * or empty if the run got no further since the previous checkpoint or
+     * that page has not been requested yet
+     */
+    public synchronized Optional<RunCheckpoint> checkpoint() {
+        Page page;
+        while ((page = pages.get(watermark)) != null && page.isComplete()) {
+            pages.remove(watermark);
+            watermark++;
+        }
+        if (watermark == checkpointedWatermark || page == null || page.uri == null || cursor == null) {
+            return Optional.empty();
+        }
+        checkpointedWatermark = watermark;
+        checkpointedAt = System.nanoTime();
+        return Optional.of(new RunCheckpoint(page.uri.toString(), acknowledged.get(), cursor, Instant.now()));
+    }
+
+    /**
+     * Progress of one page.
+     */
+    public final class Page {
+
+        private final URI uri;
+
+        /**
+         * {@link System#nanoTime()} when the page was requested, or {@code 0} if unknown.
+         */
+        private final long startedAt;
+
+        private final AtomicLong acknowledged = new AtomicLong();
+
+        /**
+         * Number of records of the page, or {@code -1} while it is being read.
+         */
+        private volatile long records = -1;
+
+        private Page(URI uri, long startedAt) {
+            this.uri = uri;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * Marks one record of this page as published or not needing publishing.
+         */
+        public void acknowledge() {
+            acknowledged.incrementAndGet();
+            RunProgress.this.acknowledged.incrementAndGet();
+        }
+
+        private boolean isComplete() {
+            long expected = records;
+            return expected >= 0 && acknowledged.get() >= expected;
+        }
+    }
+}
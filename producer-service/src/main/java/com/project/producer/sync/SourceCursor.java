@@ -0,0 +1,41 @@
+package com.project.producer.sync;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * What a source client remembers between runs to avoid refetching data the
+ * producer has already published.
+ * <p>
+ * The HTTP validators of the last complete response are sent back as
+ * {@code If-None-Match} and {@code If-Modified-Since}, so an unchanged source
+ * answers {@code 304 Not Modified} without a body. The {@code updatedSince}
+ * watermark is the source's own clock at the start of the last successful run;
+ * a delta request asks only for the records changed after it.
+ * </p>
+ *
+ * @param etag         the {@code ETag} of the last complete response, or {@code null}
+ * @param lastModified the {@code Last-Modified} header of that response, or {@code null}
+ * @param updatedSince the delta watermark, or {@code null} before the first run
+ * @param lastFullSync when the whole collection was last read, or {@code null}
+ */
+public record SourceCursor(String etag, String lastModified, Instant updatedSince, Instant lastFullSync) {
+
+    /**
+     * Cursor of a source that was never read: every request is unconditional.
+     */
+    public static final SourceCursor EMPTY = new SourceCursor(null, null, null, null);
+
+    /**
+     * A delta request cannot see deletions, so the whole collection is read
+     * again once {@code fullSyncInterval} has passed.
+     *
+     * @param fullSyncInterval maximum time between two full reads
+     * @param now              the current time
+     * @return whether the next request may ask for changes only
+     */
+    public boolean allowsDelta(Duration fullSyncInterval, Instant now) {
+        return updatedSince != null && lastFullSync != null
+                && lastFullSync.plus(fullSyncInterval).isAfter(now);
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.producer.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SourceCursorStore keeps the {@link SourceCursor} of every source in a small
+ * JSON file, so conditional and delta requests keep working across restarts.
+ * <p>
+ * A cursor is written to a temporary file and atomically moved over the old
+ * one, so a crash leaves either the previous or the new cursor, never a torn
+ * file. A missing or unreadable file yields {@link SourceCursor#EMPTY}, which
+ * only costs one full, unconditional read.
+ * </p>
+ *
+ * <p>
+ * In incremental mode the {@link ChangeDetector} fingerprints of the run are
+ * written into the same file, so the cursor and the baseline it was read
+ * against are always replaced together. A cursor without its baseline is
+ * useless to an incremental run: a conditional or delta read would not show
+ * which records were deleted, and every record would look created.
+ * </p>
+ *
+ * <p>
+ * Configurable via {@code producer.sync.state-dir} in application properties.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SourceCursorStore {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${producer.sync.state-dir:state}")
+    private String stateDir;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * @param source the source system, e.g. {@code crm}
+     * @return the stored cursor, or {@link SourceCursor#EMPTY}
+     */
+    public SourceCursor load(String source) {
+        return states.computeIfAbsent(source, this::read).cursor();
+    }
+
+    /**
+     * @param source the source system
+     * @return the fingerprints stored with the cursor, or empty if the last
+     * run was not incremental or the file is missing or unreadable
+     */
+    public Optional<Map<String, Long>> loadBaseline(String source) {
+        return Optional.ofNullable(states.computeIfAbsent(source, this::read).fingerprints());
+    }
+
+    /**
+     * Persists the cursor of a source after a successful run.
+     *
+     * @param source the source system
+     * @param cursor the new cursor
+     */
+    public void save(String source, SourceCursor cursor) {
+        save(source, cursor, null);
+    }
+
+    /**
+     * Persists the cursor of a source together with the fingerprints of the
+     * run that read it.
+     *
+     * @param source       the source system
+     * @param cursor       the new cursor
+     * @param fingerprints the new change detection baseline, or {@code null}
+     */
+    public void save(String source, SourceCursor cursor, Map<String, Long> fingerprints) {
+        State state = new State(cursor, fingerprints);
+        if (state.equals(states.get(source))) {
+            return;
+        }
+        states.put(source, state);
+        Path file = file(source);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), state);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The in-memory cursor still applies; after a restart the source is read in full once.
+            log.warn("Cannot persist {} cursor to {}", source, file, e);
+        }
+    }
+
+    private State read(String source) {
+        Path file = file(source);
+        if (!Files.exists(file)) {
+            return State.EMPTY;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(file.toFile());
+            if (!node.has("cursor")) {
+                // Written before baselines were stored: a bare cursor.
+                return new State(objectMapper.treeToValue(node, SourceCursor.class), null);
+            }
+            Map<String, Long> fingerprints = node.hasNonNull("fingerprints")
+                    ? objectMapper.convertValue(node.get("fingerprints"),
+                            TypeFactory.defaultInstance().constructMapType(Map.class, String.class, Long.class))
+                    : null;
+            return new State(objectMapper.treeToValue(node.get("cursor"), SourceCursor.class),
+                    fingerprints == null ? null : Collections.unmodifiableMap(fingerprints));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable {} cursor at {}", source, file, e);
+            return State.EMPTY;
+        }
+    }
+
+    private Path file(String source) {
+        return Path.of(stateDir, source + ".cursor.json");
+    }
+
+    /**
+     * The content of a cursor file.
+     *
+     * @param cursor       the cursor of the last successful run
+     * @param fingerprints the fingerprints of that run, or {@code null} if it was not incremental
+     */
+    private record State(SourceCursor cursor, Map<String, Long> fingerprints) {
+
+        static final State EMPTY = new State(SourceCursor.EMPTY, null);
+    }
+}
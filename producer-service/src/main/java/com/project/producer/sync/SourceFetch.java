@@ -0,0 +1,12 @@
+package com.project.producer.sync;
+
+/**
+ * Outcome of reading a source collection with a {@link SourceCursor}.
+ *
+ * @param count       number of records passed to the sink
+ * @param notModified whether the source answered {@code 304 Not Modified}; no records were read
+ * @param delta       whether only records changed since the watermark were requested
+ * @param cursor      the cursor to store once the records have been published
+ */
+public record SourceFetch(long count, boolean notModified, boolean delta, SourceCursor cursor) {
+}
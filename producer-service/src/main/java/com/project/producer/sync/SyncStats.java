@@ -0,0 +1,17 @@
+package com.project.producer.sync;
+
+/**
+ * Counters describing the outcome of one incremental produce run.
+ *
+ * @param created number of records seen for the first time
+ * @param updated number of records whose content changed
+ * @param deleted number of records that disappeared from the source
+ * @param skipped number of unchanged records that were not published
+ */
+public record SyncStats(long created, long updated, long deleted, long skipped) {
+
+    /** @return the number of events emitted during the run */
+    public long emitted() {
+        return created + updated + deleted;
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.producer.benchmark;
+
+import com.project.producer.model.BaseEvent;
+import com.project.producer.model.ContentDerivedEventIdGenerator;
+import com.project.producer.model.Customer;
+import com.project.producer.model.TimeOrderedEventIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building a {@link BaseEvent}, split into its ID and
+ * timestamp parts so the ID strategies can be compared against the
+ * {@link UUID#randomUUID()} baseline, alone and under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaseEventBenchmark {
+
+    private Map<String, Object> payload;
+
+    private Customer customer;
+
+    private ContentDerivedEventIdGenerator contentIds;
+
+    @Setup
+    public void setUp() {
+        payload = Payloads.customer(0);
+        customer = Payloads.typedCustomer(0);
+        contentIds = new ContentDerivedEventIdGenerator();
+    }
+
+    @Benchmark
+    public BaseEvent<Object> construct() {
+        return new BaseEvent<>("CUSTOMER_UPDATE", "CRM", payload);
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String timeOrderedId() {
+        return TimeOrderedEventIdGenerator.INSTANCE.generate("CUSTOMER_UPDATE", "CRM", customer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrderedIdContended() {
+        return TimeOrderedEventIdGenerator.INSTANCE.generate("CUSTOMER_UPDATE", "CRM", customer);
+    }
+
+    @Benchmark
+    public String contentDerivedId() {
+        return contentIds.generate("CUSTOMER_UPDATE", "CRM", customer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public Instant instantNow() {
+        return Instant.now();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BaseEvent<Object> constructContended() {
+        return new BaseEvent<>("CUSTOMER_UPDATE", "CRM", payload);
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.producer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.model.Customer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realistic record payloads shared by the benchmarks, shaped like what the
+ * CRM and Inventory systems return.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /**
+     * @param extraFields number of additional custom attributes, to vary size
+     * @return a customer record decoded as a {@code Map}
+     */
+    static Map<String, Object> customer(int extraFields) {
+        Map<String, Object> customer = new HashMap<>();
+        customer.put("id", "c3f1e2a4-5b6c-4d7e-8f90-a1b2c3d4e5f6");
+        customer.put("name", "Alice Smith");
+        customer.put("email", "alice.smith@example.com");
+        customer.put("phone", "+1-202-555-0143");
+        customer.put("tier", "GOLD");
+        customer.put("active", true);
+        customer.put("lifetimeValue", 18234.55);
+        customer.put("createdAt", "2023-04-11T09:21:44Z");
+        customer.put("updatedAt", "2026-09-30T17:02:11Z");
+
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("street", "1600 Pennsylvania Ave NW");
+        address.put("city", "Washington");
+        address.put("postalCode", "20500");
+        address.put("country", "US");
+        customer.put("address", address);
+        customer.put("tags", List.of("newsletter", "vip", "early-adopter"));
+
+        for (int i = 0; i < extraFields; i++) {
+            customer.put("attribute" + i, "value-" + i);
+        }
+        return customer;
+    }
+
+    /**
+     * @param extraFields number of additional custom attributes, kept as extras
+     * @return the same customer as {@link #customer(int)}, decoded as a {@link Customer}
+     */
+    static Customer typedCustomer(int extraFields) {
+        return new ObjectMapper().convertValue(customer(extraFields), Customer.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.producer.benchmark;
+
+import com.project.producer.config.ProducerProfiles;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.spool.EventSpool;
+import com.project.producer.model.BaseEvent;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisherTest.MockProducers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the publish hot path (event construction, serialization and the
+ * template send) against a {@link MockProducer}, so no broker is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublisherBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * MockProducer keeps every sent record; clear it regularly so the
+     * benchmark measures publishing rather than history growth.
+     */
+    private static final int CLEAR_EVERY = 50_000;
+
+    private MockProducer<String, Object> producer;
+
+    private KafkaEventPublisher publisher;
+
+    private Map<String, Object> payload;
+
+    private int sends;
+
+    @Setup
+    public void setUp() {
+        producer = MockProducers.keptOpen(true);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        publisher = new KafkaEventPublisher(new ProducerProfiles("default", Map.of("default", template), Map.of()),
+                new PipelineMetrics(new SimpleMeterRegistry()), EventSpool.disabled());
+        ReflectionTestUtils.setField(publisher, "maxInFlight", 10_000);
+        payload = Payloads.customer(20);
+    }
+
+    @Benchmark
+    public void publish() {
+        BaseEvent<Object> event = new BaseEvent<>("CUSTOMER_UPDATE", "CRM", payload);
+        publisher.publish("customer_data", event.getEventId(), event);
+        clearPeriodically(1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object publishBatch() {
+        PublishBatch batch = publisher.openBatch("customer_data");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            BaseEvent<Object> event = new BaseEvent<>("CUSTOMER_UPDATE", "CRM", payload);
+            batch.send(event.getEventId(), event);
+        }
+        Object summary = batch.complete().join();
+        clearPeriodically(BATCH_SIZE);
+        return summary;
+    }
+
+    private void clearPeriodically(int sent) {
+        sends += sent;
+        if (sends >= CLEAR_EVERY) {
+            producer.clear();
+            sends = 0;
+        }
+    }
+}
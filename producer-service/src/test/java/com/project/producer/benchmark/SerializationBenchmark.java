@@ -0,0 +1,57 @@
+package com.project.producer.benchmark;
+
+import com.project.producer.model.BaseEvent;
+import com.project.producer.model.Customer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Spring's {@link JsonSerializer} on {@link BaseEvent} payloads of
+ * realistic size, as configured for the Kafka producer, for both untyped
+ * {@code Map} payloads and typed {@link Customer} payloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * Number of extra custom attributes per record: a lean record, a typical
+     * CRM record, and a wide one.
+     */
+    @Param({"0", "20", "100"})
+    public int extraFields;
+
+    private JsonSerializer<Object> serializer;
+
+    private BaseEvent<Object> event;
+
+    private BaseEvent<Customer> typedEvent;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer<>();
+        event = new BaseEvent<>("CUSTOMER_UPDATE", "CRM", Payloads.customer(extraFields));
+        typedEvent = new BaseEvent<>("CUSTOMER_UPDATE", "CRM", Payloads.typedCustomer(extraFields));
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("customer_data", event);
+    }
+
+    @Benchmark
+    public byte[] serializeTyped() {
+        return serializer.serialize("customer_data", typedEvent);
+    }
+}
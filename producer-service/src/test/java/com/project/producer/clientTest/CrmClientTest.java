@@ -4,13 +4,18 @@ import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.project.producer.client;
+import com.project.producer.http.SourceResilience;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +25,13 @@ public class CrmClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private SourceResilience resilience = new SourceResilience(
+            new SourceResilience.Retry(3, Duration.ZERO, 2.0, 0.1, 10),
+            new SourceResilience.Breaker(50, 20, 0.5, Duration.ofSeconds(30)),
+            new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+            new SimpleMeterRegistry());
+
     @InjectMocks
     private client.CrmClient crmClient;
 
@@ -38,9 +50,9 @@ public class CrmClientTest {
     public void testFetchCustomers_failureRetries() {
         // Simulate API failure
         when(restTemplate.getForObject(anyString(), eq(List.class)))
-                .thenThrow(new RuntimeException("API down"));
+                .thenThrow(new ResourceAccessException("API down"));
 
-        // Retryable annotation should retry 3 times, expect exception
+        // Retried up to the 3 configured attempts, then the failure is rethrown
         assertThrows(RuntimeException.class, () -> crmClient.fetchCustomers());
         verify(restTemplate, times(3)).getForObject(anyString(), eq(List.class));
     }
@@ -0,0 +1,67 @@
+package com.project.producer.coordinationTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.coordination.FileLockShardLeases;
+import com.project.producer.coordination.ShardAssignment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+public class FileLockShardLeasesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRebalance_splitsShardsAndReclaimsThemWhenAnInstanceLeaves() {
+        // A long interval so that only the explicit rebalance calls move shards
+        FileLockShardLeases first = new FileLockShardLeases(dir, 4, Duration.ofHours(1));
+        FileLockShardLeases second = new FileLockShardLeases(dir, 4, Duration.ofHours(1));
+        try {
+            first.start();
+            assertTrue(first.current().isAll());
+
+            second.start();
+            assertTrue(second.current().isEmpty(), "every shard is still held by the first instance");
+
+            first.rebalance();
+            second.rebalance();
+            Set<Integer> union = new HashSet<>(first.current().owned());
+            union.addAll(second.current().owned());
+            assertEquals(2, first.current().owned().size());
+            assertEquals(2, second.current().owned().size());
+            assertEquals(Set.of(0, 1, 2, 3), union);
+
+            second.stop();
+            first.rebalance();
+            assertTrue(first.current().isAll());
+        } finally {
+            second.stop();
+            first.stop();
+        }
+    }
+
+    @Test
+    public void testShardAssignment_ownsOnlyKeysHashingIntoItsShards() {
+        ShardAssignment assignment = new ShardAssignment(4, Set.of(ShardAssignment.shardOf("C1", 4)));
+
+        assertTrue(assignment.owns("C1"));
+        assertEquals(1, Set.of("C1", "C2", "C3", "C4").stream().filter(assignment::owns).count());
+        assertTrue(ShardAssignment.ALL.owns("anything"));
+    }
+
+    @Test
+    public void testShardAssignment_roundTripsThroughTheQueryValue() {
+        ShardAssignment assignment = new ShardAssignment(12, Set.of(5, 0));
+
+        assertEquals("0,5/12", assignment.queryValue());
+        assertEquals(assignment, ShardAssignment.parse(assignment.queryValue()));
+        assertThrows(IllegalArgumentException.class, () -> ShardAssignment.parse("0,5"));
+        assertThrows(IllegalArgumentException.class, () -> ShardAssignment.parse("a/12"));
+    }
+}
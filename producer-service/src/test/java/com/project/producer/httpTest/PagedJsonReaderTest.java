@@ -0,0 +1,303 @@
+package com.project.producer.httpTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.http.PagedJsonReader;
+import com.project.producer.http.PageSink;
+import com.project.producer.http.SourceResilience;
+import com.project.producer.model.Customer;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceFetch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class PagedJsonReaderTest {
+
+    private MockRestServiceServer server;
+
+    private PagedJsonReader reader;
+
+    @BeforeEach
+    public void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        reader = new PagedJsonReader(restTemplate, new ObjectMapper());
+    }
+
+    @Test
+    public void testRead_followsLinkHeader() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "</customers?cursor=2>; rel=\"next\"");
+        server.expect(requestTo("http://crm/customers"))
+                .andRespond(withSuccess("[{\"name\":\"Alice\"},{\"name\":\"Bob\"}]", MediaType.APPLICATION_JSON)
+                        .headers(headers));
+        server.expect(requestTo("http://crm/customers?cursor=2"))
+                .andRespond(withSuccess("[{\"name\":\"Charlie\"}]", MediaType.APPLICATION_JSON));
+
+        List<Map<String, Object>> records = new ArrayList<>();
+        long count = reader.read("http://crm/customers", records::add);
+
+        assertEquals(3, count);
+        assertEquals("Charlie", records.get(2).get("name"));
+        server.verify();
+    }
+
+    @Test
+    public void testRead_followsEnvelopeCursor() {
+        server.expect(requestTo("http://crm/customers?limit=2"))
+                .andRespond(withSuccess("{\"items\":[{\"name\":\"Alice\"}],\"nextCursor\":\"abc\"}",
+                        MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://crm/customers?limit=2&cursor=abc"))
+                .andRespond(withSuccess("{\"items\":[{\"name\":\"Bob\"}]}", MediaType.APPLICATION_JSON));
+
+        List<Map<String, Object>> records = new ArrayList<>();
+        long count = reader.read("http://crm/customers?limit=2", records::add);
+
+        assertEquals(2, count);
+        assertEquals("Bob", records.get(1).get("name"));
+        server.verify();
+    }
+
+    @Test
+    public void testRead_bindsTypedRecordsAndKeepsUnknownFields() {
+        server.expect(requestTo("http://crm/customers"))
+                .andRespond(withSuccess("[{\"id\":\"1\",\"name\":\"Alice\",\"loyalty\":\"gold\"}]",
+                        MediaType.APPLICATION_JSON));
+
+        List<Customer> customers = new ArrayList<>();
+        reader.read("http://crm/customers", Customer.class, customers::add);
+
+        assertEquals("Alice", customers.get(0).getName());
+        assertEquals(Map.of("loyalty", "gold"), customers.get(0).getExtras());
+        server.verify();
+    }
+
+    @Test
+    public void testRead_fetchesOffsetPagesInParallelWhenTotalIsKnown() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        reader = new PagedJsonReader(restTemplate, new ObjectMapper());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(PagedJsonReader.TOTAL_COUNT_HEADER, "5");
+        // The first page is requested by offset too, so that every page comes from one version
+        server.expect(requestTo("http://crm/customers?limit=2&offset=0"))
+                .andRespond(withSuccess("[{\"id\":\"1\"},{\"id\":\"2\"}]", MediaType.APPLICATION_JSON)
+                        .headers(headers));
+        server.expect(requestTo("http://crm/customers?limit=2&offset=2"))
+                .andRespond(withSuccess("[{\"id\":\"3\"},{\"id\":\"4\"}]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://crm/customers?limit=2&offset=4"))
+                .andRespond(withSuccess("[{\"id\":\"5\"}]", MediaType.APPLICATION_JSON));
+
+        List<Customer> customers = new ArrayList<>();
+        long count = reader.read("http://crm/customers?limit=2", Customer.class, 4, customers::add);
+
+        assertEquals(5, count);
+        assertEquals(Set.of("1", "2", "3", "4", "5"),
+                customers.stream().map(Customer::getId).collect(Collectors.toSet()));
+        server.verify();
+    }
+
+    @Test
+    public void testReadChanges_isPartialWhenTheCollectionChangesBetweenPages() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        reader = new PagedJsonReader(restTemplate, new ObjectMapper());
+
+        HttpHeaders first = new HttpHeaders();
+        first.add(PagedJsonReader.TOTAL_COUNT_HEADER, "4");
+        first.setETag("\"7\"");
+        HttpHeaders changed = new HttpHeaders();
+        changed.add(PagedJsonReader.TOTAL_COUNT_HEADER, "3");
+        changed.setETag("\"8\"");
+        server.expect(requestTo("http://crm/customers?limit=2&offset=0"))
+                .andRespond(withSuccess("[{\"id\":\"1\"},{\"id\":\"2\"}]", MediaType.APPLICATION_JSON)
+                        .headers(first));
+        // "3" was deleted in between, so "4" moved to offset 2 and the page no longer holds "3"
+        server.expect(requestTo("http://crm/customers?limit=2&offset=2"))
+                .andRespond(withSuccess("[{\"id\":\"4\"}]", MediaType.APPLICATION_JSON).headers(changed));
+        SourceCursor cursor = new SourceCursor("\"6\"", null, Instant.EPOCH, Instant.now());
+
+        SourceFetch fetch = reader.readChanges("http://crm/customers?limit=2", Customer.class, 4, cursor, null,
+                customer -> {});
+
+        assertEquals(3, fetch.count());
+        assertTrue(fetch.delta(), "a read across versions must not report deletions");
+        assertNull(fetch.cursor().etag(), "the next read is unconditional");
+        assertFalse(fetch.cursor().allowsDelta(Duration.ofHours(1), Instant.now()), "and a full one");
+        server.verify();
+    }
+
+    @Test
+    public void testReadChanges_resumesOffsetPagesAtTheCheckpoint() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        reader = new PagedJsonReader(restTemplate, new ObjectMapper());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(PagedJsonReader.TOTAL_COUNT_HEADER, "7");
+        server.expect(requestTo("http://crm/customers?limit=2&offset=2"))
+                .andRespond(withSuccess("[{\"id\":\"3\"},{\"id\":\"4\"}]", MediaType.APPLICATION_JSON)
+                        .headers(headers));
+        server.expect(requestTo("http://crm/customers?limit=2&offset=4"))
+                .andRespond(withSuccess("[{\"id\":\"5\"},{\"id\":\"6\"}]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://crm/customers?limit=2&offset=6"))
+                .andRespond(withSuccess("[{\"id\":\"7\"}]", MediaType.APPLICATION_JSON));
+        SourceCursor started = new SourceCursor("\"8\"", null, Instant.EPOCH, Instant.EPOCH);
+        RunCheckpoint checkpoint = new RunCheckpoint("http://crm/customers?limit=2&offset=2", 2, started,
+                Instant.now());
+
+        List<String> ids = new ArrayList<>();
+        List<Long> pagesRead = new ArrayList<>();
+        SourceFetch fetch = reader.readChanges("http://crm/customers?limit=2", Customer.class, 4,
+                SourceCursor.EMPTY, null, checkpoint, new PageSink<Customer>() {
+                    @Override
+                    public void accept(Customer record, long page) {
+                        ids.add(record.getId());
+                    }
+
+                    @Override
+                    public void pageRead(long page, long records) {
+                        pagesRead.add(page);
+                    }
+                });
+
+        assertEquals(5, fetch.count());
+        assertEquals(Set.of("3", "4", "5", "6", "7"), Set.copyOf(ids));
+        assertEquals(Set.of(0L, 1L, 2L), Set.copyOf(pagesRead));
+        assertSame(started, fetch.cursor());
+        assertTrue(fetch.delta(), "a resumed read cannot tell deletions");
+        server.verify();
+    }
+
+    @Test
+    public void testRead_sinkFailuresAreNeitherRetriedNorHeldAgainstTheSource() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        reader = new PagedJsonReader(restTemplate, new ObjectMapper(), new SourceResilience(
+                new SourceResilience.Retry(3, Duration.ZERO, 2.0, 0.1, 10),
+                new SourceResilience.Breaker(50, 1, 0.5, Duration.ofSeconds(30)),
+                new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+                registry)).forSource("crm");
+        server.expect(requestTo("http://crm/customers"))
+                .andRespond(withSuccess("[{\"id\":\"1\"}]", MediaType.APPLICATION_JSON));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> reader.read("http://crm/customers", Customer.class, customer -> {
+                    throw new IllegalStateException("lane closed");
+                }));
+
+        assertEquals("lane closed", failure.getMessage());
+        server.verify();
+        assertEquals(0, registry.get("producer.source.requests").tag("outcome", "failure").counter().count());
+        assertEquals(0, registry.get("producer.source.retries").counter().count());
+    }
+
+    @Test
+    public void testRead_abortsTheRequestThatLostAHedgedRace() throws InterruptedException {
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch aborted = new CountDownLatch(1);
+        // The second request hangs until it is aborted; the first primes the latencies, the third is the hedge
+        RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+            int request = requests.incrementAndGet();
+            return new MockClientHttpRequest(method, uri) {
+                @Override
+                protected ClientHttpResponse executeInternal() throws IOException {
+                    if (request == 2) {
+                        try {
+                            Thread.sleep(Duration.ofSeconds(30));
+                        } catch (InterruptedException e) {
+                            aborted.countDown();
+                            throw new IOException("Request was interrupted", e);
+                        }
+                    }
+                    MockClientHttpResponse response = new MockClientHttpResponse(
+                            "[{\"id\":\"1\"}]".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    return response;
+                }
+            };
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        reader = new PagedJsonReader(restTemplate, new ObjectMapper(), new SourceResilience(
+                new SourceResilience.Retry(1, Duration.ZERO, 2.0, 1.0, 10),
+                new SourceResilience.Breaker(50, 50, 0.5, Duration.ofSeconds(30)),
+                new SourceResilience.Hedge(true, 0.95, 1, Duration.ofMillis(20)),
+                registry)).forSource("inventory");
+
+        List<Customer> customers = new ArrayList<>();
+        reader.read("http://inventory/products", Customer.class, customers::add);
+        reader.read("http://inventory/products", Customer.class, customers::add);
+
+        assertEquals(2, customers.size(), "the hedge answered the second read once");
+        assertEquals(1, registry.get("producer.source.hedges").counter().count());
+        assertTrue(aborted.await(5, TimeUnit.SECONDS), "the slower request is aborted");
+    }
+
+    @Test
+    public void testReadChanges_notModifiedSkipsTheSink() {
+        SourceCursor cursor = new SourceCursor("\"7\"", null, Instant.EPOCH, Instant.now());
+        server.expect(requestTo("http://crm/customers?limit=2"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        List<Customer> customers = new ArrayList<>();
+        SourceFetch fetch = reader.readChanges("http://crm/customers?limit=2", Customer.class, 1, cursor,
+                null, customers::add);
+
+        assertTrue(fetch.notModified());
+        assertSame(cursor, fetch.cursor());
+        assertTrue(customers.isEmpty());
+        server.verify();
+    }
+
+    @Test
+    public void testReadChanges_requestsDeltaAndAdvancesWatermarkToSourceDate() {
+        Instant watermark = Instant.parse("2026-01-01T00:00:00Z");
+        Instant lastFullSync = Instant.parse("2026-01-01T00:00:00Z");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"8\"");
+        headers.setDate(Instant.parse("2026-01-01T00:01:00Z").toEpochMilli());
+        server.expect(requestTo("http://crm/customers?limit=2&updatedSince=2026-01-01T00:00:00Z"))
+                .andRespond(withSuccess("[{\"id\":\"1\"}]", MediaType.APPLICATION_JSON).headers(headers));
+
+        List<Customer> customers = new ArrayList<>();
+        SourceFetch fetch = reader.readChanges("http://crm/customers?limit=2", Customer.class, 1,
+                new SourceCursor(null, null, watermark, lastFullSync), "updatedSince", customers::add);
+
+        assertTrue(fetch.delta());
+        assertEquals(1, fetch.count());
+        assertEquals(new SourceCursor("\"8\"", null, Instant.parse("2026-01-01T00:01:00Z"), lastFullSync),
+                fetch.cursor());
+        server.verify();
+    }
+}
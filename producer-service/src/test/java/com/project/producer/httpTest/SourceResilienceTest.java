@@ -0,0 +1,169 @@
+package com.project.producer.httpTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.http.CircuitOpenException;
+import com.project.producer.http.SourceResilience;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SourceResilienceTest {
+
+    private static final String CRM = "crm";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testCall_opensTheBreakerAndFailsFast() {
+        SourceResilience resilience = new SourceResilience(
+                new SourceResilience.Retry(1, Duration.ZERO, 2.0, 0.1, 10),
+                new SourceResilience.Breaker(4, 4, 0.5, Duration.ofHours(1)),
+                new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+                registry);
+        AtomicInteger sent = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> resilience.call(CRM, () -> {
+                sent.incrementAndGet();
+                throw new ResourceAccessException("Read timed out");
+            }));
+        }
+        assertThrows(CircuitOpenException.class, () -> resilience.call(CRM, sent::incrementAndGet));
+
+        assertEquals(4, sent.get(), "no request is sent while the breaker is open");
+        assertEquals(2, registry.get("producer.source.breaker.state").tag("source", "crm").gauge().value());
+        assertEquals(1, registry.get("producer.source.requests").tag("outcome", "rejected").counter().count());
+        // Other sources are unaffected, even on the same host
+        assertEquals(1, resilience.call("inventory", () -> 1));
+    }
+
+    @Test
+    public void testCall_retriesStopWhenTheBudgetIsSpent() {
+        SourceResilience resilience = new SourceResilience(
+                new SourceResilience.Retry(3, Duration.ZERO, 2.0, 0.0, 2),
+                new SourceResilience.Breaker(50, 50, 0.5, Duration.ofSeconds(30)),
+                new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+                registry);
+        AtomicInteger sent = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, () -> resilience.call(CRM, () -> {
+                sent.incrementAndGet();
+                throw new ResourceAccessException("Connection refused");
+            }));
+        }
+
+        // Two saved-up retries, then every request is sent once
+        assertEquals(5, sent.get());
+        assertEquals(2, registry.get("producer.source.retries").counter().count());
+    }
+
+    @Test
+    public void testCall_retriesDoNotEarnBudget() {
+        // Every new request earns a full retry, but only one can be saved up
+        SourceResilience resilience = new SourceResilience(
+                new SourceResilience.Retry(3, Duration.ZERO, 2.0, 1.0, 1),
+                new SourceResilience.Breaker(50, 50, 0.5, Duration.ofSeconds(30)),
+                new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+                registry);
+        AtomicInteger sent = new AtomicInteger();
+
+        assertThrows(ResourceAccessException.class, () -> resilience.call(CRM, () -> {
+            sent.incrementAndGet();
+            throw new ResourceAccessException("Connection refused");
+        }));
+
+        assertEquals(2, sent.get(), "a retry paying for the next retry would send all 3 attempts");
+    }
+
+    @Test
+    public void testCall_waitsForTheTrialRequestWhileHalfOpen() throws Exception {
+        SourceResilience resilience = new SourceResilience(
+                new SourceResilience.Retry(1, Duration.ZERO, 2.0, 0.1, 10),
+                new SourceResilience.Breaker(1, 1, 0.5, Duration.ofMillis(200)),
+                new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+                registry);
+        assertThrows(ResourceAccessException.class, () -> resilience.call(CRM, () -> {
+            throw new ResourceAccessException("Read timed out");
+        }));
+        Thread.sleep(250);
+
+        CountDownLatch trialSent = new CountDownLatch(1);
+        CountDownLatch recovered = new CountDownLatch(1);
+        CompletableFuture<Integer> trial = CompletableFuture.supplyAsync(() -> resilience.call(CRM, () -> {
+            trialSent.countDown();
+            await(recovered);
+            return 1;
+        }));
+        assertTrue(trialSent.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> parallel = CompletableFuture.supplyAsync(() -> resilience.call(CRM, () -> 2));
+        Thread.sleep(50);
+        assertFalse(parallel.isDone(), "a parallel request waits for the trial instead of failing");
+        recovered.countDown();
+
+        assertEquals(1, trial.get(5, TimeUnit.SECONDS));
+        assertEquals(2, parallel.get(5, TimeUnit.SECONDS));
+        assertEquals(0, registry.get("producer.source.requests").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    public void testCall_clientErrorsAreNotRetried() {
+        SourceResilience resilience = new SourceResilience(
+                new SourceResilience.Retry(3, Duration.ZERO, 2.0, 0.1, 10),
+                new SourceResilience.Breaker(50, 1, 0.5, Duration.ofSeconds(30)),
+                new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+                registry);
+        AtomicInteger sent = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> resilience.call(CRM, () -> {
+            sent.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        }));
+
+        assertEquals(1, sent.get());
+        assertEquals(1, resilience.call(CRM, () -> 1), "a 404 does not open the breaker");
+    }
+
+    @Test
+    public void testCall_onlySourceFailuresAreRetriedAndCounted() {
+        SourceResilience resilience = new SourceResilience(
+                new SourceResilience.Retry(2, Duration.ZERO, 2.0, 0.1, 10),
+                new SourceResilience.Breaker(50, 50, 0.5, Duration.ofSeconds(30)),
+                new SourceResilience.Hedge(false, 0.95, 20, Duration.ZERO),
+                registry);
+        AtomicInteger sent = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> resilience.call(CRM, () -> {
+            sent.incrementAndGet();
+            throw new IllegalStateException("not the source's fault");
+        }));
+        assertEquals(1, sent.get());
+        assertEquals(0, registry.get("producer.source.requests").tag("outcome", "failure").counter().count());
+        assertEquals(1, resilience.call(CRM, () -> 1));
+
+        assertThrows(HttpServerErrorException.class, () -> resilience.call(CRM, () -> {
+            sent.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }));
+        assertEquals(3, sent.get(), "a 503 is retried");
+        assertEquals(2, registry.get("producer.source.requests").tag("outcome", "failure").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.project.producer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.ProducerApplication;
+import com.project.producer.scheduler.ProducerScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end throughput and latency benchmark of the producer service.
+ * <p>
+ * For every scenario size the harness starts the whole application against
+ * an embedded single-node Kafka broker, with the in-process mock CRM and
+ * Inventory seeded with that many records split evenly across the selected
+ * sources. It then times one {@link ProducerScheduler#run()}, which fetches
+ * every source concurrently and waits until every event is acknowledged, and
+ * records:
+ * <ul>
+ *     <li>acknowledged records per second</li>
+ *     <li>serialized MiB per second handed to Kafka</li>
+ *     <li>fetch-to-ack latency percentiles per topic ({@code producer.record.latency})</li>
+ *     <li>peak heap use, sampled every {@value #HEAP_SAMPLE_MS} ms</li>
+ *     <li>GC pause time and count, from the stop-the-world collectors only</li>
+ * </ul>
+ * Every iteration gets a fresh application context and cursor directory, so
+ * no run is short-circuited by a {@code 304 Not Modified}. The broker and
+ * the mock sources share the JVM with the producer, so absolute numbers are
+ * only comparable between runs on the same machine and settings.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Ploadtest verify}; see the {@code loadtest} profile
+ * in {@code pom.xml}. Settings are system properties:
+ * <pre>{@code
+ * loadtest.records=10000,1000000,10000000   scenario sizes
+ * loadtest.sources=crm,inventory            sources the records are split across
+ * loadtest.partitions=6                     partitions per topic
+ * loadtest.iterations=1                     measured runs per scenario
+ * }</pre>
+ * The mock CRM keeps its customers in memory (about 200 bytes each), so large
+ * scenarios need a matching {@code -Xmx}, or {@code loadtest.sources=inventory},
+ * whose catalog is generated on the fly.
+ * </p>
+ */
+public final class LoadTestHarness {
+
+    private static final List<String> TOPICS = List.of("customer_data", "inventory_data");
+
+    private static final long HEAP_SAMPLE_MS = 20;
+
+    private final EmbeddedKafkaBroker broker;
+
+    private final List<String> sources;
+
+    private LoadTestHarness(EmbeddedKafkaBroker broker, List<String> sources) {
+        this.broker = broker;
+        this.sources = sources;
+    }
+
+    /**
+     * @param args the path of the JSON report, {@code target/loadtest-result.json} by default
+     */
+    public static void main(String[] args) throws Exception {
+        List<Long> sizes = Arrays.stream(System.getProperty("loadtest.records", "10000,1000000,10000000").split(","))
+                .map(String::trim).map(Long::parseLong).toList();
+        List<String> sources = Arrays.stream(System.getProperty("loadtest.sources", "crm,inventory").split(","))
+                .map(String::trim).toList();
+        int partitions = Integer.getInteger("loadtest.partitions", 6);
+        int iterations = Integer.getInteger("loadtest.iterations", 1);
+        Path output = Path.of(args.length > 0 ? args[0] : "target/loadtest-result.json");
+
+        String startedAt = Instant.now().toString();
+        List<LoadTestReport.Scenario> scenarios = new ArrayList<>();
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaKraftBroker(1, partitions, TOPICS.toArray(String[]::new));
+        broker.afterPropertiesSet();
+        try {
+            LoadTestHarness harness = new LoadTestHarness(broker, sources);
+            for (long records : sizes) {
+                for (int iteration = 1; iteration <= iterations; iteration++) {
+                    LoadTestReport.Scenario scenario = harness.run(records, iteration);
+                    System.out.printf("records=%d iteration=%d %.0f records/s %.1f MiB/s latency=%s"
+                                    + " peakHeap=%d MiB gc=%d ms%n",
+                            records, iteration, scenario.recordsPerSecond(), scenario.megabytesPerSecond(),
+                            scenario.latencyMs(), scenario.peakHeapBytes() >> 20, scenario.gcPauseMs());
+                    scenarios.add(scenario);
+                }
+            }
+        } finally {
+            broker.destroy();
+        }
+
+        LoadTestReport report = new LoadTestReport(startedAt, System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory(),
+                ManagementFactory.getGarbageCollectorMXBeans().stream().map(GarbageCollectorMXBean::getName).toList(),
+                sources, partitions, scenarios);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        System.out.println("Load test report written to " + output.toAbsolutePath());
+    }
+
+    private LoadTestReport.Scenario run(long records, int iteration) throws IOException {
+        Path stateDir = Files.createTempDirectory("producer-loadtest-state");
+        int port = freePort();
+        long perSource = records / sources.size();
+        long crmRecords = sources.contains("crm") ? perSource : 0;
+        long inventoryRecords = sources.contains("inventory") ? records - crmRecords : 0;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProducerApplication.class)
+                .properties(
+                        "server.port=" + port,
+                        "spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "crm.base-url=http://localhost:" + port,
+                        "inventory.base-url=http://localhost:" + port,
+                        "mock.crm.seed-count=" + crmRecords,
+                        "mock.inventory.catalog-size=" + inventoryRecords,
+                        "producer.scheduler.enabled=false",
+                        "producer.spool.enabled=false",
+                        "producer.sync.incremental=false",
+                        "producer.sync.state-dir=" + stateDir,
+                        "management.metrics.distribution.percentiles.producer.record.latency=0.5,0.9,0.99,0.999",
+                        // Percentiles over the whole run rather than a rolling window.
+                        "management.metrics.distribution.expiry.producer.record.latency=24h",
+                        "management.metrics.distribution.buffer-length.producer.record.latency=1",
+                        "logging.level.org.apache.kafka=WARN")
+                .run();
+        try {
+            ProducerScheduler scheduler = context.getBean(ProducerScheduler.class);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+            System.gc();
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+            long gcTimeBefore = gcTime();
+            long gcCountBefore = gcCount();
+            AtomicLong peakHeap = new AtomicLong(baselineHeap);
+            Thread sampler = Thread.ofVirtual().name("loadtest-heap-sampler").start(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    try {
+                        Thread.sleep(HEAP_SAMPLE_MS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+
+            long start = System.nanoTime();
+            scheduler.run();
+            long durationNanos = System.nanoTime() - start;
+
+            sampler.interrupt();
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+
+            long acked = registry.find("producer.publish.ack").tag("outcome", "success").timers().stream()
+                    .mapToLong(Timer::count).sum();
+            long failed = (long) registry.find("producer.publish.failures").counters().stream()
+                    .mapToDouble(Counter::count).sum();
+            long bytes = (long) registry.find("producer.bytes.out").counters().stream()
+                    .mapToDouble(Counter::count).sum();
+            double seconds = durationNanos / 1e9;
+            return new LoadTestReport.Scenario(records, iteration, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                    acked, failed, acked / seconds, bytes, bytes / seconds / (1 << 20), latency(registry),
+                    baselineHeap, peakHeap.get(), gcTime() - gcTimeBefore, gcCount() - gcCountBefore);
+        } finally {
+            context.close();
+            FileSystemUtils.deleteRecursively(stateDir);
+        }
+    }
+
+    private static Map<String, Map<String, Double>> latency(MeterRegistry registry) {
+        Map<String, Map<String, Double>> byTopic = new LinkedHashMap<>();
+        for (Timer timer : registry.find("producer.record.latency").timers()) {
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                // 0.5 -> p50, 0.999 -> p999
+                String name = "p" + BigDecimal.valueOf(value.percentile()).movePointRight(2)
+                        .stripTrailingZeros().toPlainString().replace(".", "");
+                percentiles.put(name, value.value(TimeUnit.MILLISECONDS));
+            }
+            percentiles.put("max", timer.max(TimeUnit.MILLISECONDS));
+            byTopic.put(timer.getId().getTag("topic"), percentiles);
+        }
+        return byTopic;
+    }
+
+    private static long gcTime() {
+        return pauseCollectors().mapToLong(gc -> Math.max(0, gc.getCollectionTime())).sum();
+    }
+
+    private static long gcCount() {
+        return pauseCollectors().mapToLong(gc -> Math.max(0, gc.getCollectionCount())).sum();
+    }
+
+    // Concurrent collectors ("G1 Concurrent GC", "ZGC Cycles", ...) report time
+    // spent alongside the application threads, which is no pause at all
+    private static Stream<GarbageCollectorMXBean> pauseCollectors() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(gc -> !gc.getName().contains("Concurrent") && !gc.getName().endsWith("Cycles"));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
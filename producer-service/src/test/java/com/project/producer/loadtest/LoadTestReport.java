@@ -0,0 +1,46 @@
+package com.project.producer.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of one {@link LoadTestHarness} invocation, written
+ * as JSON so that runs of different builds on the same machine can be diffed.
+ *
+ * @param startedAt           ISO-8601 start time of the invocation
+ * @param javaVersion         {@code java.version} of the JVM
+ * @param availableProcessors CPUs visible to the JVM
+ * @param maxHeapBytes        {@code -Xmx} of the JVM
+ * @param garbageCollectors   names of the active collectors
+ * @param sources             connectors driven by every scenario
+ * @param partitions          partitions per topic on the embedded broker
+ * @param scenarios           one entry per scenario and iteration
+ */
+public record LoadTestReport(String startedAt, String javaVersion, int availableProcessors, long maxHeapBytes,
+                             List<String> garbageCollectors, List<String> sources, int partitions,
+                             List<Scenario> scenarios) {
+
+    /**
+     * Measurements of one production run over {@code records} source records.
+     *
+     * @param records            records served by the mock sources
+     * @param iteration          1-based iteration of this scenario
+     * @param durationMs         wall-clock time of {@code ProducerScheduler.run()}
+     * @param acked              records acknowledged by the broker
+     * @param failed             records that could not be published
+     * @param recordsPerSecond   acknowledged records per second
+     * @param bytesToKafka       serialized value bytes handed to the producer
+     * @param megabytesPerSecond {@code bytesToKafka} per second, in MiB
+     * @param latencyMs          fetch-to-ack latency per topic, keyed {@code p50}, {@code p90},
+     *                           {@code p99}, {@code p999} and {@code max}
+     * @param baselineHeapBytes  heap in use after startup and seeding, before the run
+     * @param peakHeapBytes      highest sampled heap use during the run
+     * @param gcPauseMs          collection time reported by the stop-the-world collectors during the run
+     * @param gcCount            stop-the-world collections during the run
+     */
+    public record Scenario(long records, int iteration, long durationMs, long acked, long failed,
+                           double recordsPerSecond, long bytesToKafka, double megabytesPerSecond,
+                           Map<String, Map<String, Double>> latencyMs, long baselineHeapBytes, long peakHeapBytes,
+                           long gcPauseMs, long gcCount) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.producer.mockTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.mock.CustomerStore;
+import com.project.producer.model.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class CustomerStoreTest {
+
+    private CustomerStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new CustomerStore();
+        for (int i = 1; i <= 5; i++) {
+            store.put(new Customer("C" + i, "Customer " + i, "c" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    public void testAfter_pagesByCursorInIdOrder() {
+        List<Customer> first = store.after(null, 2);
+        List<Customer> second = store.after(first.get(1).getId(), 2);
+        List<Customer> last = store.after(second.get(1).getId(), 2);
+
+        assertEquals(List.of("C1", "C2"), first.stream().map(Customer::getId).toList());
+        assertEquals(List.of("C3", "C4"), second.stream().map(Customer::getId).toList());
+        assertEquals(List.of("C5"), last.stream().map(Customer::getId).toList());
+    }
+
+    @Test
+    public void testShards_pageOnlyTheCustomersOfTheRequestedShards() {
+        ShardAssignment shards = new ShardAssignment(2, Set.of(1));
+        List<String> owned = store.all().stream().map(Customer::getId).filter(shards::owns).toList();
+
+        CustomerStore.Snapshot snapshot = store.snapshot(shards);
+        assertEquals(owned, List.of(snapshot.customers()).stream().map(Customer::getId).toList());
+        assertSame(snapshot, store.snapshot(shards));
+        List<Customer> first = store.after(null, 1, shards);
+        assertEquals(owned.subList(0, 1), first.stream().map(Customer::getId).toList());
+        assertEquals(owned.subList(1, owned.size()),
+                store.after(first.get(0).getId(), 10, shards).stream().map(Customer::getId).toList());
+    }
+
+    @Test
+    public void testVersion_changesOnlyWhenContentChanges() {
+        long version = store.version();
+
+        store.put(new Customer("C1", "Customer 1", "c1@example.com"));
+        assertEquals(version, store.version());
+
+        store.put(new Customer("C1", "Customer 1", "new@example.com"));
+        assertNotEquals(version, store.version());
+    }
+
+    @Test
+    public void testSnapshot_isReusedUntilTheStoreChanges() {
+        CustomerStore.Snapshot snapshot = store.snapshot();
+        assertSame(snapshot, store.snapshot());
+        assertEquals(List.of("C3", "C4"), snapshot.page(2, 2).stream().map(Customer::getId).toList());
+
+        store.remove("C1");
+        assertEquals(4, store.size());
+        assertNotSame(snapshot, store.snapshot());
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.producer.mockTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.mock.MockInventoryProperties;
+import com.project.producer.mock.ProductCatalog;
+import com.project.producer.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class MockInventoryTest {
+
+    @Test
+    public void testCatalog_isDeterministicAndClipsPages() {
+        ProductCatalog catalog = new ProductCatalog(10, 7);
+
+        assertEquals(catalog.product(3), new ProductCatalog(10, 7).product(3));
+        assertEquals(2, catalog.page(8, 5).size());
+        assertEquals("P00000008", catalog.page(8, 5).get(0).getId());
+        assertTrue(catalog.page(20, 5).isEmpty());
+    }
+
+    @Test
+    public void testCatalog_pagesThroughTheProductsOfTheRequestedShards() {
+        ProductCatalog catalog = new ProductCatalog(20, 7);
+        ShardAssignment shards = new ShardAssignment(3, Set.of(0, 2));
+        List<String> owned = catalog.page(0, 20).stream().map(Product::getId)
+                .filter(shards::owns).toList();
+
+        assertEquals(owned.size(), catalog.size(shards));
+        assertEquals(owned.subList(2, 5),
+                catalog.page(2, 3, shards).stream().map(Product::getId).toList());
+        assertTrue(catalog.page(owned.size(), 3, shards).isEmpty());
+    }
+
+    @Test
+    public void testLongTailLatency_isCappedAndSkewed() {
+        MockInventoryProperties.Faults faults = new MockInventoryProperties.Faults();
+        faults.setLatency(MockInventoryProperties.Latency.LONG_TAIL);
+        faults.setLatencyMs(50);
+        faults.setTailSigma(1.5);
+        faults.setMaxLatencyMs(2000);
+
+        SplittableRandom random = new SplittableRandom(1);
+        long slow = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long latency = faults.sampleLatencyMs(random);
+            assertTrue(latency >= 0 && latency <= 2000);
+            if (latency > 500) {
+                slow++;
+            }
+        }
+        // P(latency > 10x median) for sigma 1.5 is about 6%
+        assertTrue(slow > 200 && slow < 1000, "slow=" + slow);
+    }
+}
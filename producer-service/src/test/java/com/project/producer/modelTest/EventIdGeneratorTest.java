@@ -0,0 +1,91 @@
+package com.project.producer.modelTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.model.ContentDerivedEventIdGenerator;
+import com.project.producer.model.Customer;
+import com.project.producer.model.EventIdGenerator;
+import com.project.producer.model.TimeOrderedEventIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+public class EventIdGeneratorTest {
+
+    @Test
+    public void testTimeOrdered_isMonotonicVersion7() {
+        TimeOrderedEventIdGenerator generator = new TimeOrderedEventIdGenerator();
+
+        UUID previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.next();
+            assertEquals(7, next.version());
+            assertEquals(2, next.variant());
+            assertTrue(next.toString().compareTo(previous.toString()) > 0, next + " <= " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void testContentDerived_isDeterministicPerContent() {
+        EventIdGenerator generator = new ContentDerivedEventIdGenerator();
+        Customer alice = new Customer("1", "Alice", "alice@example.com");
+
+        String first = generator.generate("CUSTOMER_UPDATE", "CRM", alice);
+        String retry = generator.generate("CUSTOMER_UPDATE", "CRM", new Customer("1", "Alice", "alice@example.com"));
+        String changed = generator.generate("CUSTOMER_UPDATE", "CRM", new Customer("1", "Alice", "alice@example.org"));
+        String otherType = generator.generate("CUSTOMER_CREATE", "CRM", alice);
+
+        assertEquals(first, retry);
+        assertNotEquals(first, changed);
+        assertNotEquals(first, otherType);
+        assertEquals(8, UUID.fromString(first).version());
+    }
+
+    @Test
+    public void testContentDerived_isTheSameAcrossRestarts() {
+        Customer alice = new Customer("1", "Alice", "alice@example.com");
+
+        String before = new ContentDerivedEventIdGenerator().generate("CUSTOMER_UPDATE", "CRM", alice);
+        String after = new ContentDerivedEventIdGenerator().generate("CUSTOMER_UPDATE", "CRM", alice);
+
+        assertEquals(before, after, "a run repeated after a restart must reuse the ids");
+    }
+
+    @Test
+    public void testContentDerived_revertToAnEarlierStateGetsANewId() {
+        EventIdGenerator generator = new ContentDerivedEventIdGenerator();
+
+        String a = generator.generate("CUSTOMER_UPDATE", "CRM", customer("alice@example.com", "2024-01-01T00:00:00Z"));
+        String b = generator.generate("CUSTOMER_UPDATE", "CRM", customer("alice@example.org", "2024-01-02T00:00:00Z"));
+        String revert = generator.generate("CUSTOMER_UPDATE", "CRM",
+                customer("alice@example.com", "2024-01-03T00:00:00Z"));
+        String retry = generator.generate("CUSTOMER_UPDATE", "CRM",
+                customer("alice@example.com", "2024-01-03T00:00:00Z"));
+
+        assertNotEquals(a, b);
+        assertNotEquals(a, revert, "the consumer would drop the revert as a duplicate of the first event");
+        assertEquals(revert, retry);
+    }
+
+    @Test
+    public void testContentDerived_keepsEntitiesApart() {
+        EventIdGenerator generator = new ContentDerivedEventIdGenerator();
+
+        String first = generator.generate("CUSTOMER_UPDATE", "CRM", Map.of("id", "1", "name", "Alice"));
+        String other = generator.generate("CUSTOMER_UPDATE", "CRM", Map.of("id", "2", "name", "Alice"));
+        String noId = generator.generate("CUSTOMER_UPDATE", "CRM", Map.of("name", "Alice"));
+        String noIdAgain = generator.generate("CUSTOMER_UPDATE", "CRM", Map.of("name", "Alice"));
+
+        assertNotEquals(first, other);
+        assertNotEquals(noId, noIdAgain);
+        assertEquals(7, UUID.fromString(noId).version());
+    }
+
+    private static Customer customer(String email, String updatedAt) {
+        Customer customer = new Customer("1", "Alice", email);
+        customer.putExtra("updatedAt", updatedAt);
+        return customer;
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.producer.publisherTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.config.ProducerProfiles;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.spool.EventSpool;
+import com.project.producer.publisher.DeleteMode;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisher.PublishSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+public class KafkaEventPublisherTest {
+
+    private MockProducer<String, Object> producer;
+
+    private KafkaEventPublisher publisher;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        producer = MockProducers.keptOpen(false);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        registry = new SimpleMeterRegistry();
+        publisher = new KafkaEventPublisher(new ProducerProfiles("default", Map.of("default", template), Map.of()),
+                new PipelineMetrics(registry), EventSpool.disabled());
+        ReflectionTestUtils.setField(publisher, "maxInFlight", 100);
+    }
+
+    @Test
+    public void testPublishAll_summarizesSentAndFailed() {
+        PublishBatch batch = publisher.openBatch("customer_data");
+        batch.send("1", "a");
+        batch.send("2", "b");
+        batch.send("3", "c");
+
+        producer.completeNext();
+        producer.completeNext();
+        producer.errorNext(new RuntimeException("broker down"));
+
+        PublishSummary summary = batch.complete().join();
+        assertEquals(2, summary.sent());
+        assertEquals(1, summary.failed());
+        assertEquals(new PublishSummary.OffsetRange(0, 1), summary.offsets().get(0));
+    }
+
+    @Test
+    public void testPublishAll_flushesAndReportsEverySend() {
+        // publishAll flushes at the end of the run, which completes every pending send
+        PublishSummary summary = publisher.publishAll("customer_data", List.of("a", "b"), value -> value).join();
+
+        assertEquals(2, summary.sent());
+        assertEquals(0, summary.failed());
+        assertEquals(2, producer.history().size());
+    }
+
+    @Test
+    public void testBatch_recordsAckLatencyAndFailures() {
+        PublishBatch batch = publisher.openBatch("customer_data");
+        batch.send("1", "a", System.nanoTime());
+        batch.send("2", "b", System.nanoTime());
+        assertEquals(2, registry.get("producer.publish.in.flight").gauge().value());
+
+        producer.completeNext();
+        producer.errorNext(new RuntimeException("broker down"));
+        PublishSummary summary = batch.complete().join();
+
+        assertEquals(1, summary.sent());
+        assertEquals(1, summary.failed());
+        assertEquals(1, registry.get("producer.publish.ack").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("producer.publish.ack").tag("outcome", "failure").timer().count());
+        assertEquals(1, registry.get("producer.publish.failures").tag("topic", "customer_data").counter().count());
+        // Only the acknowledged record has a fetch-to-ack latency
+        assertEquals(1, registry.get("producer.record.latency").tag("topic", "customer_data").timer().count());
+        assertEquals(0, registry.get("producer.publish.in.flight").gauge().value());
+    }
+
+    @Test
+    public void testDelete_sendsEventThenTombstoneWithTheSameKey() {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        publisher = new KafkaEventPublisher(new ProducerProfiles("default", Map.of("default", template), Map.of(),
+                Map.of("customer_data", DeleteMode.BOTH)), new PipelineMetrics(registry), EventSpool.disabled());
+        ReflectionTestUtils.setField(publisher, "maxInFlight", 100);
+
+        PublishBatch batch = publisher.openBatch("customer_data");
+        batch.delete("C1", "delete-event");
+        batch.complete().join();
+
+        assertEquals(2, producer.history().size());
+        assertEquals("delete-event", producer.history().get(0).value());
+        assertEquals("C1", producer.history().get(1).key());
+        assertNull(producer.history().get(1).value());
+    }
+
+    @Test
+    public void testOpenBatch_rejectsANonPositiveInFlightLimit() {
+        ReflectionTestUtils.setField(publisher, "maxInFlight", 0);
+
+        assertThrows(IllegalArgumentException.class, () -> publisher.openBatch("customer_data"));
+    }
+}
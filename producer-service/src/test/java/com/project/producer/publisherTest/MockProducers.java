@@ -0,0 +1,32 @@
+package com.project.producer.publisherTest;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Duration;
+
+/**
+ * MockProducer fixtures shared by the publisher, spool and benchmark tests.
+ */
+public final class MockProducers {
+
+    private MockProducers() {
+    }
+
+    /**
+     * A non-transactional KafkaTemplate closes its producer after every send,
+     * so the one MockProducer the assertions look at has to survive that.
+     *
+     * @param autoComplete whether sends complete immediately
+     * @return a producer whose {@code close} is a no-op
+     */
+    public static MockProducer<String, Object> keptOpen(boolean autoComplete) {
+        return new MockProducer<>(autoComplete, new StringSerializer(), new JsonSerializer<>()) {
+            @Override
+            public void close(Duration timeout) {
+                // Kept open for the next send of the test.
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.producer.publisherTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.config.ProducerProfiles;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.spool.EventSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@EmbeddedKafka(partitions = 1, topics = "customer_data")
+public class TransactionalPublishBrokerTest {
+
+    @Test
+    public void testAbortedRun_isInvisibleToReadCommittedConsumers(EmbeddedKafkaBroker broker) {
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(
+                Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()),
+                new StringSerializer(), new JsonSerializer<>());
+        factory.setTransactionIdPrefix("producer-service-tx-test-default-");
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(factory);
+        template.setAllowNonTransactional(true);
+        KafkaEventPublisher publisher = new KafkaEventPublisher(
+                new ProducerProfiles("default", Map.of("default", template), Map.of()),
+                new PipelineMetrics(new SimpleMeterRegistry()), EventSpool.disabled());
+        ReflectionTestUtils.setField(publisher, "maxInFlight", 100);
+        ReflectionTestUtils.setField(publisher, "transactionMode", "run");
+
+        PublishBatch failed = publisher.openBatch("customer_data");
+        failed.send("1", "aborted-1");
+        failed.send("2", "aborted-2");
+        failed.abort().join();
+        PublishBatch next = publisher.openBatch("customer_data");
+        next.send("3", "committed");
+        assertEquals(1, next.complete().join().sent());
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("read-committed", "false", broker);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<String> values = new ArrayList<>();
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, "customer_data");
+            for (ConsumerRecord<String, String> record
+                    : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 1)) {
+                values.add(record.value());
+            }
+        }
+        factory.destroy();
+
+        assertEquals(List.of("\"committed\""), values, "nothing of the aborted run may be visible");
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.producer.publisherTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.config.ProducerProfiles;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisher.PublishSummary;
+import com.project.producer.spool.EventSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+public class TransactionalPublishTest {
+
+    private MockProducer<String, Object> producer;
+
+    private KafkaEventPublisher publisher;
+
+    @BeforeEach
+    public void setUp() {
+        producer = new MockProducer<>(true, new StringSerializer(), new JsonSerializer<>());
+        producer.initTransactions();
+        KafkaTemplate<String, Object> template =
+                new KafkaTemplate<>(new MockProducerFactory<>((tx, id) -> producer, "tx-"));
+        template.setAllowNonTransactional(true);
+        publisher = new KafkaEventPublisher(new ProducerProfiles("default", Map.of("default", template), Map.of()),
+                new PipelineMetrics(new SimpleMeterRegistry()), EventSpool.disabled());
+        ReflectionTestUtils.setField(publisher, "maxInFlight", 100);
+        ReflectionTestUtils.setField(publisher, "transactionMode", "run");
+    }
+
+    @Test
+    public void testRunMode_commitsTheWholeBatchOnComplete() {
+        PublishBatch batch = publisher.openBatch("customer_data");
+        batch.send("1", "a");
+        batch.send("2", "b");
+        assertTrue(producer.history().isEmpty());
+
+        PublishSummary summary = batch.complete().join();
+
+        assertEquals(2, summary.sent());
+        assertEquals(0, summary.failed());
+        assertTrue(producer.transactionCommitted());
+        assertEquals(2, producer.history().size());
+    }
+
+    @Test
+    public void testAbort_discardsTheOpenTransaction() {
+        PublishBatch batch = publisher.openBatch("customer_data");
+        batch.send("1", "a");
+        batch.send("2", "b");
+
+        PublishSummary summary = batch.abort().join();
+
+        assertEquals(0, summary.sent());
+        assertEquals(2, summary.failed());
+        assertTrue(producer.transactionAborted());
+        assertTrue(producer.history().isEmpty());
+    }
+
+    @Test
+    public void testChunkMode_commitsEveryChunk() {
+        ReflectionTestUtils.setField(publisher, "transactionMode", "chunk");
+        ReflectionTestUtils.setField(publisher, "transactionChunkSize", 2);
+        PublishBatch batch = publisher.openBatch("customer_data");
+        batch.send("1", "a");
+        batch.send("2", "b");
+        batch.send("3", "c");
+        assertEquals(2, producer.history().size());
+
+        // Aborting only discards the chunk that is still open.
+        PublishSummary summary = batch.abort().join();
+
+        assertEquals(2, summary.sent());
+        assertEquals(1, summary.failed());
+        assertEquals(2, producer.history().size());
+    }
+
+    @Test
+    public void testOpenBatch_rejectsNonTransactionalProfile() {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        KafkaEventPublisher plain = new KafkaEventPublisher(
+                new ProducerProfiles("default", Map.of("default", template), Map.of()),
+                new PipelineMetrics(new SimpleMeterRegistry()), EventSpool.disabled());
+        ReflectionTestUtils.setField(plain, "transactionMode", "run");
+
+        assertThrows(IllegalStateException.class, () -> plain.openBatch("customer_data"));
+    }
+}
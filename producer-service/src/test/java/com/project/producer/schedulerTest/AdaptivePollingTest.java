@@ -0,0 +1,52 @@
+package com.project.producer.schedulerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.scheduler.AdaptivePolling;
+import com.project.producer.scheduler.PollingPolicy.PollingDelay;
+import com.project.producer.service.RunReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class AdaptivePollingTest {
+
+    private static final AdaptivePolling.Settings SETTINGS =
+            new AdaptivePolling.Settings(1_000, 60_000, 100, 2.0, 500);
+
+    @Test
+    public void testNext_backsOffWhileIdleAndShortensWhileBusy() {
+        RunReport idle = new RunReport(10, 0, true, Duration.ZERO);
+        AdaptivePolling polling = new AdaptivePolling(10_000, SETTINGS);
+
+        assertEquals(new PollingDelay(20_000, "idle"), polling.next(true, idle));
+        assertEquals(new PollingDelay(40_000, "idle"), polling.next(true, idle));
+        assertEquals(new PollingDelay(60_000, "idle"), polling.next(true, idle), "capped at the maximum");
+
+        assertEquals(new PollingDelay(30_000, "busy"), polling.next(true, new RunReport(500, 500, false,
+                Duration.ofMillis(100))));
+        assertEquals(new PollingDelay(30_000, "steady"), polling.next(true, new RunReport(500, 5, false,
+                Duration.ofMillis(100))));
+        assertEquals(new PollingDelay(60_000, "failed"), polling.next(false, null));
+    }
+
+    @Test
+    public void testNext_keepsTheDelayWhenNothingRan() {
+        RunReport busy = new RunReport(500, 500, false, Duration.ofMillis(100));
+        AdaptivePolling polling = new AdaptivePolling(10_000, SETTINGS);
+
+        assertEquals(new PollingDelay(5_000, "busy"), polling.next(true, busy));
+        // A skipped run must not shorten the delay again on the previous run's report
+        assertEquals(new PollingDelay(5_000, "no-report"), polling.next(true, null));
+        assertEquals(new PollingDelay(5_000, "no-report"), polling.next(true, null));
+    }
+
+    @Test
+    public void testNext_stretchesTheDelayWhenTheSourceIsSlow() {
+        // Busy, but pages take 1.5x the latency target
+        RunReport slow = new RunReport(500, 500, false, Duration.ofMillis(750));
+        AdaptivePolling polling = new AdaptivePolling(10_000, SETTINGS);
+
+        assertEquals(new PollingDelay(15_000, "slow-source"), polling.next(true, slow));
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.producer.serializationTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.model.BaseEvent;
+import com.project.producer.serialization.BaseEventAvroDeserializer;
+import com.project.producer.serialization.BaseEventAvroSerializer;
+import com.project.producer.serialization.EventWireFormat;
+import com.project.producer.serialization.JsonEventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class BaseEventAvroSerializerTest {
+
+    private final BaseEvent<Object> event = new BaseEvent<>("CUSTOMER_UPDATE", "CRM", Map.of(
+            "id", "42",
+            "name", "Alice",
+            "active", true,
+            "score", 12.5,
+            "visits", 7,
+            "tags", List.of("vip", "newsletter"),
+            "address", Map.of("city", "Nairobi")));
+
+    @Test
+    public void testRoundTrip_preservesEnvelopeAndPayload() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = new BaseEventAvroSerializer().serialize("customer_data", headers, event);
+
+        assertTrue(EventWireFormat.isAvro(headers));
+        BaseEvent<Object> decoded = new BaseEventAvroDeserializer().deserialize("customer_data", headers, bytes);
+
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals(event.getEventType(), decoded.getEventType());
+        assertEquals(event.getSourceSystem(), decoded.getSourceSystem());
+        assertEquals(event.getTimestamp().toEpochMilli(), decoded.getTimestamp().toEpochMilli());
+
+        Map<?, ?> payload = (Map<?, ?>) decoded.getPayload();
+        assertEquals("Alice", payload.get("name"));
+        assertEquals(7L, payload.get("visits"));
+        assertEquals(List.of("vip", "newsletter"), payload.get("tags"));
+        assertEquals(Map.of("city", "Nairobi"), payload.get("address"));
+    }
+
+    @Test
+    public void testSerialize_isSmallerThanJson() {
+        byte[] avro = new BaseEventAvroSerializer().serialize("customer_data", new RecordHeaders(), event);
+        byte[] json = new JsonSerializer<>().serialize("customer_data", event);
+
+        assertTrue(avro.length < json.length, "avro=" + avro.length + " json=" + json.length);
+    }
+
+    @Test
+    public void testDeserialize_fallsBackToJsonWithoutHeader() {
+        byte[] json = new JsonSerializer<>().noTypeInfo().serialize("customer_data", event);
+
+        BaseEvent<Object> decoded = new BaseEventAvroDeserializer().deserialize("customer_data", new RecordHeaders(), json);
+
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals("Alice", ((Map<?, ?>) decoded.getPayload()).get("name"));
+    }
+
+    @Test
+    public void testJsonSerializer_marksTheContentType() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = new JsonEventSerializer().serialize("customer_data", headers, event);
+
+        assertEquals(EventWireFormat.JSON_CONTENT_TYPE, new String(
+                headers.lastHeader(EventWireFormat.CONTENT_TYPE_HEADER).value(), StandardCharsets.UTF_8));
+        assertFalse(EventWireFormat.isAvro(headers));
+        BaseEvent<Object> decoded = new BaseEventAvroDeserializer().deserialize("customer_data", headers, json);
+        assertEquals(event.getEventId(), decoded.getEventId());
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.producer.seviceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.client;
+import com.project.producer.connector.CrmConnector;
+import com.project.producer.connector.InventoryConnector;
+import com.project.producer.connector.SourceConnectors;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.model.TimeOrderedEventIdGenerator;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisher.PublishSummary;
+import com.project.producer.publisher.RecordKeyStrategy;
+import com.project.producer.service.IngestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@ExtendWith(MockitoExtension.class)
+public class IngestServiceTest {
+
+    @Mock
+    private KafkaEventPublisher publisher;
+
+    @Mock
+    private PublishBatch batch;
+
+    private IngestService ingestService;
+
+    @BeforeEach
+    public void setUp() {
+        SourceConnectors connectors = new SourceConnectors(List.of(
+                new CrmConnector(mock(client.CrmClient.class)),
+                new InventoryConnector(mock(client.InventoryClient.class))));
+        ingestService = new IngestService(connectors, publisher, TimeOrderedEventIdGenerator.INSTANCE,
+                RecordKeyStrategy.ENTITY_ID, new PipelineMetrics(new SimpleMeterRegistry()), new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(ingestService, "maxConcurrentRequests", 8);
+        ReflectionTestUtils.setField(ingestService, "maxInFlight", 100);
+    }
+
+    @Test
+    public void testIngest_publishesEveryNdjsonRecordKeyedByEntity() {
+        when(publisher.openBatch("customer_data")).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 2, 0, Map.of(), 3)));
+
+        IngestService.IngestSummary summary = ingestService.ingest("crm", "update", body("""
+                {"id":"C1","name":"Alice","email":"alice@example.com"}
+                {"id":"C2","name":"Bob","email":"bob@example.com"}
+                """)).orElseThrow();
+
+        InOrder order = inOrder(batch);
+        order.verify(batch).send(eq("C1"), any());
+        order.verify(batch).send(eq("C2"), any());
+        order.verify(batch).complete();
+        assertEquals(2, summary.received());
+        assertEquals(2, summary.accepted());
+        assertNull(summary.error());
+    }
+
+    @Test
+    public void testIngest_reportsRecordsReadBeforeMalformedJson() {
+        when(publisher.openBatch("inventory_data")).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("inventory_data", 1, 0, Map.of(), 1)));
+
+        IngestService.IngestSummary summary = ingestService.ingest("inventory", "delete", body("""
+                {"id":"P1","sku":"SKU-1"}
+                {"id":
+                """)).orElseThrow();
+
+        verify(batch).delete(eq("P1"), any());
+        assertEquals(1, summary.received());
+        assertNotNull(summary.error());
+    }
+
+    @Test
+    public void testIngest_publishFailuresAreNotReportedAsBadInput() {
+        when(publisher.openBatch("customer_data")).thenReturn(batch);
+        when(batch.abort()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 0, 1, Map.of(), 1)));
+        doThrow(new SerializationException("cannot serialize")).when(batch).send(any(), any());
+
+        assertThrows(SerializationException.class, () -> ingestService.ingest("crm", "update", body("""
+                {"id":"C1","name":"Alice","email":"alice@example.com"}
+                """)));
+        verify(batch).abort();
+        verify(batch, never()).complete();
+    }
+
+    @Test
+    public void testIngest_refusedWhenKafkaIsSaturated() {
+        ReflectionTestUtils.setField(ingestService, "maxInFlight", -1);
+
+        assertTrue(ingestService.ingest("crm", "update", body("{}")).isEmpty());
+        verifyNoInteractions(publisher);
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
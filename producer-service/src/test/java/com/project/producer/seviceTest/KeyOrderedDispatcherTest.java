@@ -0,0 +1,45 @@
+package com.project.producer.seviceTest;
+
+import com.project.producer.service.KeyOrderedDispatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyOrderedDispatcherTest {
+
+    @Test
+    void tasksWithTheSameKeyRunInSubmissionOrder() {
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        try (KeyOrderedDispatcher lanes = new KeyOrderedDispatcher("test", 4, 8)) {
+            for (int i = 0; i < 1000; i++) {
+                String key = "k" + (i % 10);
+                int sequence = i;
+                lanes.submit(key, () -> seen.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(sequence));
+            }
+        }
+
+        assertEquals(10, seen.size());
+        seen.values().forEach(sequence -> {
+            assertEquals(100, sequence.size());
+            for (int i = 1; i < sequence.size(); i++) {
+                assertEquals(sequence.get(i - 1) + 10, sequence.get(i));
+            }
+        });
+    }
+
+    @Test
+    void closeRethrowsTheFirstFailure() {
+        KeyOrderedDispatcher lanes = new KeyOrderedDispatcher("test", 2, 8);
+        lanes.submit("a", () -> { throw new IllegalStateException("boom"); });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, lanes::close);
+        assertEquals("boom", e.getMessage());
+    }
+}
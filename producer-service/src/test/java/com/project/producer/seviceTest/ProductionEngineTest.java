@@ -0,0 +1,322 @@
+package com.project.producer.seviceTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.project.producer.client;
+import com.project.producer.connector.CrmConnector;
+import com.project.producer.connector.InventoryConnector;
+import com.project.producer.coordination.ShardAssignment;
+import com.project.producer.coordination.SingleInstanceLeases;
+import com.project.producer.http.PageSink;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.model.Customer;
+import com.project.producer.model.EventIdGenerator;
+import com.project.producer.model.Product;
+import com.project.producer.model.TimeOrderedEventIdGenerator;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisher.PublishSummary;
+import com.project.producer.publisher.RecordKeyStrategy;
+import com.project.producer.service.ProductionEngine;
+import com.project.producer.service.RunReport;
+import com.project.producer.sync.ContentFingerprint;
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.RunCheckpointStore;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceCursorStore;
+import com.project.producer.sync.SourceFetch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductionEngineTest {
+
+    @Mock
+    private client.CrmClient crmClient;
+
+    @Mock
+    private client.InventoryClient inventoryClient;
+
+    @Mock
+    private KafkaEventPublisher publisher;
+
+    @Mock
+    private PublishBatch batch;
+
+    @Spy
+    private EventIdGenerator idGenerator = TimeOrderedEventIdGenerator.INSTANCE;
+
+    @Mock
+    private RecordKeyStrategy recordKeys;
+
+    @Spy
+    private PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private SourceCursorStore cursors;
+
+    @Spy
+    private SingleInstanceLeases shardLeases = new SingleInstanceLeases();
+
+    @Mock
+    private RunCheckpointStore checkpoints;
+
+    @InjectMocks
+    private ProductionEngine engine;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProduce_callsKafkaPublisher() {
+        when(publisher.openBatch(eq("customer_data"), any())).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 1, 0, Map.of(), 0)));
+        when(recordKeys.key(any())).thenReturn("1");
+        when(cursors.load("crm")).thenReturn(SourceCursor.EMPTY);
+        SourceFetch fetch = new SourceFetch(1, false, false, new SourceCursor("\"7\"", null, null, null));
+        when(crmClient.streamCustomerChanges(eq(SourceCursor.EMPTY), isNull(), any(), any())).thenAnswer(invocation -> {
+            PageSink<Customer> sink = invocation.getArgument(3);
+            sink.accept(new Customer("1", "Alice", "alice@example.com"), 0);
+            return fetch;
+        });
+
+        engine.produce(new CrmConnector(crmClient));
+
+        // Verify the record is sent through the run's batch and the batch is completed
+        verify(batch, times(1)).send(eq("1"), any(), anyLong(), any());
+        verify(batch).complete();
+        verify(cursors).save("crm", fetch.cursor(), null);
+    }
+
+    @Test
+    public void testProduce_notModifiedPublishesNothing() {
+        when(publisher.openBatch(eq("customer_data"), any())).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 0, 0, Map.of(), 0)));
+        SourceCursor cursor = new SourceCursor("\"7\"", null, null, null);
+        when(cursors.load("crm")).thenReturn(cursor);
+        when(crmClient.streamCustomerChanges(eq(cursor), isNull(), any(), any()))
+                .thenReturn(new SourceFetch(0, true, false, cursor));
+
+        engine.produce(new CrmConnector(crmClient));
+
+        verify(batch, never()).send(any(), any(), anyLong(), any());
+        verify(cursors, never()).save(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProduce_usesTheTopicAndCursorOfTheConnector() {
+        when(publisher.openBatch(eq("inventory_data"), any())).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("inventory_data", 1, 0, Map.of(), 0)));
+        when(recordKeys.key(any())).thenReturn("P1");
+        when(cursors.load("inventory")).thenReturn(SourceCursor.EMPTY);
+        SourceFetch fetch = new SourceFetch(1, false, false, new SourceCursor("\"3\"", null, null, null));
+        when(inventoryClient.streamProductChanges(eq(SourceCursor.EMPTY), isNull(), any(), any()))
+                .thenAnswer(invocation -> {
+                    PageSink<Product> sink = invocation.getArgument(3);
+                    sink.accept(Product.ofId("P1"), 0);
+                    return fetch;
+                });
+
+        engine.produce(new InventoryConnector(inventoryClient));
+
+        verify(batch).send(eq("P1"), any(), anyLong(), any());
+        verify(cursors).save("inventory", fetch.cursor(), null);
+        verify(cursors, never()).load("crm");
+    }
+
+    @Test
+    public void testProduce_publishesOnlyTheOwnedShards() {
+        // "1" hashes to shard 1 of 2, "2" to shard 0
+        ShardAssignment shards = new ShardAssignment(2, Set.of(1));
+        doReturn(shards).when(shardLeases).current();
+        when(publisher.openBatch(eq("customer_data"), any())).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 1, 0, Map.of(), 0)));
+        when(recordKeys.key(any())).thenReturn("1");
+        when(cursors.load("crm.shards-1-of-2")).thenReturn(SourceCursor.EMPTY);
+        SourceFetch fetch = new SourceFetch(2, false, false, SourceCursor.EMPTY);
+        when(crmClient.streamCustomerChanges(eq(SourceCursor.EMPTY), isNull(), eq(shards), any()))
+                .thenAnswer(invocation -> {
+                    PageSink<Customer> sink = invocation.getArgument(3);
+                    // A source that ignores the shards still sends the records of other shards.
+                    sink.accept(new Customer("1", "Alice", "alice@example.com"), 0);
+                    sink.accept(new Customer("2", "Bob", "bob@example.com"), 0);
+                    return fetch;
+                });
+
+        engine.produce(new CrmConnector(crmClient));
+
+        verify(batch, times(1)).send(any(), any(), anyLong(), any());
+        verify(cursors).save("crm.shards-1-of-2", fetch.cursor(), null);
+    }
+
+    @Test
+    public void testProduce_resumesAtTheCheckpointAndClearsItOnSuccess() {
+        ReflectionTestUtils.setField(engine, "checkpointing", true);
+        ReflectionTestUtils.setField(engine, "checkpointInterval", Duration.ofSeconds(30));
+        when(publisher.openBatch(eq("customer_data"), any())).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 1, 0, Map.of(), 0)));
+        when(recordKeys.key(any())).thenReturn("3");
+        SourceCursor started = new SourceCursor("\"7\"", null, null, null);
+        RunCheckpoint checkpoint = new RunCheckpoint("http://crm/customers?limit=2&offset=2", 2, started,
+                Instant.now());
+        when(cursors.load("crm")).thenReturn(SourceCursor.EMPTY);
+        when(checkpoints.load("crm")).thenReturn(Optional.of(checkpoint));
+        when(crmClient.streamCustomerChanges(eq(SourceCursor.EMPTY), eq(checkpoint), any(), any()))
+                .thenAnswer(invocation -> {
+                    PageSink<Customer> sink = invocation.getArgument(3);
+                    sink.pageStarted(0, URI.create(checkpoint.resumeUri()));
+                    sink.accept(new Customer("3", "Carol", "carol@example.com"), 0);
+                    sink.pageRead(0, 1);
+                    return new SourceFetch(1, false, true, started);
+                });
+
+        engine.produce(new CrmConnector(crmClient));
+
+        verify(batch).send(eq("3"), any(), anyLong(), any());
+        verify(cursors).save("crm", started, null);
+        verify(checkpoints).clear("crm");
+    }
+
+    @Test
+    public void testProduce_reportsTheChangesFoundByChangeDetection() {
+        ReflectionTestUtils.setField(engine, "incremental", true);
+        // The first run is a full reload on the bulk profile, the second an incremental run
+        when(publisher.openBatch(eq("customer_data"), any())).thenReturn(batch);
+        when(publisher.openBatch("customer_data")).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 2, 0, Map.of(), 0)));
+        when(recordKeys.key(any())).thenReturn("1");
+        when(cursors.load("crm")).thenReturn(SourceCursor.EMPTY);
+        when(crmClient.streamCustomerChanges(eq(SourceCursor.EMPTY), isNull(), any(), any())).thenAnswer(invocation -> {
+            PageSink<Customer> sink = invocation.getArgument(3);
+            sink.accept(new Customer("1", "Alice", "alice@example.com"), 0);
+            sink.accept(new Customer("2", "Bob", "bob@example.com"), 0);
+            return new SourceFetch(2, false, false, SourceCursor.EMPTY);
+        });
+        CrmConnector crm = new CrmConnector(crmClient);
+
+        assertEquals(2, engine.produce(crm).changes());
+
+        // The same records again: read, but nothing changed
+        RunReport unchanged = engine.produce(crm);
+        assertEquals(2, unchanged.read());
+        assertEquals(0, unchanged.changes());
+        verify(batch, times(2)).send(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    public void testProduce_stopsPublishingShardsRevokedDuringTheRun() {
+        ReflectionTestUtils.setField(engine, "incremental", true);
+        AtomicReference<ShardAssignment> owned = new AtomicReference<>(ShardAssignment.ALL);
+        doAnswer(invocation -> owned.get()).when(shardLeases).current();
+        when(publisher.openBatch(eq("customer_data"), any())).thenReturn(batch);
+        when(publisher.openBatch("customer_data")).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 2, 0, Map.of(), 0)));
+        when(recordKeys.key(any())).thenReturn("1");
+        when(cursors.load("crm")).thenReturn(SourceCursor.EMPTY);
+        SourceCursor first = new SourceCursor("\"1\"", null, null, null);
+        SourceCursor second = new SourceCursor("\"2\"", null, null, null);
+        when(crmClient.streamCustomerChanges(eq(SourceCursor.EMPTY), isNull(), any(), any()))
+                .thenAnswer(invocation -> {
+                    PageSink<Customer> sink = invocation.getArgument(3);
+                    sink.accept(new Customer("1", "Alice", "alice@example.com"), 0);
+                    sink.accept(new Customer("2", "Bob", "bob@example.com"), 0);
+                    return new SourceFetch(2, false, false, first);
+                })
+                .thenAnswer(invocation -> {
+                    PageSink<Customer> sink = invocation.getArgument(3);
+                    sink.accept(new Customer("1", "Alice", "alice@example.com"), 0);
+                    // Shard 0, holding "2", moves to another instance mid-run
+                    owned.set(new ShardAssignment(2, Set.of(1)));
+                    sink.accept(new Customer("2", "Bob", "bob@example.org"), 0);
+                    return new SourceFetch(2, false, false, second);
+                });
+        CrmConnector crm = new CrmConnector(crmClient);
+        engine.produce(crm);
+
+        engine.produce(crm);
+
+        // Only the first run published; the changed "2" belongs to the new owner now,
+        // and not having classified it must not make it look deleted.
+        verify(batch, times(2)).send(any(), any(), anyLong(), any());
+        verify(batch, never()).delete(any(), any());
+        verify(cursors).save(eq("crm"), eq(first), any());
+        verify(cursors, never()).save(eq("crm"), eq(second), any());
+    }
+
+    @Test
+    public void testProduce_continuesFromTheStoredBaselineAfterARestart() {
+        ReflectionTestUtils.setField(engine, "incremental", true);
+        Customer alice = new Customer("1", "Alice", "alice@example.com");
+        Customer bob = new Customer("2", "Bob", "bob@example.com");
+        SourceCursor stored = new SourceCursor("\"1\"", null, null, null);
+        SourceCursor next = new SourceCursor("\"2\"", null, null, null);
+        when(cursors.loadBaseline("crm")).thenReturn(Optional.of(Map.of(
+                "1", ContentFingerprint.of(alice), "2", ContentFingerprint.of(bob))));
+        when(cursors.load("crm")).thenReturn(stored);
+        when(publisher.openBatch("customer_data")).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 1, 0, Map.of(), 0)));
+        when(recordKeys.key(any())).thenReturn("2");
+        when(crmClient.streamCustomerChanges(eq(stored), isNull(), any(), any())).thenAnswer(invocation -> {
+            PageSink<Customer> sink = invocation.getArgument(3);
+            sink.accept(new Customer("1", "Alice", "alice@example.com"), 0);
+            return new SourceFetch(1, false, false, next);
+        });
+
+        engine.produce(new CrmConnector(crmClient));
+
+        // Alice is unchanged since before the restart, Bob is gone.
+        verify(batch, never()).send(any(), any(), anyLong(), any());
+        verify(batch).delete(eq("2"), any());
+        verify(cursors).save("crm", next, Map.of("1", ContentFingerprint.of(alice)));
+    }
+
+    @Test
+    public void testProduce_readsInFullWithoutAStoredBaseline() {
+        ReflectionTestUtils.setField(engine, "incremental", true);
+        when(cursors.loadBaseline("crm")).thenReturn(Optional.empty());
+        when(publisher.openBatch(eq("customer_data"), any())).thenReturn(batch);
+        when(batch.complete()).thenReturn(CompletableFuture.completedFuture(
+                new PublishSummary("customer_data", 0, 0, Map.of(), 0)));
+        when(crmClient.streamCustomerChanges(eq(SourceCursor.EMPTY), isNull(), any(), any()))
+                .thenReturn(new SourceFetch(0, false, false, SourceCursor.EMPTY));
+
+        engine.produce(new CrmConnector(crmClient));
+
+        // The stored cursor belongs to fingerprints that are gone, so it is not used.
+        verify(cursors, never()).load("crm");
+    }
+
+    @Test
+    public void testProduce_skippedWithoutShards() {
+        doReturn(new ShardAssignment(2, Set.of())).when(shardLeases).current();
+
+        assertNull(engine.produce(new CrmConnector(crmClient)), "nothing ran, so there is nothing to report");
+
+        verifyNoInteractions(publisher, crmClient, cursors);
+    }
+}
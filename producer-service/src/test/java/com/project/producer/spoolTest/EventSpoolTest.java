@@ -0,0 +1,144 @@
+package com.project.producer.spoolTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.producer.config.ProducerProfiles;
+import com.project.producer.metrics.PipelineMetrics;
+import com.project.producer.model.BaseEvent;
+import com.project.producer.publisher.KafkaEventPublisher;
+import com.project.producer.publisher.PublishBatch;
+import com.project.producer.publisher.PublishSummary;
+import com.project.producer.publisherTest.MockProducers;
+import com.project.producer.spool.EventSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+public class EventSpoolTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    private EventSpool spool;
+
+    @AfterEach
+    public void tearDown() {
+        if (spool != null) {
+            spool.stop();
+        }
+    }
+
+    @Test
+    public void testSpooledRecords_surviveRestartAndReplayInOrder() throws Exception {
+        MockProducer<String, Object> producer = MockProducers.keptOpen(true);
+        ProducerProfiles profiles = profiles(producer);
+
+        EventSpool first = spool(profiles, 60_000);
+        first.start();
+        assertTrue(first.append("customer_data", "C1", update("C1", 1)));
+        assertTrue(first.append("customer_data", "C2", update("C2", 1)));
+        assertTrue(first.append("customer_data", "C1", update("C1", 2)));
+        assertTrue(first.append("customer_data", "C1", null));
+        first.stop();
+        assertTrue(producer.history().isEmpty());
+        assertEquals(1, segmentFiles());
+
+        // A new spool over the same directory stands in for a restarted producer
+        spool = spool(profiles, 10);
+        spool.start();
+        assertEquals(4, spool.depth());
+        await(() -> spool.depth() == 0 && !spool.isActive());
+
+        List<ProducerRecord<String, Object>> replayed = producer.history();
+        assertEquals(List.of("C1", "C2", "C1", "C1"), replayed.stream().map(ProducerRecord::key).toList());
+        assertEquals(Map.of("id", "C1", "version", 1), ((BaseEvent<?>) replayed.get(0).value()).getPayload());
+        assertEquals(Map.of("id", "C2", "version", 1), ((BaseEvent<?>) replayed.get(1).value()).getPayload());
+        assertEquals(Map.of("id", "C1", "version", 2), ((BaseEvent<?>) replayed.get(2).value()).getPayload());
+        assertNull(replayed.get(3).value());
+        assertEquals(0, segmentFiles());
+    }
+
+    @Test
+    public void testRetriableSendFailure_isSpooledInsteadOfFailed() throws Exception {
+        MockProducer<String, Object> producer = MockProducers.keptOpen(false);
+        ProducerProfiles profiles = profiles(producer);
+        spool = spool(profiles, 10);
+        spool.start();
+        KafkaEventPublisher publisher = new KafkaEventPublisher(profiles,
+                new PipelineMetrics(new SimpleMeterRegistry()), spool);
+        ReflectionTestUtils.setField(publisher, "maxInFlight", 100);
+
+        PublishBatch batch = publisher.openBatch("customer_data");
+        batch.send("C1", "a");
+        producer.errorNext(new TimeoutException("broker down"));
+        // "a" is in the spool now, so "b" queues behind it instead of overtaking it
+        batch.send("C1", "b");
+        PublishSummary summary = batch.complete().join();
+
+        assertEquals(0, summary.sent());
+        assertEquals(0, summary.failed());
+        assertEquals(2, summary.spooled());
+
+        await(() -> {
+            producer.completeNext();
+            return spool.depth() == 0;
+        });
+        // The failed attempt, then the replay of both records in send order
+        List<Object> values = producer.history().stream().map(ProducerRecord::value).toList();
+        assertEquals(List.of("a", "a", "b"), values);
+    }
+
+    private static BaseEvent<Object> update(String id, int version) {
+        return new BaseEvent<>("CUSTOMER_UPDATE", "CRM", Map.of("id", id, "version", version));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private ProducerProfiles profiles(MockProducer<String, Object> producer) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        return new ProducerProfiles("default", Map.of("default", template), Map.of());
+    }
+
+    private EventSpool spool(ProducerProfiles profiles, long replayIntervalMs) {
+        EventSpool spool = new EventSpool(profiles, objectMapper, new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(spool, "enabled", true);
+        ReflectionTestUtils.setField(spool, "dir", dir.toString());
+        ReflectionTestUtils.setField(spool, "segmentBytes", 1 << 16);
+        ReflectionTestUtils.setField(spool, "maxBlockMs", 1000L);
+        ReflectionTestUtils.setField(spool, "replayBatch", 100);
+        ReflectionTestUtils.setField(spool, "replayIntervalMs", replayIntervalMs);
+        return spool;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.producer.syncTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.sync.ChangeDetector;
+import com.project.producer.sync.SyncStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class ChangeDetectorTest {
+
+    @Test
+    public void testClassify_detectsCreateUpdateUnchangedAndDelete() {
+        ChangeDetector detector = new ChangeDetector();
+
+        ChangeDetector.Run first = detector.begin();
+        assertEquals(ChangeDetector.Change.CREATE, first.classify("1", Map.of("name", "Alice")));
+        assertEquals(ChangeDetector.Change.CREATE, first.classify("2", Map.of("name", "Bob")));
+        assertEquals(ChangeDetector.Change.CREATE, first.classify("3", Map.of("name", "Carol")));
+        first.complete();
+
+        ChangeDetector.Run second = detector.begin();
+        assertEquals(ChangeDetector.Change.UNCHANGED, second.classify("1", Map.of("name", "Alice")));
+        assertEquals(ChangeDetector.Change.UPDATE, second.classify("3", Map.of("name", "Caroline")));
+        assertEquals(ChangeDetector.Change.CREATE, second.classify("4", Map.of("name", "Dave")));
+        assertEquals(List.of("2"), second.deletedIds());
+
+        SyncStats stats = second.complete();
+        assertEquals(1, stats.skipped());
+        assertEquals(1, stats.created());
+        assertEquals(1, stats.updated());
+        assertEquals(1, stats.deleted());
+        assertEquals(3, stats.emitted());
+    }
+
+    @Test
+    public void testRestoredBaseline_detectsDeletionsAfterARestart() {
+        ChangeDetector before = new ChangeDetector();
+        ChangeDetector.Run first = before.begin();
+        first.classify("1", Map.of("name", "Alice"));
+        first.classify("2", Map.of("name", "Bob"));
+        first.complete();
+
+        ChangeDetector after = new ChangeDetector(before.baseline());
+        ChangeDetector.Run second = after.begin();
+
+        assertTrue(after.hasBaseline());
+        assertFalse(new ChangeDetector().hasBaseline());
+        assertEquals(ChangeDetector.Change.UNCHANGED, second.classify("1", Map.of("name", "Alice")));
+        assertEquals(List.of("2"), second.deletedIds());
+    }
+
+    @Test
+    public void testClassify_ignoresKeyOrder() {
+        ChangeDetector detector = new ChangeDetector();
+
+        ChangeDetector.Run first = detector.begin();
+        first.classify("1", Map.of("name", "Alice", "email", "alice@example.com"));
+        first.complete();
+
+        ChangeDetector.Run second = detector.begin();
+        assertEquals(ChangeDetector.Change.UNCHANGED,
+                second.classify("1", Map.of("email", "alice@example.com", "name", "Alice")));
+    }
+
+    @Test
+    public void testIncompleteRun_keepsPreviousBaseline() {
+        ChangeDetector detector = new ChangeDetector();
+
+        ChangeDetector.Run first = detector.begin();
+        first.classify("1", Map.of("name", "Alice"));
+        first.complete();
+
+        // A run that fails before completing must not replace the baseline
+        detector.begin().classify("2", Map.of("name", "Bob"));
+
+        assertEquals(1, detector.size());
+        assertEquals(ChangeDetector.Change.UNCHANGED, detector.begin().classify("1", Map.of("name", "Alice")));
+    }
+
+    @Test
+    public void testCompletePartial_keepsUnseenEntities() {
+        ChangeDetector detector = new ChangeDetector();
+        ChangeDetector.Run full = detector.begin();
+        full.classify("1", Map.of("name", "Alice"));
+        full.classify("2", Map.of("name", "Bob"));
+        full.complete();
+
+        ChangeDetector.Run delta = detector.begin();
+        assertEquals(ChangeDetector.Change.UPDATE, delta.classify("2", Map.of("name", "Robert")));
+        assertEquals(0, delta.completePartial().deleted());
+
+        assertEquals(2, detector.size());
+        assertEquals(ChangeDetector.Change.UNCHANGED, detector.begin().classify("1", Map.of("name", "Alice")));
+        assertEquals(ChangeDetector.Change.UNCHANGED, detector.begin().classify("2", Map.of("name", "Robert")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.producer.syncTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.project.producer.sync.RunCheckpoint;
+import com.project.producer.sync.RunProgress;
+import com.project.producer.sync.SourceCursor;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+
+public class RunProgressTest {
+
+    private static final SourceCursor CURSOR = new SourceCursor("\"1\"", null, Instant.EPOCH, Instant.EPOCH);
+
+    @Test
+    public void testCheckpoint_pointsAtTheFirstPageNotFullyAcknowledged() {
+        RunProgress progress = new RunProgress(null, Duration.ZERO);
+        progress.started(CURSOR);
+        for (long page = 0; page < 3; page++) {
+            progress.pageStarted(page, URI.create("http://crm/customers?limit=2&offset=" + page * 2));
+            progress.pageRead(page, 2);
+        }
+        assertTrue(progress.checkpoint().isEmpty(), "no page is acknowledged yet");
+
+        // Page 2 completes out of order, page 1 only half
+        progress.page(0).acknowledge();
+        progress.page(0).acknowledge();
+        progress.page(1).acknowledge();
+        progress.page(2).acknowledge();
+        progress.page(2).acknowledge();
+
+        RunCheckpoint checkpoint = progress.checkpoint().orElseThrow();
+        assertEquals("http://crm/customers?limit=2&offset=2", checkpoint.resumeUri());
+        assertEquals(5, checkpoint.acknowledged());
+        assertSame(CURSOR, checkpoint.cursor());
+        assertTrue(progress.checkpoint().isEmpty(), "the run got no further since");
+    }
+
+    @Test
+    public void testCheckpoint_resumedRunKeepsTheOriginalCursor() {
+        RunCheckpoint resume = new RunCheckpoint("http://crm/customers?cursor=b", 10, CURSOR, Instant.EPOCH);
+        RunProgress progress = new RunProgress(resume, Duration.ofHours(1));
+        progress.pageStarted(0, URI.create("http://crm/customers?cursor=b"));
+        progress.page(0).acknowledge();
+        progress.pageRead(0, 1);
+        progress.pageStarted(1, URI.create("http://crm/customers?cursor=c"));
+
+        assertTrue(progress.checkpointIfDue().isEmpty(), "the interval has not passed");
+        RunCheckpoint checkpoint = progress.checkpoint().orElseThrow();
+        assertEquals("http://crm/customers?cursor=c", checkpoint.resumeUri());
+        assertEquals(11, checkpoint.acknowledged());
+        assertSame(CURSOR, checkpoint.cursor());
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.producer.syncTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.producer.sync.SourceCursor;
+import com.project.producer.sync.SourceCursorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+public class SourceCursorStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSave_survivesRestart() {
+        SourceCursor cursor = new SourceCursor("\"42\"", "Thu, 01 Jan 2026 00:00:00 GMT",
+                Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-01T00:00:00Z"));
+        store().save("crm", cursor);
+
+        assertEquals(cursor, store().load("crm"));
+        assertEquals(SourceCursor.EMPTY, store().load("inventory"));
+    }
+
+    @Test
+    public void testSave_storesTheBaselineWithTheCursor() {
+        SourceCursor cursor = new SourceCursor("\"42\"", null, null, null);
+        store().save("crm", cursor, Map.of("1", 11L, "2", 22L));
+
+        SourceCursorStore restarted = store();
+        assertEquals(cursor, restarted.load("crm"));
+        assertEquals(Optional.of(Map.of("1", 11L, "2", 22L)), restarted.loadBaseline("crm"));
+
+        store().save("crm", cursor);
+        assertEquals(Optional.empty(), store().loadBaseline("crm"), "a full run stores no baseline");
+    }
+
+    @Test
+    public void testLoad_bareCursorHasNoBaseline() throws Exception {
+        Files.writeString(dir.resolve("crm.cursor.json"), "{\"etag\":\"\\\"42\\\"\"}");
+
+        assertEquals("\"42\"", store().load("crm").etag());
+        assertEquals(Optional.empty(), store().loadBaseline("crm"));
+    }
+
+    @Test
+    public void testLoad_unreadableFileStartsOver() throws Exception {
+        Files.writeString(dir.resolve("crm.cursor.json"), "{not json");
+
+        assertEquals(SourceCursor.EMPTY, store().load("crm"));
+    }
+
+    @Test
+    public void testAllowsDelta_onlyWithinFullSyncInterval() {
+        Instant now = Instant.parse("2026-01-01T02:00:00Z");
+        SourceCursor cursor = new SourceCursor(null, null, now, Instant.parse("2026-01-01T01:30:00Z"));
+
+        assertTrue(cursor.allowsDelta(Duration.ofHours(1), now));
+        assertFalse(cursor.allowsDelta(Duration.ofMinutes(30), now));
+        assertFalse(SourceCursor.EMPTY.allowsDelta(Duration.ofHours(1), now));
+    }
+
+    private SourceCursorStore store() {
+        SourceCursorStore store = new SourceCursorStore(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(store, "stateDir", dir.toString());
+        return store;
+    }
+}